@@ -0,0 +1,127 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.bench;
+
+import com.duoc.library.exception.BookAlreadyLoanedException;
+import com.duoc.library.exception.BookNotFoundException;
+import com.duoc.library.exception.InvalidUserException;
+import com.duoc.library.model.Book;
+import com.duoc.library.model.LibraryClock;
+import com.duoc.library.model.Loan;
+import com.duoc.library.model.User;
+import com.duoc.library.service.LibraryService;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generador de datos deterministas para los benchmarks.
+ * 
+ * Los títulos combinan palabras de un vocabulario fijo para que las búsquedas
+ * por fragmento tengan coincidencias realistas, y uno de cada ocho contiene
+ * comas y comillas para ejercitar el escapado CSV.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public final class BenchmarkData {
+
+    /** Vocabulario usado para construir títulos y autores */
+    public static final String[] WORDS = {
+        "historia", "ciencia", "viaje", "ciudad", "memoria", "noche", "camino", "tiempo",
+        "mar", "libro", "sombra", "fuego", "jardin", "palabra", "silencio", "montana"
+    };
+
+    /**
+     * Constructor privado para prevenir instanciación.
+     * Esta clase solo contiene métodos estáticos.
+     */
+    private BenchmarkData() {
+        // Utility class - no instances allowed
+    }
+
+    /**
+     * Obtiene el ISBN del libro con el índice indicado.
+     * 
+     * @param index índice del libro
+     * @return ISBN-13 válido, con dígito de control, y único para el índice
+     */
+    public static String isbn(int index) {
+        String digits = String.format("978%09d", index);
+        int sum = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            int d = digits.charAt(i) - '0';
+            sum += (i & 1) == 0 ? d : 3 * d;
+        }
+        return "978-" + digits.substring(3) + (10 - sum % 10) % 10;
+    }
+
+    /**
+     * Obtiene el ID del usuario con el índice indicado.
+     * 
+     * @param index índice del usuario
+     * @return ID único para el índice
+     */
+    public static String userId(int index) {
+        return String.format("U%08d", index);
+    }
+
+    /**
+     * Genera una lista de libros.
+     * 
+     * @param count cantidad de libros
+     * @return libros con ISBN {@link #isbn(int)} para los índices 0 a count - 1
+     */
+    public static List<Book> books(int count) {
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String title = WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i;
+            if (i % 8 == 0) {
+                title = "\"" + title + "\", edicion " + (i % 5 + 1);
+            }
+            String author = "Autor " + WORDS[(i * 7) % WORDS.length] + " " + (i % 1000);
+            books.add(new Book(isbn(i), title, author));
+        }
+        return books;
+    }
+
+    /**
+     * Genera una lista de usuarios.
+     * 
+     * @param count cantidad de usuarios
+     * @return usuarios con ID {@link #userId(int)} para los índices 0 a count - 1
+     */
+    public static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new User(userId(i), "Usuario " + i, "usuario" + i + "@duoc.cl"));
+        }
+        return users;
+    }
+
+    /**
+     * Crea un servicio con libros, usuarios y un historial de préstamos devueltos.
+     * 
+     * @param bookCount cantidad de libros
+     * @param userCount cantidad de usuarios
+     * @param loanCount cantidad de préstamos del historial
+     * @return servicio poblado
+     */
+    public static LibraryService service(int bookCount, int userCount, int loanCount) {
+        LibraryService service = new LibraryService(LibraryClock.system(), bookCount, userCount, loanCount);
+        service.addBooks(books(bookCount));
+        service.addUsers(users(userCount));
+        try {
+            for (int i = 0; i < loanCount; i++) {
+                Loan loan = service.loanBook(userId(i % userCount), isbn(i % bookCount));
+                service.returnBook(loan.getLoanId());
+            }
+        } catch (InvalidUserException | BookNotFoundException | BookAlreadyLoanedException e) {
+            throw new IllegalStateException("Datos de benchmark inconsistentes: " + e.getMessage(), e);
+        }
+        return service;
+    }
+}
\ No newline at end of file
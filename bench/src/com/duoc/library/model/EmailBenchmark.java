@@ -0,0 +1,67 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.model;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks de la validación de emails.
+ * 
+ * Compara {@link Email} con la expresión regular que reemplaza, sobre una
+ * mezcla de direcciones válidas e inválidas con espacios en los extremos.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailBenchmark {
+
+    /** Expresión regular usada antes de {@link Email} */
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(
+        "^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\\.[A-Za-z]{2,})$"
+    );
+
+    /** Direcciones validadas en cada invocación */
+    private final String[] emails = {
+        "usuario42@duoc.cl",
+        " Maria.Perez+biblio@alumnos.duoc.cl ",
+        "sin-arroba.duoc.cl",
+        "usuario@duoc.c",
+        "usuario@dominio-sin-punto",
+        "nombre_apellido@correo.example.com"
+    };
+
+    @Benchmark
+    public void regex(Blackhole blackhole) {
+        for (String email : emails) {
+            blackhole.consume(EMAIL_PATTERN.matcher(email.trim()).matches());
+        }
+    }
+
+    @Benchmark
+    public void handWritten(Blackhole blackhole) {
+        for (String email : emails) {
+            blackhole.consume(Email.isValidTrimmed(email));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,102 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.service;
+
+import com.duoc.library.bench.BenchmarkData;
+import com.duoc.library.model.Book;
+import com.duoc.library.model.User;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks de la carga masiva de libros y usuarios en {@link LibraryService}.
+ * 
+ * Los métodos {@code reimport*} cargan de nuevo registros que ya existen en el
+ * servicio: comparan la detección de duplicados por excepción, como hacía la
+ * importación original, con {@link LibraryService#addBooks(Iterable)}. Los
+ * métodos {@code import*} cargan registros nuevos en un servicio vacío, con
+ * los mapas dimensionados por defecto o para la cantidad esperada. Los
+ * registros se crean antes de medir, de modo que no se incluye el parsing CSV.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkImportBenchmark {
+
+    /** Cantidad de libros y de usuarios cargados */
+    @Param({"100000", "1000000"})
+    public int size;
+
+    /** Servicio que ya contiene todos los libros */
+    private LibraryService populated;
+
+    /** Copias de los libros del servicio poblado */
+    private List<Book> books;
+
+    /** Usuarios para la carga en un servicio vacío */
+    private List<User> users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        books = BenchmarkData.books(size);
+        users = BenchmarkData.users(size);
+        populated = new LibraryService();
+        populated.addBooks(BenchmarkData.books(size));
+    }
+
+    @Benchmark
+    public int reimportBooksWithExceptions() {
+        int duplicates = 0;
+        for (Book book : books) {
+            try {
+                populated.addBook(book);
+            } catch (IllegalArgumentException e) {
+                if (e.getMessage().contains("Ya existe")) {
+                    duplicates++;
+                }
+            }
+        }
+        return duplicates;
+    }
+
+    @Benchmark
+    public LibraryService.BulkAddResult reimportBooksBulk() {
+        return populated.addBooks(books);
+    }
+
+    @Benchmark
+    public LibraryService importUsersDefaultSizing() {
+        LibraryService service = new LibraryService();
+        service.addUsers(users);
+        return service;
+    }
+
+    @Benchmark
+    public LibraryService importUsersPresized() {
+        LibraryService service = new LibraryService(0, size);
+        service.addUsers(users);
+        return service;
+    }
+}
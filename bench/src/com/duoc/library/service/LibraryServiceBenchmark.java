@@ -0,0 +1,101 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.service;
+
+import com.duoc.library.bench.BenchmarkData;
+import com.duoc.library.exception.BookAlreadyLoanedException;
+import com.duoc.library.exception.BookNotFoundException;
+import com.duoc.library.exception.InvalidUserException;
+import com.duoc.library.model.Book;
+import com.duoc.library.model.Loan;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks de las operaciones frecuentes de {@link LibraryService}.
+ * 
+ * El parámetro {@code size} fija la cantidad de libros y de préstamos del
+ * historial; la cantidad de usuarios es la décima parte, con un mínimo de 100.
+ * Cada operación elige un libro al azar, por lo que al ejecutarse con varios
+ * hilos ({@code -t}) los préstamos compiten por los bloqueos como en producción.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LibraryServiceBenchmark {
+
+    /** Cantidad de libros y de préstamos del historial */
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    /** Servicio poblado con los datos de prueba */
+    private LibraryService service;
+
+    /** Cantidad de usuarios registrados */
+    private int userCount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        userCount = Math.max(100, size / 10);
+        service = BenchmarkData.service(size, userCount, size);
+    }
+
+    @Benchmark
+    public Loan loanAndReturn() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            Loan loan = service.loanBook(BenchmarkData.userId(random.nextInt(userCount)),
+                                         BenchmarkData.isbn(random.nextInt(size)));
+            service.returnBook(loan.getLoanId());
+            return loan;
+        } catch (BookAlreadyLoanedException e) {
+            // Otro hilo tiene el libro prestado en este momento
+            return null;
+        } catch (InvalidUserException | BookNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public Book findBookByIsbn() {
+        return service.findBookByIsbn(BenchmarkData.isbn(ThreadLocalRandom.current().nextInt(size)));
+    }
+
+    @Benchmark
+    public List<Book> searchBooksByTitle() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String[] words = BenchmarkData.WORDS;
+        String first = words[random.nextInt(words.length)];
+        String second = words[random.nextInt(words.length)];
+        return service.searchBooksByTitle(first + " " + second.substring(0, 3));
+    }
+
+    @Benchmark
+    public Map<String, Object> getSystemStatistics() {
+        return service.getSystemStatistics();
+    }
+}
\ No newline at end of file
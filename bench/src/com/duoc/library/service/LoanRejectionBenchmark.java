@@ -0,0 +1,128 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.service;
+
+import com.duoc.library.bench.BenchmarkData;
+import com.duoc.library.exception.BookAlreadyLoanedException;
+import com.duoc.library.exception.BookNotFoundException;
+import com.duoc.library.exception.InvalidUserException;
+import com.duoc.library.model.Book;
+import com.duoc.library.model.Loan;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks de préstamos rechazados.
+ * 
+ * Todos los libros del servicio están prestados, por lo que cada solicitud se
+ * rechaza. Compara el costo de un rechazo informado con excepciones mediante
+ * {@link LibraryService#loanBook(String, String)} con el de un rechazo
+ * informado con {@link LibraryService#tryLoanBook(String, String)}, tomando
+ * como referencia la búsqueda del libro por ISBN. Los ISBN e IDs se generan
+ * antes de medir para no incluir su formateo.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanRejectionBenchmark {
+
+    /** Cantidad de libros, todos prestados */
+    private static final int BOOK_COUNT = 10000;
+
+    /** Cantidad de usuarios registrados */
+    private static final int USER_COUNT = 1000;
+
+    /** Servicio con todos sus libros prestados */
+    private LibraryService service;
+
+    /** ISBN de los libros prestados */
+    private String[] isbns;
+
+    /** IDs de los usuarios registrados */
+    private String[] userIds;
+
+    /** IDs con formato válido que no están registrados */
+    private String[] unknownUserIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InvalidUserException, BookNotFoundException, BookAlreadyLoanedException {
+        service = BenchmarkData.service(BOOK_COUNT, USER_COUNT, 0);
+        isbns = new String[BOOK_COUNT];
+        for (int i = 0; i < BOOK_COUNT; i++) {
+            isbns[i] = BenchmarkData.isbn(i);
+        }
+        userIds = new String[USER_COUNT];
+        unknownUserIds = new String[USER_COUNT];
+        for (int i = 0; i < USER_COUNT; i++) {
+            userIds[i] = BenchmarkData.userId(i);
+            unknownUserIds[i] = BenchmarkData.userId(USER_COUNT + i);
+        }
+        for (int i = 0; i < BOOK_COUNT; i++) {
+            service.loanBook(userIds[i % USER_COUNT], isbns[i]);
+        }
+    }
+
+    @Benchmark
+    public Book findBookByIsbn() {
+        return service.findBookByIsbn(isbns[ThreadLocalRandom.current().nextInt(BOOK_COUNT)]);
+    }
+
+    @Benchmark
+    public Object alreadyLoanedException() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            return service.loanBook(userIds[random.nextInt(USER_COUNT)], isbns[random.nextInt(BOOK_COUNT)]);
+        } catch (BookAlreadyLoanedException e) {
+            return e;
+        } catch (InvalidUserException | BookNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public LibraryService.LoanResult alreadyLoanedResult() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return service.tryLoanBook(userIds[random.nextInt(USER_COUNT)], isbns[random.nextInt(BOOK_COUNT)]);
+    }
+
+    @Benchmark
+    public Object unknownUserException() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            Loan loan = service.loanBook(unknownUserIds[random.nextInt(USER_COUNT)],
+                                         isbns[random.nextInt(BOOK_COUNT)]);
+            throw new IllegalStateException("Prestamo inesperado: " + loan.getLoanId());
+        } catch (InvalidUserException e) {
+            return e;
+        } catch (BookNotFoundException | BookAlreadyLoanedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public LibraryService.LoanResult unknownUserResult() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return service.tryLoanBook(unknownUserIds[random.nextInt(USER_COUNT)], isbns[random.nextInt(BOOK_COUNT)]);
+    }
+}
\ No newline at end of file
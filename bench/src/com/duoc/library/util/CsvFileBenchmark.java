@@ -0,0 +1,156 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.util;
+
+import com.duoc.library.bench.BenchmarkData;
+import com.duoc.library.exception.FileNotFoundException;
+import com.duoc.library.model.Book;
+import com.duoc.library.model.Loan;
+import com.duoc.library.model.User;
+import com.duoc.library.service.FileService;
+import com.duoc.library.service.LibraryService;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks de lectura y escritura de archivos CSV completos.
+ * 
+ * El parámetro {@code rows} fija la cantidad de libros y usuarios de los
+ * archivos leídos y la cantidad de libros y préstamos escritos. Los archivos se crean en el
+ * directorio de trabajo, ya que los nombres de archivo CSV no admiten rutas,
+ * y se eliminan al terminar. Cada invocación procesa el archivo completo, por
+ * lo que el resultado es el tiempo por archivo.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CsvFileBenchmark {
+
+    /** Cantidad de registros de cada archivo */
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int rows;
+
+    /** Libros escritos y leídos */
+    private List<Book> books;
+
+    /** Préstamos escritos, devueltos la mitad de ellos */
+    private List<Loan> loans;
+
+    /** Archivo de libros que leen los benchmarks de lectura */
+    private Path booksFile;
+
+    /** Archivo de usuarios que leen los benchmarks de importación de usuarios */
+    private Path usersFile;
+
+    /** Archivo de destino de los benchmarks de escritura */
+    private Path outputFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        books = BenchmarkData.books(rows);
+        List<User> users = BenchmarkData.users(Math.max(100, rows / 10));
+        LocalDate start = LocalDate.of(2024, 3, 1);
+        loans = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            LocalDate loanDate = start.plusDays(i % 365);
+            loans.add(Loan.restore(String.format("LOAN-%016X", i), users.get(i % users.size()), books.get(i),
+                                   loanDate, loanDate.plusDays(Loan.DEFAULT_LOAN_DAYS),
+                                   i % 2 == 0 ? loanDate.plusDays(i % 20) : null));
+        }
+        
+        booksFile = Files.createTempFile(Paths.get(""), "bench-libros", ".csv");
+        usersFile = Files.createTempFile(Paths.get(""), "bench-usuarios", ".csv");
+        outputFile = Files.createTempFile(Paths.get(""), "bench-salida", ".csv");
+        
+        // Formato de importación ISBN,Titulo,Autor, sin encabezados
+        try (CsvChannelWriter writer = new CsvChannelWriter(booksFile.toString(), false,
+                                                            CsvChannelWriter.DEFAULT_BUFFER_SIZE, false)) {
+            for (Book book : books) {
+                writer.row(book.getIsbn(), book.getTitle(), book.getAuthor());
+            }
+            writer.commit();
+        }
+        
+        // Formato de importación ID,Nombre,Email, sin encabezados
+        try (CsvChannelWriter writer = new CsvChannelWriter(usersFile.toString(), false,
+                                                            CsvChannelWriter.DEFAULT_BUFFER_SIZE, false)) {
+            for (User user : BenchmarkData.users(rows)) {
+                writer.row(user.getId(), user.getName(), user.getEmail());
+            }
+            writer.commit();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(booksFile);
+        Files.deleteIfExists(usersFile);
+        Files.deleteIfExists(outputFile);
+        Files.deleteIfExists(AtomicFiles.checksumFile(outputFile));
+    }
+
+    @Benchmark
+    public int readBooksStream(Blackhole blackhole) throws IOException {
+        return CSVReader.readBooksFromCSV(booksFile.toString(), CSVReader.ReadMode.STREAM, blackhole::consume);
+    }
+
+    @Benchmark
+    public int readBooksMapped(Blackhole blackhole) throws IOException {
+        return CSVReader.readBooksFromCSV(booksFile.toString(), CSVReader.ReadMode.MAPPED, blackhole::consume);
+    }
+
+    @Benchmark
+    public List<Book> readBooksParallel() throws IOException {
+        return CSVReader.readBooksFromCSVParallel(booksFile.toString());
+    }
+
+    @Benchmark
+    public int readUsersStream(Blackhole blackhole) throws IOException {
+        return CSVReader.readUsersFromCSV(usersFile.toString(), blackhole::consume);
+    }
+
+    @Benchmark
+    public FileService.ImportResult importUsers() throws FileNotFoundException, IOException {
+        return new FileService(new LibraryService()).loadUsersFromCSV(usersFile.toString());
+    }
+
+    @Benchmark
+    public int writeBooks() throws IOException {
+        return FileWriter.writeBooksToCSV(books, outputFile.toString());
+    }
+
+    @Benchmark
+    public int writeLoans() throws IOException {
+        return FileWriter.writeLoansToCSV(loans, outputFile.toString());
+    }
+}
\ No newline at end of file
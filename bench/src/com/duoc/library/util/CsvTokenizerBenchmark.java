@@ -0,0 +1,87 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks del tokenizador CSV sobre líneas en memoria, sin E/S.
+ * 
+ * Mide por separado el recorrido de una línea simple, el de una línea con
+ * campos entre comillas que requieren desescapado y la conversión de fechas
+ * de una línea de préstamo.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvTokenizerBenchmark {
+
+    /** Línea de libro sin comillas */
+    private final ByteBuffer plainLine = line("978-0000012345,historia del tiempo 12345,Autor memoria 345");
+
+    /** Línea de libro con comillas escapadas y separadores dentro de los campos */
+    private final ByteBuffer quotedLine = line("978-0000012345,\"\"\"historia, del\"\" tiempo\", edicion 3\",\"Autor, memoria\"");
+
+    /** Línea de préstamo exportada */
+    private final ByteBuffer loanLine = line("LOAN-0520FF8DEAC03F58,U00000042,Usuario 42,978-0000012345,"
+                                             + "historia del tiempo 12345,16/10/2026,30/10/2026,,ACTIVO");
+
+    /** Tokenizador reutilizado entre invocaciones, como en la lectura de archivos */
+    private final CsvTokenizer tokenizer = new CsvTokenizer();
+
+    @Benchmark
+    public void tokenizePlain(Blackhole blackhole) {
+        tokenizer.tokenize(plainLine, 0, plainLine.limit());
+        blackhole.consume(tokenizer.trimmedField(0));
+        blackhole.consume(tokenizer.trimmedField(1));
+        blackhole.consume(tokenizer.trimmedField(2));
+    }
+
+    @Benchmark
+    public void tokenizeQuoted(Blackhole blackhole) {
+        tokenizer.tokenize(quotedLine, 0, quotedLine.limit());
+        blackhole.consume(tokenizer.trimmedField(0));
+        blackhole.consume(tokenizer.trimmedField(1));
+        blackhole.consume(tokenizer.trimmedField(2));
+    }
+
+    @Benchmark
+    public LocalDate tokenizeLoanDates() {
+        tokenizer.tokenize(loanLine, 0, loanLine.limit());
+        tokenizer.dateField(5);
+        return tokenizer.dateField(6);
+    }
+
+    /**
+     * Codifica una línea en un buffer de solo lectura.
+     * 
+     * @param text contenido de la línea
+     * @return buffer con la línea codificada en UTF-8
+     */
+    private static ByteBuffer line(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,460 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.main;
+
+import com.duoc.library.exception.BookNotFoundException;
+import com.duoc.library.exception.FileNotFoundException;
+import com.duoc.library.exception.InvalidUserException;
+import com.duoc.library.model.Book;
+import com.duoc.library.model.Loan;
+import com.duoc.library.model.User;
+import com.duoc.library.service.FileService;
+import com.duoc.library.service.LibraryService;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Ejecutor de comandos de biblioteca sin interacción con el usuario.
+ *
+ * Lee un comando por línea desde un archivo o la entrada estándar y lo ejecuta
+ * sobre un {@link LibraryService}, escribiendo una línea de resultado por
+ * comando en una salida con buffer que solo se vacía al terminar. Sirve tanto
+ * para operaciones masivas como para generar carga sobre el servicio.
+ *
+ * Formato de los comandos:
+ * - Los campos se separan por espacios; un campo entre comillas dobles puede
+ *   contener espacios, y dos comillas seguidas dentro de él representan una
+ *   comilla
+ * - Las líneas vacías y las que comienzan con # se ignoran
+ * - El nombre del comando no distingue mayúsculas de minúsculas
+ *
+ * Comandos disponibles:
+ * - {@code ADD_BOOK <isbn> <titulo> <autor>}
+ * - {@code ADD_USER <id> <nombre> <email>}
+ * - {@code FIND_BOOK <isbn>}
+ * - {@code FIND_USER <id>}
+ * - {@code LOAN <idUsuario> <isbn> [dias]}
+ * - {@code RETURN <idPrestamo>}
+ * - {@code RETURN_BOOK <isbn>}: devuelve el préstamo activo del libro, lo que
+ *   permite escribir cargas de trabajo sin conocer los IDs de préstamo
+ * - {@code RESERVE <idUsuario> <isbn> [dias]}
+ * - {@code IMPORT BOOKS|USERS|LOANS <archivo>}
+ * - {@code EXPORT BOOKS|USERS|LOANS <archivo>}
+ * - {@code STATS}
+ *
+ * Cada resultado comienza con {@code OK}, con {@code RECHAZADO} cuando un
+ * préstamo o una devolución se rechaza por una condición esperada, como un
+ * libro ya prestado, un libro sin préstamo activo o un préstamo ya devuelto,
+ * o con {@code ERROR} y el número de línea cuando el comando no pudo
+ * ejecutarse.
+ * Un error no detiene el procesamiento de las líneas siguientes.
+ *
+ * Las instancias no son seguras para uso concurrente.
+ *
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public final class BatchRunner {
+
+    /** Servicio sobre el que se ejecutan los comandos */
+    private final LibraryService libraryService;
+
+    /** Servicio de archivos para importaciones y exportaciones */
+    private final FileService fileService;
+
+    /** Salida con buffer de los resultados */
+    private final PrintWriter out;
+
+    /** Campos de la línea actual, reutilizados entre líneas */
+    private final List<String> fields = new ArrayList<>();
+
+    /** Cantidad de comandos ejecutados */
+    private int commandCount;
+
+    /** Cantidad de préstamos y devoluciones rechazados */
+    private int rejectedCount;
+
+    /** Cantidad de comandos con error */
+    private int errorCount;
+
+    /**
+     * Crea un ejecutor de comandos.
+     *
+     * @param libraryService servicio sobre el que se ejecutan los comandos
+     * @param out salida de los resultados; se recomienda que no vacíe el buffer en cada línea
+     * @throws IllegalArgumentException si algún parámetro es null
+     */
+    public BatchRunner(LibraryService libraryService, PrintWriter out) {
+        if (libraryService == null) {
+            throw new IllegalArgumentException("LibraryService no puede ser null");
+        }
+        if (out == null) {
+            throw new IllegalArgumentException("La salida no puede ser null");
+        }
+        this.libraryService = libraryService;
+        this.fileService = new FileService(libraryService);
+        this.out = out;
+    }
+
+    /**
+     * Ejecuta todos los comandos de una entrada y vacía la salida al terminar.
+     *
+     * @param input entrada con un comando por línea
+     * @throws IOException si ocurre un error leyendo la entrada
+     */
+    public void run(BufferedReader input) throws IOException {
+        try {
+            String line;
+            int lineNumber = 0;
+            while ((line = input.readLine()) != null) {
+                lineNumber++;
+                execute(line, lineNumber);
+            }
+        } finally {
+            out.flush();
+        }
+    }
+
+    /**
+     * Ejecuta un comando y escribe su resultado.
+     *
+     * @param line línea con el comando
+     * @param lineNumber número de la línea, usado en los mensajes de error
+     */
+    public void execute(String line, int lineNumber) {
+        if (isBlankOrComment(line)) {
+            return;
+        }
+        commandCount++;
+        try {
+            tokenize(line);
+            dispatch(fields.get(0).toUpperCase(Locale.ROOT));
+        } catch (Exception e) {
+            errorCount++;
+            out.printf("ERROR linea %d: %s%n", lineNumber, e.getMessage());
+        }
+    }
+
+    // Getters
+    public int getCommandCount() { return commandCount; }
+    public int getRejectedCount() { return rejectedCount; }
+    public int getErrorCount() { return errorCount; }
+
+    // ================================
+    // COMANDOS
+    // ================================
+
+    /**
+     * Ejecuta el comando de la línea actual.
+     *
+     * @param command nombre del comando en mayúsculas
+     * @throws Exception si el comando falla
+     */
+    private void dispatch(String command) throws Exception {
+        switch (command) {
+            case "ADD_BOOK":
+                requireFields(3, "ADD_BOOK <isbn> <titulo> <autor>");
+                libraryService.addBook(new Book(fields.get(1), fields.get(2), fields.get(3)));
+                out.println("OK");
+                break;
+            case "ADD_USER":
+                requireFields(3, "ADD_USER <id> <nombre> <email>");
+                libraryService.addUser(new User(fields.get(1), fields.get(2), fields.get(3)));
+                out.println("OK");
+                break;
+            case "FIND_BOOK":
+                requireFields(1, "FIND_BOOK <isbn>");
+                findBook(fields.get(1));
+                break;
+            case "FIND_USER":
+                requireFields(1, "FIND_USER <id>");
+                out.println("OK " + libraryService.findUserById(fields.get(1)));
+                break;
+            case "LOAN":
+                requireFields(2, 3, "LOAN <idUsuario> <isbn> [dias]");
+                loan(fields.get(1), fields.get(2));
+                break;
+            case "RETURN":
+                requireFields(1, "RETURN <idPrestamo>");
+                returnLoan(fields.get(1));
+                break;
+            case "RETURN_BOOK":
+                requireFields(1, "RETURN_BOOK <isbn>");
+                returnBook(fields.get(1));
+                break;
+            case "RESERVE":
+                requireFields(2, 3, "RESERVE <idUsuario> <isbn> [dias]");
+                reserve(fields.get(1), fields.get(2));
+                break;
+            case "IMPORT":
+                requireFields(2, "IMPORT BOOKS|USERS|LOANS <archivo>");
+                importFile(fields.get(1).toUpperCase(Locale.ROOT), fields.get(2));
+                break;
+            case "EXPORT":
+                requireFields(2, "EXPORT BOOKS|USERS|LOANS <archivo>");
+                exportFile(fields.get(1).toUpperCase(Locale.ROOT), fields.get(2));
+                break;
+            case "STATS":
+                requireFields(0, "STATS");
+                out.println("OK " + libraryService.getSystemStatistics());
+                break;
+            default:
+                throw new IllegalArgumentException("Comando desconocido: " + fields.get(0));
+        }
+    }
+
+    /**
+     * Busca un libro por su ISBN.
+     *
+     * @param isbn ISBN del libro
+     * @throws BookNotFoundException si el libro no existe
+     */
+    private void findBook(String isbn) throws BookNotFoundException {
+        Book book = libraryService.findBookByIsbn(isbn);
+        if (book == null) {
+            throw new BookNotFoundException(isbn);
+        }
+        out.println("OK " + book);
+    }
+
+    /**
+     * Presta un libro. Los rechazos esperados se informan sin excepciones.
+     *
+     * @param userId ID del usuario
+     * @param isbn ISBN del libro
+     */
+    private void loan(String userId, String isbn) {
+        LibraryService.LoanResult result = fields.size() > 3
+                ? libraryService.tryLoanBook(userId, isbn, parseDays(fields.get(3)))
+                : libraryService.tryLoanBook(userId, isbn);
+        if (result.isLoaned()) {
+            out.println("OK " + result.getLoan().getLoanId());
+        } else {
+            rejectedCount++;
+            out.println("RECHAZADO " + result);
+        }
+    }
+
+    /**
+     * Devuelve un préstamo. Un préstamo ya devuelto se informa como rechazo.
+     *
+     * @param loanId ID del préstamo
+     * @throws IllegalArgumentException si el préstamo no existe
+     */
+    private void returnLoan(String loanId) {
+        Loan loan = libraryService.findLoanById(loanId);
+        if (loan != null && !loan.isActive()) {
+            rejectedCount++;
+            out.println("RECHAZADO El prestamo ya fue devuelto");
+            return;
+        }
+        libraryService.returnBook(loanId);
+        out.println("OK");
+    }
+
+    /**
+     * Devuelve el préstamo activo de un libro. Un libro sin préstamo activo se
+     * informa como rechazo.
+     *
+     * @param isbn ISBN del libro
+     */
+    private void returnBook(String isbn) {
+        Loan loan = libraryService.findActiveLoanByIsbn(isbn);
+        if (loan == null) {
+            rejectedCount++;
+            out.println("RECHAZADO El libro no tiene un prestamo activo");
+            return;
+        }
+        libraryService.returnBook(loan.getLoanId());
+        out.println("OK " + loan.getLoanId());
+    }
+
+    /**
+     * Reserva un libro. Si está disponible se presta de inmediato; si no, la
+     * reserva queda en espera y se cumple al devolverse el libro.
+     *
+     * @param userId ID del usuario
+     * @param isbn ISBN del libro
+     * @throws InvalidUserException si el usuario no existe o es inválido
+     * @throws BookNotFoundException si el libro no existe
+     */
+    private void reserve(String userId, String isbn) throws InvalidUserException, BookNotFoundException {
+        CompletableFuture<Loan> reservation = fields.size() > 3
+                ? libraryService.reserveBook(userId, isbn, parseDays(fields.get(3)))
+                : libraryService.reserveBook(userId, isbn);
+        if (reservation.isDone()) {
+            out.println("OK " + reservation.join().getLoanId());
+        } else {
+            out.println("OK EN ESPERA " + libraryService.getReservationCount(isbn));
+        }
+    }
+
+    /**
+     * Importa un archivo CSV.
+     *
+     * @param type tipo de datos del archivo
+     * @param fileName nombre del archivo
+     * @throws FileNotFoundException si el archivo no existe
+     * @throws IOException si ocurre un error de E/S
+     */
+    private void importFile(String type, String fileName) throws FileNotFoundException, IOException {
+        FileService.ImportResult result;
+        switch (type) {
+            case "BOOKS":
+                result = fileService.loadBooksFromCSV(fileName);
+                break;
+            case "USERS":
+                result = fileService.loadUsersFromCSV(fileName);
+                break;
+            case "LOANS":
+                result = fileService.loadLoansFromCSV(fileName);
+                break;
+            default:
+                throw new IllegalArgumentException("Tipo de datos desconocido: " + fields.get(1));
+        }
+        out.println("OK " + result);
+    }
+
+    /**
+     * Exporta datos a un archivo CSV. Los préstamos se exportan con todo su
+     * historial, en el formato que acepta {@code IMPORT LOANS}.
+     *
+     * @param type tipo de datos a exportar
+     * @param fileName nombre del archivo
+     * @throws IOException si ocurre un error de E/S
+     */
+    private void exportFile(String type, String fileName) throws IOException {
+        FileService.ExportResult result;
+        switch (type) {
+            case "BOOKS":
+                result = fileService.exportBooksToCSV(fileName);
+                break;
+            case "USERS":
+                result = fileService.exportUsersToCSV(fileName);
+                break;
+            case "LOANS":
+                result = fileService.exportAllLoansToCSV(fileName);
+                break;
+            default:
+                throw new IllegalArgumentException("Tipo de datos desconocido: " + fields.get(1));
+        }
+        out.println("OK " + result);
+    }
+
+    // ================================
+    // MÉTODOS PRIVADOS
+    // ================================
+
+    /**
+     * Verifica la cantidad de argumentos de la línea actual.
+     *
+     * @param count cantidad de argumentos esperada
+     * @param usage forma de uso del comando
+     * @throws IllegalArgumentException si la cantidad no coincide
+     */
+    private void requireFields(int count, String usage) {
+        requireFields(count, count, usage);
+    }
+
+    /**
+     * Verifica que la cantidad de argumentos de la línea actual esté en un rango.
+     *
+     * @param min cantidad mínima de argumentos
+     * @param max cantidad máxima de argumentos
+     * @param usage forma de uso del comando
+     * @throws IllegalArgumentException si la cantidad está fuera del rango
+     */
+    private void requireFields(int min, int max, String usage) {
+        int count = fields.size() - 1;
+        if (count < min || count > max) {
+            throw new IllegalArgumentException("Uso: " + usage);
+        }
+    }
+
+    /**
+     * Convierte un campo en días de préstamo.
+     *
+     * @param value texto con el número de días
+     * @return número de días
+     * @throws IllegalArgumentException si el texto no es un número
+     */
+    private static int parseDays(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Dias de prestamo invalidos: " + value);
+        }
+    }
+
+    /**
+     * Indica si una línea no contiene un comando.
+     *
+     * @param line línea a revisar
+     * @return true si la línea está vacía o su primer campo comienza con #
+     */
+    private static boolean isBlankOrComment(String line) {
+        int length = line.length();
+        int i = 0;
+        while (i < length && Character.isWhitespace(line.charAt(i))) {
+            i++;
+        }
+        return i == length || line.charAt(i) == '#';
+    }
+
+    /**
+     * Separa en campos una línea que contiene un comando.
+     *
+     * @param line línea a separar, ni vacía ni comentario
+     * @throws IllegalArgumentException si un campo entre comillas no está cerrado
+     */
+    private void tokenize(String line) {
+        fields.clear();
+        int length = line.length();
+        int i = 0;
+        while (true) {
+            while (i < length && Character.isWhitespace(line.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                break;
+            }
+
+            if (line.charAt(i) != '"') {
+                int start = i;
+                while (i < length && !Character.isWhitespace(line.charAt(i))) {
+                    i++;
+                }
+                fields.add(line.substring(start, i));
+                continue;
+            }
+
+            // Campo entre comillas: "" representa una comilla
+            StringBuilder field = new StringBuilder();
+            i++;
+            while (true) {
+                if (i == length) {
+                    throw new IllegalArgumentException("Comillas sin cerrar");
+                }
+                char c = line.charAt(i++);
+                if (c != '"') {
+                    field.append(c);
+                } else if (i < length && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    break;
+                }
+            }
+            fields.add(field.toString());
+        }
+    }
+}
\ No newline at end of file
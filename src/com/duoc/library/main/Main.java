@@ -9,19 +9,74 @@ import com.duoc.library.model.*;
 import com.duoc.library.service.*;
 import com.duoc.library.util.*;
 import com.duoc.library.exception.*;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 public class Main {
+    /** Opción de línea de comandos que activa el modo de comandos por lotes */
+    private static final String BATCH_OPTION = "--batch";
+    
+    /** Opción del modo por lotes que restaura y registra el estado persistente */
+    private static final String PERSIST_OPTION = "--persist";
+    
+    /** Tamaño de los buffers de entrada y salida del modo por lotes */
+    private static final int BATCH_BUFFER_SIZE = 64 * 1024;
+    
     private static LibraryService libraryService = new LibraryService();
     private static Scanner scanner = new Scanner(System.in);
-
+    private static LibraryJournal journal;
+    private static LibrarySnapshot snapshot;
+    
+    /** Salida de los mensajes de estado; en el modo por lotes es la salida de errores */
+    private static PrintStream status = System.out;
+
+    /**
+     * Inicia el sistema. Sin argumentos muestra los menús interactivos; con
+     * {@code --batch [--persist] [archivo]} ejecuta los comandos del archivo,
+     * o de la entrada estándar si no se indica, mediante {@link BatchRunner}.
+     * El modo por lotes es efímero: parte de los datos iniciales y no lee ni
+     * escribe la instantánea ni el diario, salvo que se indique
+     * {@code --persist}. En ese modo los mensajes de estado se escriben en la
+     * salida de errores, de modo que la salida estándar solo contiene los
+     * resultados de los comandos.
+     * 
+     * @param args argumentos de línea de comandos
+     */
     public static void main(String[] args) {
         try {
+            if (args.length > 0 && BATCH_OPTION.equals(args[0])) {
+                status = System.err;
+                int next = 1;
+                boolean persist = args.length > next && PERSIST_OPTION.equals(args[next]);
+                if (persist) {
+                    next++;
+                }
+                if (!persist || restorePersistedState()) {
+                    loadInitialData();
+                }
+                runBatch(args.length > next ? args[next] : null);
+                return;
+            }
+            
             System.out.println("=== SISTEMA DE GESTION DE BIBLIOTECA ===");
             System.out.flush();
             
-            loadInitialData();
+            if (restorePersistedState()) {
+                loadInitialData();
+            }
             showMainMenu();
             
         } catch (Exception e) {
@@ -31,12 +86,84 @@ public class Main {
             if (scanner != null) {
                 scanner.close();
             }
+            closeJournal();
+        }
+    }
+
+    /**
+     * Reconstruye el estado a partir de la última instantánea y del diario de
+     * operaciones, asocia el diario al servicio para registrar las operaciones
+     * siguientes e inicia las instantáneas periódicas.
+     * 
+     * @return true si no había estado guardado y deben cargarse los datos iniciales
+     * @throws IOException si la instantánea o el diario no pueden leerse o abrirse
+     */
+    private static boolean restorePersistedState() throws IOException {
+        LibrarySnapshot.RestoreResult restored = LibrarySnapshot.restore(
+                libraryService, LibrarySnapshot.DEFAULT_FILE_NAME, LibraryJournal.DEFAULT_FILE_NAME);
+        if (!restored.isEmpty()) {
+            status.println("Estado restaurado: " + restored);
+        } else if (restored.getReplay().getTruncatedBytes() > 0) {
+            status.println("Diario sin registros validos: " + restored.getReplay());
+        }
+        
+        journal = new LibraryJournal(LibraryJournal.DEFAULT_FILE_NAME);
+        libraryService.setJournal(journal);
+        snapshot = new LibrarySnapshot(libraryService, journal, LibrarySnapshot.DEFAULT_FILE_NAME);
+        snapshot.startPeriodic(LibrarySnapshot.DEFAULT_PERIOD_MINUTES, TimeUnit.MINUTES);
+        Runtime.getRuntime().addShutdownHook(new Thread(Main::closeJournal, "journal-shutdown"));
+        return restored.isEmpty();
+    }
+
+    /**
+     * Ejecuta comandos sin menús, con la entrada y la salida en buffers grandes
+     * que no se vacían en cada línea. El resumen de la ejecución se escribe en
+     * la salida de errores para no mezclarse con los resultados.
+     * 
+     * @param fileName archivo de comandos, o null para leer la entrada estándar
+     * @throws IOException si la entrada no puede leerse
+     */
+    private static void runBatch(String fileName) throws IOException {
+        System.out.flush();
+        PrintWriter out = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8),
+                BATCH_BUFFER_SIZE));
+        BatchRunner runner = new BatchRunner(libraryService, out);
+        
+        long start = System.nanoTime();
+        try (BufferedReader input = fileName != null
+                ? Files.newBufferedReader(Paths.get(fileName), StandardCharsets.UTF_8)
+                : new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), BATCH_BUFFER_SIZE)) {
+            runner.run(input);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        System.err.printf("%d comandos ejecutados en %d ms: %d rechazados, %d errores%n",
+                          runner.getCommandCount(), elapsedMillis, 
+                          runner.getRejectedCount(), runner.getErrorCount());
+    }
+
+    /**
+     * Detiene las instantáneas periódicas y sincroniza y cierra el diario de
+     * operaciones, si está abierto.
+     */
+    private static void closeJournal() {
+        if (snapshot != null) {
+            snapshot.close();
+        }
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Error cerrando el diario: " + e.getMessage());
         }
     }
 
     private static void loadInitialData() {
         try {
-            System.out.println("Cargando datos iniciales...");
+            status.println("Cargando datos iniciales...");
             
             // Load sample books
             libraryService.addBook(new Book("978-0134685991", "Effective Java", "Joshua Bloch"));
@@ -47,8 +174,8 @@ public class Main {
             libraryService.addUser(new User("U001", "Juan Perez", "juan.perez@email.com"));
             libraryService.addUser(new User("U002", "Maria Silva", "maria.silva@email.com"));
             
-            System.out.println("Datos iniciales cargados exitosamente.");
-            System.out.flush();
+            status.println("Datos iniciales cargados exitosamente.");
+            status.flush();
             
         } catch (Exception e) {
             System.err.println("Error cargando datos iniciales: " + e.getMessage());
@@ -301,6 +428,7 @@ public class Main {
                 System.out.println("3. Ver Prestamos de Usuario");
                 System.out.println("4. Ver Prestamos Activos");
                 System.out.println("5. Ver Prestamos Vencidos");
+                System.out.println("6. Reservar Libro");
                 System.out.println("0. Volver al Menu Principal");
                 System.out.print("Seleccione una opcion: ");
                 System.out.flush();
@@ -314,6 +442,7 @@ public class Main {
                     case 3: viewUserLoans(); break;
                     case 4: viewActiveLoans(); break;
                     case 5: viewOverdueLoans(); break;
+                    case 6: reserveBook(); break;
                     case 0: return;
                     default: System.out.println("Opcion invalida. Por favor intente nuevamente.");
                 }
@@ -343,6 +472,33 @@ public class Main {
         }
     }
 
+    private static void reserveBook() {
+        try {
+            System.out.print("Ingrese ID de Usuario: ");
+            System.out.flush();
+            String userId = scanner.nextLine();
+            
+            System.out.print("Ingrese ISBN del Libro: ");
+            System.out.flush();
+            String isbn = scanner.nextLine();
+
+            CompletableFuture<Loan> reservation = libraryService.reserveBook(userId, isbn);
+            if (reservation.isDone()) {
+                System.out.println("Libro disponible, prestado exitosamente: " + reservation.join());
+                return;
+            }
+            
+            System.out.println("Reserva registrada. Reservas en espera para este libro: " 
+                             + libraryService.getReservationCount(isbn));
+            reservation.thenAccept(loan -> System.out.println("\nReserva cumplida, libro prestado: " + loan));
+            
+        } catch (InvalidUserException | BookNotFoundException e) {
+            System.err.println("Error procesando reserva: " + e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Error inesperado: " + e.getMessage());
+        }
+    }
+
     private static void returnBook() {
         try {
             System.out.print("Ingrese ID del Prestamo: ");
@@ -396,12 +552,12 @@ public class Main {
 
     private static void viewOverdueLoans() {
         try {
-            List<Loan> loans = libraryService.getOverdueLoans();
-            if (loans.isEmpty()) {
+            Iterator<Loan> loans = libraryService.overdueLoansIterator();
+            if (!loans.hasNext()) {
                 System.out.println("No hay prestamos vencidos.");
             } else {
                 System.out.println("Prestamos vencidos:");
-                loans.forEach(System.out::println);
+                loans.forEachRemaining(System.out::println);
             }
         } catch (Exception e) {
             System.err.println("Error viendo prestamos vencidos: " + e.getMessage());
@@ -409,12 +565,13 @@ public class Main {
     }
 
     private static void showReportsMenu() {
+        Map<String, Object> stats = libraryService.getSystemStatistics();
         System.out.println("\n=== REPORTES ===");
-        System.out.println("Libros Disponibles: " + libraryService.getAllBooks().stream().filter(Book::isAvailable).count());
-        System.out.println("Libros Prestados: " + libraryService.getAllBooks().stream().filter(book -> !book.isAvailable()).count());
-        System.out.println("Total de Usuarios: " + libraryService.getAllUsers().size());
-        System.out.println("Prestamos Activos: " + libraryService.getActiveLoans().size());
-        System.out.println("Prestamos Vencidos: " + libraryService.getOverdueLoans().size());
+        System.out.println("Libros Disponibles: " + stats.get("availableBooks"));
+        System.out.println("Libros Prestados: " + stats.get("loanedBooks"));
+        System.out.println("Total de Usuarios: " + stats.get("totalUsers"));
+        System.out.println("Prestamos Activos: " + stats.get("activeLoans"));
+        System.out.println("Prestamos Vencidos: " + stats.get("overdueLoans"));
         System.out.flush();
     }
 
@@ -427,6 +584,8 @@ public class Main {
                 System.out.println("3. Exportar Libros a CSV");
                 System.out.println("4. Exportar Usuarios a CSV");
                 System.out.println("5. Exportar Prestamos a CSV");
+                System.out.println("6. Guardar Instantanea del Estado");
+                System.out.println("7. Cargar Prestamos desde CSV");
                 System.out.println("0. Volver al Menu Principal");
                 System.out.print("Seleccione una opcion: ");
                 System.out.flush();
@@ -440,6 +599,8 @@ public class Main {
                     case 3: exportBooksToCSV(); break;
                     case 4: exportUsersToCSV(); break;
                     case 5: exportLoansToCSV(); break;
+                    case 6: writeSnapshot(); break;
+                    case 7: loadLoansFromCSV(); break;
                     case 0: return;
                     default: System.out.println("Opcion invalida. Por favor intente nuevamente.");
                 }
@@ -449,20 +610,54 @@ public class Main {
         }
     }
 
+    private static void loadLoansFromCSV() {
+        try {
+            System.out.print("Ingrese nombre del archivo CSV: ");
+            System.out.flush();
+            String filename = scanner.nextLine();
+            
+            FileService.ImportResult result = new FileService(libraryService).loadLoansFromCSV(filename);
+            System.out.println(result);
+            
+        } catch (java.io.FileNotFoundException e) {
+            System.err.println("Error de archivo: " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Error de E/S: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error de formato de datos: " + e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Error inesperado: " + e.getMessage());
+        }
+    }
+
+    private static void writeSnapshot() {
+        if (snapshot == null) {
+            System.out.println("Las instantaneas no estan disponibles.");
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            LibrarySnapshot.SnapshotResult result = snapshot.write();
+            long elapsed = System.currentTimeMillis() - start;
+            System.out.println("Instantanea guardada (" + result + ") en " + elapsed + " ms");
+        } catch (IOException e) {
+            System.err.println("Error guardando instantanea: " + e.getMessage());
+        }
+    }
+
     private static void loadBooksFromCSV() {
         try {
             System.out.print("Ingrese nombre del archivo CSV: ");
             System.out.flush();
             String filename = scanner.nextLine();
             
-            List<Book> books = CSVReader.readBooksFromCSV(filename);
-            for (Book book : books) {
+            CSVReader.readBooksFromCSV(filename, book -> {
                 try {
                     libraryService.addBook(book);
                 } catch (IllegalArgumentException e) {
                     System.err.println("Omitiendo libro duplicado: " + book.getIsbn());
                 }
-            }
+            });
             System.out.println("Libros cargados exitosamente desde " + filename);
             
         } catch (java.io.FileNotFoundException e) {
@@ -482,14 +677,13 @@ public class Main {
             System.out.flush();
             String filename = scanner.nextLine();
             
-            List<User> users = CSVReader.readUsersFromCSV(filename);
-            for (User user : users) {
+            CSVReader.readUsersFromCSV(filename, user -> {
                 try {
                     libraryService.addUser(user);
                 } catch (InvalidUserException e) {
                     System.err.println("Omitiendo usuario duplicado: " + user.getId());
                 }
-            }
+            });
             System.out.println("Usuarios cargados exitosamente desde " + filename);
             
         } catch (java.io.FileNotFoundException e) {
@@ -509,7 +703,7 @@ public class Main {
             System.out.flush();
             String filename = scanner.nextLine();
             
-            FileWriter.writeBooksToCSV(libraryService.getAllBooks(), filename);
+            FileWriter.writeBooksToCSV(libraryService.getBooksView(), filename);
             System.out.println("Libros exportados exitosamente a " + filename);
             
         } catch (IOException e) {
@@ -525,7 +719,7 @@ public class Main {
             System.out.flush();
             String filename = scanner.nextLine();
             
-            FileWriter.writeUsersToCSV(new ArrayList<>(libraryService.getAllUsers()), filename);
+            FileWriter.writeUsersToCSV(libraryService.getUsersView(), filename);
             System.out.println("Usuarios exportados exitosamente a " + filename);
             
         } catch (IOException e) {
@@ -541,7 +735,7 @@ public class Main {
             System.out.flush();
             String filename = scanner.nextLine();
             
-            FileWriter.writeLoansToCSV(libraryService.getActiveLoans(), filename);
+            FileWriter.writeLoansToCSV(libraryService.getActiveLoansView(), filename);
             System.out.println("Prestamos exportados exitosamente a " + filename);
             
         } catch (IOException e) {
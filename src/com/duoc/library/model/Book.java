@@ -11,23 +11,30 @@ package com.duoc.library.model;
  * Esta clase encapsula toda la información relacionada con un libro,
  * incluyendo su identificación única (ISBN), título, autor y estado de disponibilidad.
  * 
+ * El ISBN, el título y el autor no cambian después de crear el libro, ya que
+ * el catálogo de la biblioteca se indexa por la clave del ISBN y los índices
+ * de búsqueda se construyen a partir del título y el autor.
+ * 
  * @author Sistema de Gestión de Biblioteca
  * @version 1.0
  * @since 1.0
  */
 public class Book {
     
-    /** Identificador único del libro (ISBN) */
-    private String isbn;
+    /** Identificador único del libro (ISBN), fijo desde su creación */
+    private final String isbn;
+    
+    /** Forma canónica del ISBN con que se indexa el libro, ver {@link Isbn#key(String)} */
+    private final String isbnKey;
     
-    /** Título del libro */
-    private String title;
+    /** Título del libro, fijo desde su creación */
+    private final String title;
     
-    /** Autor del libro */
-    private String author;
+    /** Autor del libro, fijo desde su creación */
+    private final String author;
     
     /** Estado de disponibilidad del libro (true = disponible, false = prestado) */
-    private boolean available;
+    private volatile boolean available;
 
     /**
      * Constructor que crea un nuevo libro con los datos especificados.
@@ -50,6 +57,7 @@ public class Book {
         }
         
         this.isbn = isbn.trim();
+        this.isbnKey = Isbn.key(this.isbn);
         this.title = title.trim();
         this.author = author.trim();
         this.available = true; // Por defecto disponible
@@ -65,16 +73,16 @@ public class Book {
     }
 
     /**
-     * Establece el ISBN del libro.
+     * Obtiene la forma canónica del ISBN, usada para indexar el libro.
      * 
-     * @param isbn el nuevo ISBN del libro. No puede ser null ni vacío.
-     * @throws IllegalArgumentException si el ISBN es null o vacío
+     * Para un ISBN válido es su ISBN-13 sin separadores, de modo que distintas
+     * escrituras del mismo ISBN tienen la misma clave; para un ISBN inválido es
+     * el ISBN tal como fue ingresado.
+     * 
+     * @return clave del ISBN
      */
-    public void setIsbn(String isbn) {
-        if (isbn == null || isbn.trim().isEmpty()) {
-            throw new IllegalArgumentException("ISBN no puede ser null o vacio");
-        }
-        this.isbn = isbn.trim();
+    public String getIsbnKey() {
+        return isbnKey;
     }
 
     /**
@@ -86,19 +94,6 @@ public class Book {
         return title;
     }
 
-    /**
-     * Establece el título del libro.
-     * 
-     * @param title el nuevo título del libro. No puede ser null ni vacío.
-     * @throws IllegalArgumentException si el título es null o vacío
-     */
-    public void setTitle(String title) {
-        if (title == null || title.trim().isEmpty()) {
-            throw new IllegalArgumentException("Titulo no puede ser null o vacio");
-        }
-        this.title = title.trim();
-    }
-
     /**
      * Obtiene el autor del libro.
      * 
@@ -108,19 +103,6 @@ public class Book {
         return author;
     }
 
-    /**
-     * Establece el autor del libro.
-     * 
-     * @param author el nuevo autor del libro. No puede ser null ni vacío.
-     * @throws IllegalArgumentException si el autor es null o vacío
-     */
-    public void setAuthor(String author) {
-        if (author == null || author.trim().isEmpty()) {
-            throw new IllegalArgumentException("Autor no puede ser null o vacio");
-        }
-        this.author = author.trim();
-    }
-
     /**
      * Verifica si el libro está disponible para préstamo.
      * 
@@ -141,7 +123,7 @@ public class Book {
 
     /**
      * Compara este libro con otro objeto para verificar igualdad.
-     * Dos libros son iguales si tienen el mismo ISBN.
+     * Dos libros son iguales si tienen el mismo ISBN en forma canónica.
      * 
      * @param obj el objeto a comparar
      * @return true si los objetos son iguales, false en caso contrario
@@ -151,7 +133,7 @@ public class Book {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         Book book = (Book) obj;
-        return isbn.equals(book.isbn);
+        return isbnKey.equals(book.isbnKey);
     }
 
     /**
@@ -161,7 +143,7 @@ public class Book {
      */
     @Override
     public int hashCode() {
-        return isbn.hashCode();
+        return isbnKey.hashCode();
     }
 
     /**
@@ -0,0 +1,139 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.model;
+
+/**
+ * Utilidad para validar direcciones de email sin expresiones regulares.
+ * 
+ * Acepta exactamente las mismas direcciones que el patrón
+ * {@code ^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\.[A-Za-z]{2,})$}:
+ * - Una parte local no vacía de letras ASCII, dígitos y los caracteres + _ . -
+ * - Una única arroba
+ * - Un dominio de letras ASCII, dígitos, puntos y guiones, cuyo último punto
+ *   tiene al menos un carácter antes y va seguido de dos o más letras
+ * 
+ * La validación recorre el texto una sola vez y no crea objetos.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public final class Email {
+
+    /** Longitud mínima del dominio de primer nivel */
+    private static final int MIN_TLD_LENGTH = 2;
+
+    /**
+     * Constructor privado para prevenir instanciación.
+     * Esta clase solo contiene métodos estáticos.
+     */
+    private Email() {
+        // Utility class - no instances allowed
+    }
+
+    /**
+     * Verifica si un texto completo es una dirección de email válida.
+     * 
+     * @param email texto a validar
+     * @return true si el formato es válido, false en caso contrario
+     */
+    public static boolean isValid(String email) {
+        return email != null && isValid(email, 0, email.length());
+    }
+
+    /**
+     * Verifica si un texto es una dirección de email válida ignorando los
+     * espacios y caracteres de control de los extremos, como {@link String#trim()},
+     * pero sin crear una cadena nueva.
+     * 
+     * @param email texto a validar
+     * @return true si el formato es válido, false en caso contrario
+     */
+    public static boolean isValidTrimmed(String email) {
+        if (email == null) {
+            return false;
+        }
+        int start = 0;
+        int end = email.length();
+        while (start < end && email.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && email.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return isValid(email, start, end);
+    }
+
+    /**
+     * Verifica si un rango de un texto es una dirección de email válida.
+     * 
+     * @param email texto que contiene la dirección
+     * @param start posición inicial del rango
+     * @param end posición final exclusiva del rango
+     * @return true si el formato es válido, false en caso contrario
+     */
+    public static boolean isValid(CharSequence email, int start, int end) {
+        // Parte local
+        int i = start;
+        while (i < end && isLocalChar(email.charAt(i))) {
+            i++;
+        }
+        if (i == start || i == end || email.charAt(i) != '@') {
+            return false;
+        }
+        
+        // Dominio: el último punto separa el nombre del dominio de primer nivel
+        int domainStart = ++i;
+        int lastDot = -1;
+        for (; i < end; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                lastDot = i;
+            } else if (!isLetterOrDigit(c) && c != '-') {
+                return false;
+            }
+        }
+        if (lastDot <= domainStart || end - lastDot - 1 < MIN_TLD_LENGTH) {
+            return false;
+        }
+        for (int j = lastDot + 1; j < end; j++) {
+            if (!isLetter(email.charAt(j))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Verifica si un carácter puede formar parte de la parte local.
+     * 
+     * @param c carácter a verificar
+     * @return true si es letra ASCII, dígito o uno de + _ . -
+     */
+    private static boolean isLocalChar(char c) {
+        return isLetterOrDigit(c) || c == '+' || c == '_' || c == '.' || c == '-';
+    }
+
+    /**
+     * Verifica si un carácter es una letra o dígito ASCII.
+     * 
+     * @param c carácter a verificar
+     * @return true si es letra ASCII o dígito
+     */
+    private static boolean isLetterOrDigit(char c) {
+        return isLetter(c) || (c >= '0' && c <= '9');
+    }
+
+    /**
+     * Verifica si un carácter es una letra ASCII.
+     * 
+     * @param c carácter a verificar
+     * @return true si es una letra de la A a la Z, mayúscula o minúscula
+     */
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
\ No newline at end of file
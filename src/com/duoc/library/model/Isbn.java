@@ -0,0 +1,179 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.model;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utilidad para validar y normalizar códigos ISBN-10 e ISBN-13.
+ * 
+ * El texto se recorre una sola vez carácter a carácter, sin expresiones
+ * regulares: se aceptan dígitos separados por guiones o espacios en blanco en
+ * cualquier posición, la 'X' (o 'x') solo como dígito de control de un
+ * ISBN-10, y un ISBN-13 debe comenzar con 978 o 979. En el mismo recorrido se
+ * calcula el dígito de control de ambos formatos.
+ * 
+ * La forma canónica de un ISBN válido es su ISBN-13 sin separadores; un
+ * ISBN-10 se convierte agregando el prefijo 978 y recalculando el dígito de
+ * control. Así "978-0134685991", "9780134685991" y "0-13-468599-7" tienen la
+ * misma forma canónica. La validación no crea objetos, y la normalización de un
+ * ISBN-13 que ya está en forma canónica devuelve la misma cadena.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public final class Isbn {
+
+    /** Número de dígitos de un ISBN-10 */
+    private static final int ISBN10_LENGTH = 10;
+
+    /** Número de dígitos de un ISBN-13 */
+    private static final int ISBN13_LENGTH = 13;
+
+    /** Resultado del recorrido para un texto inválido */
+    private static final int INVALID = -1;
+
+    /** Marca del recorrido que indica que el texto no está en forma canónica */
+    private static final int NOT_CANONICAL = 0x100;
+
+    /**
+     * Constructor privado para prevenir instanciación.
+     * Esta clase solo contiene métodos estáticos.
+     */
+    private Isbn() {
+        // Utility class - no instances allowed
+    }
+
+    /**
+     * Verifica si un texto es un ISBN-10 o ISBN-13 válido, incluido su dígito de control.
+     * 
+     * @param isbn texto a validar
+     * @return true si el ISBN es válido, false en caso contrario
+     */
+    public static boolean isValid(String isbn) {
+        return scan(isbn) != INVALID;
+    }
+
+    /**
+     * Obtiene la forma canónica de un ISBN: su ISBN-13 sin separadores.
+     * 
+     * @param isbn texto del ISBN
+     * @return forma canónica, o null si el ISBN es inválido
+     */
+    public static String normalize(String isbn) {
+        int result = scan(isbn);
+        if (result == INVALID) {
+            return null;
+        }
+        int digits = result & ~NOT_CANONICAL;
+        if (digits == ISBN13_LENGTH && (result & NOT_CANONICAL) == 0) {
+            return isbn;
+        }
+        
+        byte[] canonical = new byte[ISBN13_LENGTH];
+        int count = digits == ISBN10_LENGTH ? 3 : 0;
+        if (digits == ISBN10_LENGTH) {
+            canonical[0] = '9';
+            canonical[1] = '7';
+            canonical[2] = '8';
+        }
+        for (int i = 0; i < isbn.length() && count < ISBN13_LENGTH; i++) {
+            char c = isbn.charAt(i);
+            if (c >= '0' && c <= '9') {
+                canonical[count++] = (byte) c;
+            }
+        }
+        if (digits == ISBN10_LENGTH) {
+            // El dígito de control del ISBN-10 se reemplaza por el del ISBN-13
+            int sum = 0;
+            for (int i = 0; i < ISBN13_LENGTH - 1; i++) {
+                int d = canonical[i] - '0';
+                sum += (i & 1) == 0 ? d : 3 * d;
+            }
+            canonical[ISBN13_LENGTH - 1] = (byte) ('0' + (10 - sum % 10) % 10);
+        }
+        return new String(canonical, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Obtiene la clave con que se indexa un ISBN: su forma canónica si es
+     * válido o, si no, el texto sin espacios en los extremos. Permite indexar
+     * libros registrados antes de validar el dígito de control.
+     * 
+     * @param isbn texto del ISBN
+     * @return clave del ISBN, o null si el texto es null
+     */
+    public static String key(String isbn) {
+        if (isbn == null) {
+            return null;
+        }
+        String canonical = normalize(isbn);
+        return canonical != null ? canonical : isbn.trim();
+    }
+
+    /**
+     * Recorre un texto validando su formato y su dígito de control.
+     * 
+     * @param isbn texto a recorrer
+     * @return número de dígitos (10 o 13), combinado con {@link #NOT_CANONICAL}
+     *         si el texto tiene separadores o una 'x' minúscula, o {@link #INVALID}
+     */
+    private static int scan(String isbn) {
+        if (isbn == null) {
+            return INVALID;
+        }
+        
+        int digits = 0;
+        int sum10 = 0;
+        int sum13 = 0;
+        int prefix = 0;
+        boolean canonical = true;
+        boolean checkX = false;
+        
+        int length = isbn.length();
+        for (int i = 0; i < length; i++) {
+            char c = isbn.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (checkX || digits == ISBN13_LENGTH) {
+                    return INVALID;
+                }
+                int d = c - '0';
+                if (digits < ISBN10_LENGTH) {
+                    sum10 += (ISBN10_LENGTH - digits) * d;
+                }
+                sum13 += (digits & 1) == 0 ? d : 3 * d;
+                if (digits < 3) {
+                    prefix = prefix * 10 + d;
+                }
+                digits++;
+            } else if ((c == 'X' || c == 'x') && digits == ISBN10_LENGTH - 1) {
+                // 'X' vale 10 y solo puede ser el dígito de control de un ISBN-10
+                sum10 += 10;
+                digits++;
+                checkX = true;
+                canonical &= c == 'X';
+            } else if (c == '-' || Character.isWhitespace(c)) {
+                canonical = false;
+            } else {
+                return INVALID;
+            }
+        }
+        
+        boolean valid;
+        if (digits == ISBN10_LENGTH) {
+            valid = sum10 % 11 == 0;
+        } else if (digits == ISBN13_LENGTH) {
+            valid = sum13 % 10 == 0 && (prefix == 978 || prefix == 979);
+        } else {
+            valid = false;
+        }
+        if (!valid) {
+            return INVALID;
+        }
+        return canonical ? digits : digits | NOT_CANONICAL;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.model;
+
+import java.time.LocalDate;
+
+/**
+ * Fuente de la fecha actual para los cálculos de préstamos.
+ * 
+ * Permite reemplazar el reloj del sistema por uno simulado, de modo que las
+ * pruebas de carga puedan recorrer meses de préstamos y vencimientos en segundos
+ * y de forma determinista. Las implementaciones deben ser seguras para uso concurrente.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface LibraryClock {
+
+    /**
+     * Obtiene la fecha actual según este reloj.
+     * 
+     * @return fecha actual
+     */
+    LocalDate today();
+
+    /**
+     * Obtiene el reloj del sistema en la zona horaria por defecto, compartido
+     * por todo el proceso. La fecha se calcula una vez por día y se reutiliza
+     * hasta la siguiente medianoche.
+     * 
+     * @return reloj del sistema
+     */
+    static LibraryClock system() {
+        return SystemLibraryClock.DEFAULT;
+    }
+
+    /**
+     * Crea un reloj simulado que comienza en la fecha indicada y solo avanza
+     * cuando se le indica.
+     * 
+     * @param start fecha inicial
+     * @return reloj simulado
+     * @throws IllegalArgumentException si la fecha es null
+     */
+    static SimulatedLibraryClock simulated(LocalDate start) {
+        return new SimulatedLibraryClock(start);
+    }
+}
\ No newline at end of file
@@ -7,7 +7,6 @@ package com.duoc.library.model;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.UUID;
 
 /**
  * Representa un préstamo de libro en el sistema de gestión de biblioteca.
@@ -15,6 +14,10 @@ import java.util.UUID;
  * Esta clase gestiona la información de préstamos incluyendo el usuario,
  * el libro prestado, fechas de préstamo y devolución, y el estado del préstamo.
  * 
+ * Los métodos que no reciben una fecha usan {@link LibraryClock#system()};
+ * cada uno tiene una variante que recibe la fecha de referencia, que el
+ * servicio de biblioteca obtiene de su propio reloj.
+ * 
  * @author Sistema de Gestión de Biblioteca
  * @version 1.0
  * @since 1.0
@@ -24,6 +27,9 @@ public class Loan {
     /** Duración por defecto del préstamo en días */
     public static final int DEFAULT_LOAN_DAYS = 14;
     
+    /** Generador de IDs compartido por los préstamos creados sin un ID explícito */
+    private static final LoanIdGenerator DEFAULT_ID_GENERATOR = new SnowflakeLoanIdGenerator();
+    
     /** Formateador para mostrar fechas */
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     
@@ -43,10 +49,10 @@ public class Loan {
     private LocalDate dueDate;
     
     /** Fecha en que se devolvió el libro (null si no se ha devuelto) */
-    private LocalDate returnDate;
+    private volatile LocalDate returnDate;
     
     /** Estado del préstamo (true = activo, false = devuelto) */
-    private boolean active;
+    private volatile boolean active;
 
     /**
      * Constructor que crea un nuevo préstamo con duración por defecto.
@@ -68,20 +74,55 @@ public class Loan {
      * @throws IllegalArgumentException si algún parámetro es inválido
      */
     public Loan(User user, Book book, int loanDays) {
+        this(DEFAULT_ID_GENERATOR.nextLoanId(), user, book, loanDays);
+    }
+
+    /**
+     * Constructor que crea un nuevo préstamo con un ID asignado por el llamador,
+     * normalmente obtenido de un {@link LoanIdGenerator}.
+     * 
+     * @param loanId ID del préstamo. No puede ser null ni vacío.
+     * @param user Usuario que realiza el préstamo. No puede ser null.
+     * @param book Libro a prestar. No puede ser null.
+     * @param loanDays Duración del préstamo en días. Debe ser mayor a 0.
+     * @throws IllegalArgumentException si algún parámetro es inválido
+     */
+    public Loan(String loanId, User user, Book book, int loanDays) {
+        this(loanId, user, book, LibraryClock.system().today(), loanDays);
+    }
+
+    /**
+     * Constructor que crea un nuevo préstamo con un ID y una fecha de préstamo
+     * asignados por el llamador.
+     * 
+     * @param loanId ID del préstamo. No puede ser null ni vacío.
+     * @param user Usuario que realiza el préstamo. No puede ser null.
+     * @param book Libro a prestar. No puede ser null.
+     * @param loanDate Fecha del préstamo. No puede ser null.
+     * @param loanDays Duración del préstamo en días. Debe ser mayor a 0.
+     * @throws IllegalArgumentException si algún parámetro es inválido
+     */
+    public Loan(String loanId, User user, Book book, LocalDate loanDate, int loanDays) {
+        if (loanId == null || loanId.trim().isEmpty()) {
+            throw new IllegalArgumentException("ID de prestamo no puede ser null o vacio");
+        }
         if (user == null) {
             throw new IllegalArgumentException("Usuario no puede ser null");
         }
         if (book == null) {
             throw new IllegalArgumentException("Libro no puede ser null");
         }
+        if (loanDate == null) {
+            throw new IllegalArgumentException("Fecha de prestamo no puede ser null");
+        }
         if (loanDays <= 0) {
             throw new IllegalArgumentException("Dias de prestamo debe ser mayor a 0");
         }
         
-        this.loanId = generateLoanId();
+        this.loanId = loanId.trim();
         this.user = user;
         this.book = book;
-        this.loanDate = LocalDate.now();
+        this.loanDate = loanDate;
         this.dueDate = loanDate.plusDays(loanDays);
         this.returnDate = null;
         this.active = true;
@@ -91,12 +132,61 @@ public class Loan {
     }
 
     /**
-     * Genera un ID único para el préstamo.
+     * Constructor privado usado para reconstruir un préstamo existente.
+     */
+    private Loan(String loanId, User user, Book book, LocalDate loanDate, 
+                 LocalDate dueDate, LocalDate returnDate) {
+        this.loanId = loanId;
+        this.user = user;
+        this.book = book;
+        this.loanDate = loanDate;
+        this.dueDate = dueDate;
+        this.returnDate = returnDate;
+        this.active = returnDate == null;
+    }
+
+    /**
+     * Reconstruye un préstamo registrado previamente, conservando su ID y sus fechas.
      * 
-     * @return ID único generado
+     * A diferencia de los constructores públicos, no modifica la disponibilidad
+     * del libro: corresponde a quien registra el préstamo hacerlo.
+     * 
+     * @param loanId ID del préstamo. No puede ser null ni vacío.
+     * @param user Usuario del préstamo. No puede ser null.
+     * @param book Libro prestado. No puede ser null.
+     * @param loanDate Fecha del préstamo. No puede ser null.
+     * @param dueDate Fecha límite de devolución. No puede ser anterior a la fecha del préstamo.
+     * @param returnDate Fecha de devolución, o null si el préstamo sigue activo
+     * @return el préstamo reconstruido
+     * @throws IllegalArgumentException si algún parámetro es inválido
      */
-    private String generateLoanId() {
-        return "LOAN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    public static Loan restore(String loanId, User user, Book book, LocalDate loanDate,
+                               LocalDate dueDate, LocalDate returnDate) {
+        if (loanId == null || loanId.trim().isEmpty()) {
+            throw new IllegalArgumentException("ID de prestamo no puede ser null o vacio");
+        }
+        if (user == null) {
+            throw new IllegalArgumentException("Usuario no puede ser null");
+        }
+        if (book == null) {
+            throw new IllegalArgumentException("Libro no puede ser null");
+        }
+        if (loanDate == null || dueDate == null) {
+            throw new IllegalArgumentException("Fechas del prestamo no pueden ser null");
+        }
+        if (dueDate.isBefore(loanDate)) {
+            throw new IllegalArgumentException("Fecha de vencimiento anterior a la fecha de prestamo");
+        }
+        return new Loan(loanId.trim(), user, book, loanDate, dueDate, returnDate);
+    }
+
+    /**
+     * Obtiene el generador de IDs usado por los constructores sin ID explícito.
+     * 
+     * @return generador de IDs por defecto
+     */
+    public static LoanIdGenerator defaultIdGenerator() {
+        return DEFAULT_ID_GENERATOR;
     }
 
     /**
@@ -168,7 +258,18 @@ public class Loan {
      * @return true si la fecha actual es posterior a la fecha límite y el préstamo está activo
      */
     public boolean isOverdue() {
-        return active && LocalDate.now().isAfter(dueDate);
+        return isOverdue(LibraryClock.system().today());
+    }
+
+    /**
+     * Verifica si el préstamo está vencido respecto de una fecha de referencia.
+     * Permite evaluar muchos préstamos consultando el reloj una sola vez.
+     * 
+     * @param today fecha de referencia
+     * @return true si la fecha de referencia es posterior a la fecha límite y el préstamo está activo
+     */
+    public boolean isOverdue(LocalDate today) {
+        return active && today.isAfter(dueDate);
     }
 
     /**
@@ -177,10 +278,20 @@ public class Loan {
      * @return número de días de retraso, o 0 si no hay retraso
      */
     public long getDaysOverdue() {
-        if (!isOverdue()) {
+        return getDaysOverdue(LibraryClock.system().today());
+    }
+
+    /**
+     * Calcula los días de retraso en la devolución respecto de una fecha de referencia.
+     * 
+     * @param today fecha de referencia
+     * @return número de días de retraso, o 0 si no hay retraso
+     */
+    public long getDaysOverdue(LocalDate today) {
+        if (!isOverdue(today)) {
             return 0;
         }
-        return LocalDate.now().toEpochDay() - dueDate.toEpochDay();
+        return today.toEpochDay() - dueDate.toEpochDay();
     }
 
     /**
@@ -190,11 +301,26 @@ public class Loan {
      * @throws IllegalStateException si el préstamo ya fue devuelto
      */
     public void returnBook() {
+        returnBook(LibraryClock.system().today());
+    }
+
+    /**
+     * Procesa la devolución del libro en una fecha determinada.
+     * Marca el préstamo como inactivo y el libro como disponible.
+     * 
+     * @param returnDate fecha de devolución. No puede ser null.
+     * @throws IllegalArgumentException si la fecha es null
+     * @throws IllegalStateException si el préstamo ya fue devuelto
+     */
+    public void returnBook(LocalDate returnDate) {
+        if (returnDate == null) {
+            throw new IllegalArgumentException("Fecha de devolucion no puede ser null");
+        }
         if (!active) {
             throw new IllegalStateException("El prestamo ya fue devuelto");
         }
         
-        this.returnDate = LocalDate.now();
+        this.returnDate = returnDate;
         this.active = false;
         this.book.setAvailable(true);
     }
@@ -0,0 +1,27 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.model;
+
+/**
+ * Estrategia de generación de identificadores para préstamos nuevos.
+ * 
+ * Las implementaciones deben ser seguras para uso concurrente, ya que el
+ * servicio de biblioteca crea préstamos desde varios hilos a la vez.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface LoanIdGenerator {
+
+    /**
+     * Genera el identificador de un préstamo nuevo.
+     * 
+     * @return identificador no vacío del préstamo
+     */
+    String nextLoanId();
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.model;
+
+import java.time.LocalDate;
+
+/**
+ * Reloj de biblioteca simulado cuya fecha solo cambia cuando se le indica.
+ * 
+ * Está pensado para pruebas y simulaciones de carga: permite avanzar días
+ * entre operaciones y obtener resultados reproducibles. La fecha puede
+ * modificarse desde cualquier hilo; las lecturas concurrentes observan la
+ * fecha anterior o la nueva.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public final class SimulatedLibraryClock implements LibraryClock {
+
+    /** Fecha actual simulada */
+    private volatile LocalDate today;
+
+    /**
+     * Constructor que crea un reloj simulado en la fecha indicada.
+     * 
+     * @param start fecha inicial
+     * @throws IllegalArgumentException si la fecha es null
+     */
+    public SimulatedLibraryClock(LocalDate start) {
+        setToday(start);
+    }
+
+    /**
+     * Obtiene la fecha actual simulada.
+     * 
+     * @return fecha actual
+     */
+    @Override
+    public LocalDate today() {
+        return today;
+    }
+
+    /**
+     * Cambia la fecha actual simulada.
+     * 
+     * @param date nueva fecha
+     * @throws IllegalArgumentException si la fecha es null
+     */
+    public synchronized void setToday(LocalDate date) {
+        if (date == null) {
+            throw new IllegalArgumentException("La fecha no puede ser null");
+        }
+        this.today = date;
+    }
+
+    /**
+     * Avanza la fecha actual simulada una cantidad de días.
+     * 
+     * @param days días a avanzar; un valor negativo retrocede la fecha
+     * @return nueva fecha actual
+     */
+    public synchronized LocalDate advanceDays(long days) {
+        LocalDate next = today.plusDays(days);
+        today = next;
+        return next;
+    }
+}
\ No newline at end of file
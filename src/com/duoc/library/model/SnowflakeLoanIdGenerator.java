@@ -0,0 +1,130 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de IDs de préstamo al estilo Snowflake: cada ID es un número de
+ * 64 bits formado por una marca de tiempo, un número de nodo y una secuencia.
+ * 
+ * Distribución de los bits, de mayor a menor peso:
+ * - 41 bits: milisegundos transcurridos desde {@link #EPOCH_MILLIS}
+ * - 10 bits: número de nodo, para generadores de procesos distintos
+ * - 12 bits: secuencia dentro del mismo milisegundo
+ * 
+ * El ID se representa como {@code LOAN-} seguido de 16 dígitos hexadecimales
+ * en mayúsculas, de modo que el orden alfabético de los IDs coincide con su
+ * orden de creación. Los IDs de un mismo generador son estrictamente
+ * crecientes: si en un milisegundo se agotan las secuencias o el reloj del
+ * sistema retrocede, el generador continúa desde el último valor emitido en
+ * lugar de repetir uno. No usa bloqueos ni fuentes de aleatoriedad; cada ID
+ * cuesta una operación atómica y la creación de una cadena.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public final class SnowflakeLoanIdGenerator implements LoanIdGenerator {
+
+    /** Instante de referencia de las marcas de tiempo (2024-01-01T00:00:00Z) */
+    public static final long EPOCH_MILLIS = 1704067200000L;
+
+    /** Número máximo de nodo */
+    public static final int MAX_NODE = (1 << 10) - 1;
+
+    /** Prefijo de los IDs generados */
+    private static final String PREFIX = "LOAN-";
+
+    /** Bits de la secuencia dentro de un milisegundo */
+    private static final int SEQUENCE_BITS = 12;
+
+    /** Bits del número de nodo */
+    private static final int NODE_BITS = 10;
+
+    /** Máscara de la secuencia */
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    /** Dígitos hexadecimales en mayúsculas */
+    private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    /** Número de dígitos hexadecimales del ID */
+    private static final int HEX_LENGTH = 16;
+
+    /** Número de nodo incluido en cada ID */
+    private final long node;
+
+    /** Último estado emitido: marca de tiempo desplazada junto con la secuencia */
+    private final AtomicLong lastState = new AtomicLong();
+
+    /**
+     * Constructor que crea un generador para el nodo 0.
+     */
+    public SnowflakeLoanIdGenerator() {
+        this(0);
+    }
+
+    /**
+     * Constructor que crea un generador para un nodo específico.
+     * 
+     * @param node número de nodo, entre 0 y {@link #MAX_NODE}
+     * @throws IllegalArgumentException si el número de nodo está fuera de rango
+     */
+    public SnowflakeLoanIdGenerator(int node) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Numero de nodo debe estar entre 0 y " + MAX_NODE);
+        }
+        this.node = node;
+    }
+
+    /**
+     * Genera el siguiente ID como número de 64 bits.
+     * 
+     * @return ID estrictamente mayor que los emitidos antes por este generador
+     */
+    public long nextId() {
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = lastState.get();
+            next = Math.max(now, previous + 1);
+        } while (!lastState.compareAndSet(previous, next));
+        
+        long timestamp = next >>> SEQUENCE_BITS;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+    }
+
+    /**
+     * Genera el siguiente ID con el formato {@code LOAN-XXXXXXXXXXXXXXXX}.
+     * 
+     * @return ID del préstamo
+     */
+    @Override
+    public String nextLoanId() {
+        return format(nextId());
+    }
+
+    /**
+     * Representa un ID numérico con el formato de los IDs de préstamo.
+     * 
+     * @param id ID numérico
+     * @return ID con prefijo y 16 dígitos hexadecimales en mayúsculas
+     */
+    public static String format(long id) {
+        int prefixLength = PREFIX.length();
+        byte[] chars = new byte[prefixLength + HEX_LENGTH];
+        for (int i = 0; i < prefixLength; i++) {
+            chars[i] = (byte) PREFIX.charAt(i);
+        }
+        for (int i = chars.length - 1; i >= prefixLength; i--) {
+            chars[i] = HEX_DIGITS[(int) (id & 0xF)];
+            id >>>= 4;
+        }
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.model;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Reloj de biblioteca basado en un {@link Clock} de Java que guarda en caché la fecha actual.
+ * 
+ * {@link LocalDate#now()} consulta el reloj y convierte el instante a la zona
+ * horaria en cada llamada. Este reloj guarda la fecha junto con el intervalo de
+ * milisegundos en que es válida, desde la medianoche de ese día hasta la
+ * siguiente, por lo que cada consulta solo lee los milisegundos actuales y los
+ * compara con ese intervalo. La fecha se recalcula cuando el instante sale del
+ * intervalo, incluso si el reloj del sistema retrocede.
+ * 
+ * La zona horaria se fija al crear el reloj; un cambio posterior de la zona por
+ * defecto del proceso no lo afecta.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public final class SystemLibraryClock implements LibraryClock {
+
+    /** Reloj del sistema en la zona horaria por defecto */
+    static final SystemLibraryClock DEFAULT = new SystemLibraryClock(Clock.systemDefaultZone());
+
+    /** Reloj de Java del que se obtienen el instante y la zona horaria */
+    private final Clock clock;
+
+    /** Fecha calculada más recientemente, o null si aún no se calcula */
+    private volatile CachedDay cached;
+
+    /**
+     * Constructor que crea un reloj a partir de un reloj de Java.
+     * 
+     * @param clock reloj de Java con la zona horaria deseada
+     * @throws IllegalArgumentException si el reloj es null
+     */
+    public SystemLibraryClock(Clock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("El reloj no puede ser null");
+        }
+        this.clock = clock;
+    }
+
+    /**
+     * Obtiene la fecha actual, recalculándola solo si cambió el día.
+     * 
+     * @return fecha actual en la zona horaria del reloj
+     */
+    @Override
+    public LocalDate today() {
+        long now = clock.millis();
+        CachedDay day = cached;
+        if (day == null || now < day.startMillis || now >= day.endMillis) {
+            day = computeDay(now);
+            cached = day;
+        }
+        return day.date;
+    }
+
+    /**
+     * Calcula la fecha correspondiente a un instante y el intervalo en que es válida.
+     * 
+     * @param now instante en milisegundos desde la época
+     * @return fecha con su intervalo de validez
+     */
+    private CachedDay computeDay(long now) {
+        ZoneId zone = clock.getZone();
+        LocalDate date = LocalDate.ofInstant(Instant.ofEpochMilli(now), zone);
+        long start = date.atStartOfDay(zone).toInstant().toEpochMilli();
+        long end = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return new CachedDay(date, start, end);
+    }
+
+    /**
+     * Fecha en caché junto con el intervalo de milisegundos en que es válida.
+     */
+    private static final class CachedDay {
+        private final LocalDate date;
+        private final long startMillis;
+        private final long endMillis;
+
+        CachedDay(LocalDate date, long startMillis, long endMillis) {
+            this.date = date;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+    }
+}
\ No newline at end of file
@@ -5,8 +5,6 @@
 
 package com.duoc.library.model;
 
-import java.util.regex.Pattern;
-
 /**
  * Representa un usuario del sistema de gestión de biblioteca.
  * 
@@ -20,11 +18,6 @@ import java.util.regex.Pattern;
  */
 public class User {
     
-    /** Patrón regex para validar formato de email */
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-        "^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\\.[A-Za-z]{2,})$"
-    );
-    
     /** Identificador único del usuario */
     private String id;
     
@@ -106,25 +99,20 @@ public class User {
      * 
      * @param email el nuevo email del usuario. Debe tener formato válido.
      * @throws IllegalArgumentException si el email tiene formato inválido
+     * @see Email#isValid(String)
      */
     public void setEmail(String email) {
-        if (email == null || email.trim().isEmpty()) {
+        if (email == null) {
             throw new IllegalArgumentException("Email no puede ser null o vacio");
         }
-        if (!isValidEmail(email.trim())) {
+        String trimmed = email.trim();
+        if (trimmed.isEmpty()) {
+            throw new IllegalArgumentException("Email no puede ser null o vacio");
+        }
+        if (!Email.isValid(trimmed)) {
             throw new IllegalArgumentException("Formato de email invalido: " + email);
         }
-        this.email = email.trim().toLowerCase();
-    }
-
-    /**
-     * Valida si un string tiene formato de email válido.
-     * 
-     * @param email el string a validar
-     * @return true si el formato es válido, false en caso contrario
-     */
-    private boolean isValidEmail(String email) {
-        return EMAIL_PATTERN.matcher(email).matches();
+        this.email = trimmed.toLowerCase();
     }
 
     /**
@@ -0,0 +1,147 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.service;
+
+import com.duoc.library.model.Book;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Índice invertido de n-gramas para búsquedas parciales sobre un campo de texto de los libros.
+ *
+ * Cada libro se indexa bajo todas las subcadenas de 1 a 3 caracteres de su texto
+ * en minúsculas. Una consulta de hasta 3 caracteres se responde directamente con
+ * la lista de su n-grama; una consulta más larga toma el trigrama menos frecuente
+ * como conjunto de candidatos y los verifica con {@code contains}, por lo que los
+ * resultados son exactamente los de una búsqueda {@code contains} case-insensitive.
+ *
+ * El título y el autor de un libro no cambian después de crearlo, por lo que
+ * el texto indexado siempre coincide con el del libro.
+ *
+ * Costo en memoria: un texto de n caracteres genera hasta 3n n-gramas, y cada
+ * uno cuesta una entrada en la lista de su n-grama. Con títulos y autores
+ * típicos de 20 a 40 caracteres, los dos índices de {@link LibraryService}
+ * ocupan del orden de 4 KB por libro, a cambio de que cada búsqueda cueste en
+ * proporción a sus candidatos y no al tamaño del catálogo. El costo por libro
+ * está acotado porque {@link ValidationService} limita títulos y autores a 100
+ * caracteres, es decir, a lo sumo unos 300 n-gramas por índice.
+ *
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+final class BookSearchIndex {
+
+    /** Longitud máxima de los n-gramas indexados */
+    private static final int MAX_GRAM_LENGTH = 3;
+
+    /** Campo del libro que se indexa */
+    private final Function<Book, String> field;
+
+    /** Listas de libros por n-grama */
+    private final Map<String, Set<Book>> postings;
+
+    /** Texto en minúsculas con el que se indexó cada libro */
+    private final Map<Book, String> indexedText;
+
+    /**
+     * Constructor que crea un índice vacío para el campo especificado.
+     *
+     * @param field función que obtiene el texto a indexar de cada libro
+     */
+    BookSearchIndex(Function<Book, String> field) {
+        this.field = field;
+        this.postings = new ConcurrentHashMap<>();
+        this.indexedText = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Agrega un libro al índice.
+     *
+     * @param book libro a indexar
+     */
+    void add(Book book) {
+        String text = field.apply(book).toLowerCase();
+        indexedText.put(book, text);
+        for (String gram : gramsOf(text)) {
+            postings.compute(gram, (key, set) -> {
+                Set<Book> target = set != null ? set : ConcurrentHashMap.newKeySet();
+                target.add(book);
+                return target;
+            });
+        }
+    }
+
+    /**
+     * Elimina un libro del índice.
+     *
+     * @param book libro a eliminar
+     */
+    void remove(Book book) {
+        String text = indexedText.remove(book);
+        if (text == null) {
+            return;
+        }
+        for (String gram : gramsOf(text)) {
+            postings.computeIfPresent(gram, (key, set) -> {
+                set.remove(book);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    /**
+     * Busca los libros cuyo texto contiene el término especificado.
+     *
+     * @param searchTerm término de búsqueda, ya normalizado a minúsculas y sin espacios externos
+     * @return lista de libros cuyo texto contiene el término
+     */
+    List<Book> search(String searchTerm) {
+        if (searchTerm.length() <= MAX_GRAM_LENGTH) {
+            Set<Book> exact = postings.get(searchTerm);
+            return exact != null ? new ArrayList<>(exact) : new ArrayList<>();
+        }
+
+        // Usar el trigrama menos frecuente como conjunto de candidatos
+        Set<Book> candidates = null;
+        for (int i = 0; i + MAX_GRAM_LENGTH <= searchTerm.length(); i++) {
+            Set<Book> posting = postings.get(searchTerm.substring(i, i + MAX_GRAM_LENGTH));
+            if (posting == null) {
+                return new ArrayList<>();
+            }
+            if (candidates == null || posting.size() < candidates.size()) {
+                candidates = posting;
+            }
+        }
+
+        List<Book> results = new ArrayList<>();
+        for (Book book : candidates) {
+            String text = indexedText.get(book);
+            if (text != null && text.contains(searchTerm)) {
+                results.add(book);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Obtiene las subcadenas distintas de 1 a 3 caracteres de un texto.
+     *
+     * @param text texto a descomponer
+     * @return conjunto de n-gramas del texto
+     */
+    private static Set<String> gramsOf(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int start = 0; start < text.length(); start++) {
+            int maxEnd = Math.min(text.length(), start + MAX_GRAM_LENGTH);
+            for (int end = start + 1; end <= maxEnd; end++) {
+                grams.add(text.substring(start, end));
+            }
+        }
+        return grams;
+    }
+}
\ No newline at end of file
@@ -9,7 +9,20 @@ import com.duoc.library.model.*;
 import com.duoc.library.util.*;
 import com.duoc.library.exception.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Servicio especializado para operaciones de gestión de archivos en el sistema de biblioteca.
@@ -24,6 +37,21 @@ import java.util.List;
  */
 public class FileService {
     
+    /** Número de registros que se acumulan antes de agregarlos en bloque */
+    private static final int IMPORT_BATCH_SIZE = 1024;
+    
+    /** Encabezados del archivo manifiesto de una exportación particionada */
+    private static final String[] MANIFEST_HEADERS = {"Archivo", "Particion", "Registros"};
+    
+    /** Número máximo de particiones que se escriben simultáneamente */
+    private static final int MAX_EXPORT_THREADS = 4;
+    
+    /** Préstamos copiados del historial en cada tramo al particionar */
+    private static final int LOAN_CHUNK_SIZE = 64 * 1024;
+    
+    /** Contador para nombrar los hilos de las exportaciones particionadas */
+    private static final AtomicInteger EXPORT_THREAD_COUNT = new AtomicInteger();
+    
     /** Servicio principal de biblioteca para operaciones de datos */
     private final LibraryService libraryService;
 
@@ -49,6 +77,7 @@ public class FileService {
      * 
      * Los libros duplicados (mismo ISBN) son omitidos automáticamente.
      * El archivo debe tener el formato: ISBN,Titulo,Autor
+     * Los registros se leen en streaming y se agregan en bloques, sin cargar el archivo en memoria.
      * 
      * @param fileName nombre del archivo CSV a cargar
      * @return resultado de la operación con estadísticas
@@ -62,8 +91,48 @@ public class FileService {
         validateFileName(fileName);
         
         try {
-            List<Book> books = CSVReader.readBooksFromCSV(fileName);
-            return processBooksImport(books, fileName);
+            ImportCounts counts = new ImportCounts();
+            List<Book> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+            int total = CSVReader.readBooksFromCSV(fileName, book -> {
+                batch.add(book);
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    importBooks(batch, counts);
+                }
+            });
+            importBooks(batch, counts);
+            return counts.toResult(fileName, total, "Libros");
+            
+        } catch (java.io.FileNotFoundException e) {
+            throw new FileNotFoundException(fileName, e.getMessage());
+        } catch (IOException e) {
+            throw new IOException("Error leyendo archivo de libros: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Carga libros desde un archivo CSV parseándolo en paralelo.
+     * 
+     * Pensado para cargas masivas de catálogos grandes: el parsing se reparte
+     * entre los núcleos disponibles y luego los libros se agregan en el orden
+     * del archivo. Los libros duplicados (mismo ISBN) son omitidos automáticamente.
+     * 
+     * @param fileName nombre del archivo CSV a cargar
+     * @return resultado de la operación con estadísticas
+     * @throws FileNotFoundException si el archivo no existe
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si el nombre del archivo es inválido
+     */
+    public ImportResult loadBooksFromCSVParallel(String fileName) 
+            throws FileNotFoundException, IOException {
+        
+        validateFileName(fileName);
+        
+        try {
+            List<Book> books = CSVReader.readBooksFromCSVParallel(fileName);
+            int total = books.size();
+            ImportCounts counts = new ImportCounts();
+            importBooks(books, counts);
+            return counts.toResult(fileName, total, "Libros");
             
         } catch (java.io.FileNotFoundException e) {
             throw new FileNotFoundException(fileName, e.getMessage());
@@ -77,6 +146,7 @@ public class FileService {
      * 
      * Los usuarios duplicados (mismo ID) son omitidos automáticamente.
      * El archivo debe tener el formato: ID,Nombre,Email
+     * Los registros se leen en streaming y se agregan en bloques, sin cargar el archivo en memoria.
      * 
      * @param fileName nombre del archivo CSV a cargar
      * @return resultado de la operación con estadísticas
@@ -90,8 +160,16 @@ public class FileService {
         validateFileName(fileName);
         
         try {
-            List<User> users = CSVReader.readUsersFromCSV(fileName);
-            return processUsersImport(users, fileName);
+            ImportCounts counts = new ImportCounts();
+            List<User> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+            int total = CSVReader.readUsersFromCSV(fileName, user -> {
+                batch.add(user);
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    importUsers(batch, counts);
+                }
+            });
+            importUsers(batch, counts);
+            return counts.toResult(fileName, total, "Usuarios");
             
         } catch (java.io.FileNotFoundException e) {
             throw new FileNotFoundException(fileName, e.getMessage());
@@ -100,6 +178,47 @@ public class FileService {
         }
     }
 
+    /**
+     * Carga el historial de préstamos desde un archivo CSV exportado con
+     * {@link #exportAllLoansToCSV(String)} o {@link #exportActiveLoansToCSV(String)}.
+     * 
+     * Cada préstamo conserva su ID y sus fechas, y se asocia a los usuarios y
+     * libros ya registrados, por lo que estos deben cargarse antes. Los préstamos
+     * con un ID ya registrado se omiten; los que se refieren a usuarios o libros
+     * inexistentes, o que prestarían un libro ya prestado, se cuentan como errores.
+     * Los registros se leen en streaming y se agregan en bloques, sin cargar el archivo en memoria.
+     * 
+     * @param fileName nombre del archivo CSV a cargar
+     * @return resultado de la operación con estadísticas
+     * @throws FileNotFoundException si el archivo no existe
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si el nombre del archivo es inválido
+     */
+    public ImportResult loadLoansFromCSV(String fileName) 
+            throws FileNotFoundException, IOException {
+        
+        validateFileName(fileName);
+        
+        try {
+            ImportCounts counts = new ImportCounts();
+            List<Loan> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+            int total = CSVReader.readLoansFromCSV(fileName, libraryService::lookupUser,
+                                                   libraryService::findBookByIsbn, loan -> {
+                batch.add(loan);
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    importLoans(batch, counts);
+                }
+            });
+            importLoans(batch, counts);
+            return counts.toResult(fileName, total, "Prestamos");
+            
+        } catch (java.io.FileNotFoundException e) {
+            throw new FileNotFoundException(fileName, e.getMessage());
+        } catch (IOException e) {
+            throw new IOException("Error leyendo archivo de prestamos: " + e.getMessage(), e);
+        }
+    }
+
     // ================================
     // OPERACIONES DE EXPORTACIÓN
     // ================================
@@ -116,10 +235,9 @@ public class FileService {
         validateFileName(fileName);
         
         try {
-            List<Book> books = libraryService.getAllBooks();
-            FileWriter.writeBooksToCSV(books, fileName);
+            int exported = FileWriter.writeBooksToCSV(libraryService.getBooksView(), fileName);
             
-            return new ExportResult(fileName, books.size(), "Libros exportados exitosamente");
+            return new ExportResult(fileName, exported, "Libros exportados exitosamente");
             
         } catch (IOException e) {
             throw new IOException("Error escribiendo archivo de libros: " + e.getMessage(), e);
@@ -138,10 +256,9 @@ public class FileService {
         validateFileName(fileName);
         
         try {
-            List<User> users = List.copyOf(libraryService.getAllUsers());
-            FileWriter.writeUsersToCSV(users, fileName);
+            int exported = FileWriter.writeUsersToCSV(libraryService.getUsersView(), fileName);
             
-            return new ExportResult(fileName, users.size(), "Usuarios exportados exitosamente");
+            return new ExportResult(fileName, exported, "Usuarios exportados exitosamente");
             
         } catch (IOException e) {
             throw new IOException("Error escribiendo archivo de usuarios: " + e.getMessage(), e);
@@ -160,10 +277,10 @@ public class FileService {
         validateFileName(fileName);
         
         try {
-            List<Loan> loans = libraryService.getActiveLoans();
-            FileWriter.writeLoansToCSV(loans, fileName);
+            int exported = FileWriter.writeLoansToCSV(libraryService.getActiveLoansView(), fileName,
+                                                      FileWriter.DEFAULT_BUFFER_SIZE, libraryService.getClock().today());
             
-            return new ExportResult(fileName, loans.size(), "Prestamos activos exportados exitosamente");
+            return new ExportResult(fileName, exported, "Prestamos activos exportados exitosamente");
             
         } catch (IOException e) {
             throw new IOException("Error escribiendo archivo de prestamos: " + e.getMessage(), e);
@@ -182,20 +299,170 @@ public class FileService {
         validateFileName(fileName);
         
         try {
-            List<Loan> loans = libraryService.getAllLoans();
-            FileWriter.writeLoansToCSV(loans, fileName);
+            int exported = FileWriter.writeLoansToCSV(libraryService.getAllLoans(), fileName,
+                                                      FileWriter.DEFAULT_BUFFER_SIZE, libraryService.getClock().today());
             
-            return new ExportResult(fileName, loans.size(), "Todos los prestamos exportados exitosamente");
+            return new ExportResult(fileName, exported, "Todos los prestamos exportados exitosamente");
             
         } catch (IOException e) {
             throw new IOException("Error escribiendo archivo de prestamos: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Exporta el historial completo de préstamos particionado por mes de préstamo.
+     * 
+     * Se genera un archivo por cada mes con préstamos, con el nombre del archivo
+     * indicado más el sufijo {@code _yyyy-MM}. Los archivos se escriben en paralelo
+     * y al final se escribe en {@code fileName} un manifiesto con el nombre,
+     * la partición y el número de registros de cada archivo.
+     * 
+     * @param fileName nombre del archivo manifiesto
+     * @return resultado de la operación con el total de préstamos exportados
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si el nombre del archivo es inválido
+     */
+    public ExportResult exportLoansByMonth(String fileName) throws IOException {
+        validateFileName(fileName);
+        
+        Map<YearMonth, List<Loan>> months = new TreeMap<>();
+        forEachLoan(loan -> months.computeIfAbsent(YearMonth.from(loan.getLoanDate()), 
+                                                   month -> new ArrayList<>()).add(loan));
+        
+        Map<String, List<Loan>> partitions = new LinkedHashMap<>();
+        for (Map.Entry<YearMonth, List<Loan>> month : months.entrySet()) {
+            partitions.put(month.getKey().toString(), month.getValue());
+        }
+        return exportLoanPartitions(fileName, partitions);
+    }
+
+    /**
+     * Exporta el historial completo de préstamos repartido en un número fijo de
+     * archivos según el hash del ID de usuario.
+     * 
+     * Todos los préstamos de un mismo usuario quedan en el mismo archivo. Se
+     * generan siempre {@code shardCount} archivos, aunque alguno quede vacío, con
+     * el nombre del archivo indicado más el sufijo {@code _part-NNN}. Los archivos
+     * se escriben en paralelo y al final se escribe el manifiesto en {@code fileName}.
+     * 
+     * @param fileName nombre del archivo manifiesto
+     * @param shardCount número de archivos a generar
+     * @return resultado de la operación con el total de préstamos exportados
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si el nombre del archivo o el número de archivos son inválidos
+     */
+    public ExportResult exportLoansByUserHash(String fileName, int shardCount) throws IOException {
+        validateFileName(fileName);
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("El numero de particiones debe ser positivo: " + shardCount);
+        }
+        
+        List<List<Loan>> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ArrayList<>());
+        }
+        forEachLoan(loan -> shards.get(Math.floorMod(loan.getUser().getId().hashCode(), shardCount)).add(loan));
+        
+        Map<String, List<Loan>> partitions = new LinkedHashMap<>();
+        for (int i = 0; i < shardCount; i++) {
+            partitions.put(String.format("part-%03d", i), shards.get(i));
+        }
+        return exportLoanPartitions(fileName, partitions);
+    }
+
     // ================================
     // MÉTODOS DE UTILIDAD PRIVADOS
     // ================================
 
+    /**
+     * Recorre en orden de registro los préstamos del historial existentes al
+     * llamar al método.
+     * 
+     * El historial se copia por tramos de {@value #LOAN_CHUNK_SIZE} préstamos,
+     * de modo que el bloqueo de la lista se toma una vez por tramo y no por
+     * préstamo, y los préstamos registrados entretanto no se detienen más que
+     * lo que dura cada copia.
+     * 
+     * @param action acción a aplicar a cada préstamo
+     */
+    private void forEachLoan(Consumer<Loan> action) {
+        int count = libraryService.getLoanCount();
+        for (int from = 0; from < count; from += LOAN_CHUNK_SIZE) {
+            for (Loan loan : libraryService.getLoansRange(from, Math.min(from + LOAN_CHUNK_SIZE, count))) {
+                action.accept(loan);
+            }
+        }
+    }
+
+    /**
+     * Escribe en paralelo un archivo por partición y luego el manifiesto.
+     * 
+     * Los archivos se escriben en un pool propio de hasta
+     * {@value #MAX_EXPORT_THREADS} hilos, ya que cada escritura se bloquea al
+     * sincronizar con el disco. Todas las particiones evalúan el vencimiento
+     * respecto de la misma fecha. El manifiesto se escribe solo si todas las
+     * particiones se escribieron correctamente.
+     * 
+     * @param fileName nombre del archivo manifiesto
+     * @param partitions préstamos de cada partición, por etiqueta, en el orden del manifiesto
+     * @return resultado de la operación con el total de préstamos exportados
+     * @throws IOException si ocurre un error de E/S
+     */
+    private ExportResult exportLoanPartitions(String fileName, Map<String, List<Loan>> partitions) 
+            throws IOException {
+        LocalDate today = libraryService.getClock().today();
+        String baseName = fileName.substring(0, fileName.length() - ".csv".length());
+        
+        int threads = Math.max(1, Math.min(partitions.size(), MAX_EXPORT_THREADS));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "loan-export-" + EXPORT_THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        try {
+            List<String> shardFiles = new ArrayList<>();
+            List<Future<Integer>> tasks = new ArrayList<>();
+            for (Map.Entry<String, List<Loan>> partition : partitions.entrySet()) {
+                String shardFile = baseName + "_" + partition.getKey() + ".csv";
+                List<Loan> loans = partition.getValue();
+                shardFiles.add(shardFile);
+                tasks.add(executor.submit(
+                        () -> FileWriter.writeLoansToCSV(loans, shardFile, FileWriter.DEFAULT_BUFFER_SIZE, today)));
+            }
+            
+            List<String[]> manifest = new ArrayList<>();
+            int total = 0;
+            int index = 0;
+            for (String label : partitions.keySet()) {
+                int rows = tasks.get(index).get();
+                String shardName = Paths.get(shardFiles.get(index)).getFileName().toString();
+                manifest.add(new String[] {shardName, label, String.valueOf(rows)});
+                total += rows;
+                index++;
+            }
+            FileWriter.writeGenericCSV(manifest, MANIFEST_HEADERS, fileName);
+            
+            return new ExportResult(fileName, total, 
+                    String.format("Prestamos exportados en %d particiones", partitions.size()));
+            
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Error escribiendo particion de prestamos: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Exportacion de prestamos interrumpida", e);
+        } catch (IOException e) {
+            throw new IOException("Error escribiendo archivo de prestamos: " + e.getMessage(), e);
+        } finally {
+            // Si una partición falló, las demás se interrumpen y descartan su archivo temporal
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Valida que el nombre del archivo sea válido para operaciones CSV.
      * 
@@ -209,59 +476,68 @@ public class FileService {
     }
 
     /**
-     * Procesa la importación de libros y genera estadísticas.
+     * Agrega un bloque de libros, registra el resultado en los contadores y vacía el bloque.
      * 
-     * @param books lista de libros a importar
-     * @param fileName nombre del archivo origen
-     * @return resultado de la importación
+     * @param batch libros a importar
+     * @param counts contadores de la importación en curso
      */
-    private ImportResult processBooksImport(List<Book> books, String fileName) {
-        int imported = 0;
-        int duplicates = 0;
-        int errors = 0;
-        
-        for (Book book : books) {
-            try {
-                libraryService.addBook(book);
-                imported++;
-            } catch (IllegalArgumentException e) {
-                if (e.getMessage().contains("Ya existe")) {
-                    duplicates++;
-                } else {
-                    errors++;
-                }
-            }
-        }
-        
-        return new ImportResult(fileName, books.size(), imported, duplicates, errors, "Libros");
+    private void importBooks(List<Book> batch, ImportCounts counts) {
+        counts.add(libraryService.addBooks(batch));
+        batch.clear();
     }
 
     /**
-     * Procesa la importación de usuarios y genera estadísticas.
+     * Agrega un bloque de usuarios, registra el resultado en los contadores y vacía el bloque.
      * 
-     * @param users lista de usuarios a importar
-     * @param fileName nombre del archivo origen
-     * @return resultado de la importación
+     * @param batch usuarios a importar
+     * @param counts contadores de la importación en curso
      */
-    private ImportResult processUsersImport(List<User> users, String fileName) {
-        int imported = 0;
-        int duplicates = 0;
-        int errors = 0;
-        
-        for (User user : users) {
-            try {
-                libraryService.addUser(user);
-                imported++;
-            } catch (Exception e) {
-                if (e.getMessage().contains("ya existe")) {
-                    duplicates++;
-                } else {
-                    errors++;
-                }
-            }
+    private void importUsers(List<User> batch, ImportCounts counts) {
+        counts.add(libraryService.addUsers(batch));
+        batch.clear();
+    }
+
+    /**
+     * Registra un bloque de préstamos, acumula el resultado en los contadores y vacía el bloque.
+     * 
+     * @param batch préstamos a importar
+     * @param counts contadores de la importación en curso
+     */
+    private void importLoans(List<Loan> batch, ImportCounts counts) {
+        counts.add(libraryService.restoreLoans(batch));
+        batch.clear();
+    }
+
+    /**
+     * Contadores acumulados durante una importación en streaming.
+     */
+    private static class ImportCounts {
+        private int imported;
+        private int duplicates;
+        private int errors;
+
+        /**
+         * Acumula el resultado de un alta en bloque.
+         * 
+         * @param result resultado del bloque agregado
+         */
+        void add(LibraryService.BulkAddResult result) {
+            imported += result.getAddedCount();
+            duplicates += result.getDuplicateCount();
+            errors += result.getInvalidCount();
+        }
+
+        /**
+         * Genera el resultado de la importación a partir de los contadores.
+         * 
+         * @param fileName nombre del archivo origen
+         * @param totalRecords total de registros leídos
+         * @param dataType tipo de datos procesados
+         * @return resultado de la importación
+         */
+        ImportResult toResult(String fileName, int totalRecords, String dataType) {
+            return new ImportResult(fileName, totalRecords, imported, duplicates, errors, dataType);
         }
-        
-        return new ImportResult(fileName, users.size(), imported, duplicates, errors, "Usuarios");
     }
 
     // ================================
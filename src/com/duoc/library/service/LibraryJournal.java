@@ -0,0 +1,757 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.service;
+
+import com.duoc.library.exception.*;
+import com.duoc.library.model.*;
+import com.duoc.library.util.GroupCommitAppender;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Diario de escritura anticipada de las operaciones de {@link LibraryService}.
+ *
+ * Cada alta, baja, préstamo y devolución se agrega como un registro binario al
+ * final del archivo del diario. Al iniciar, {@link #replay(String, LibraryService)}
+ * vuelve a aplicar los registros en orden para reconstruir el estado exacto.
+ *
+ * El diario se divide en segmentos numerados ({@code <nombre>.1}, {@code <nombre>.2}, ...).
+ * Al escribir una instantánea con {@link LibrarySnapshot} se abre un segmento
+ * nuevo y, una vez guardada la instantánea, los segmentos anteriores se eliminan,
+ * de modo que al reiniciar solo se reproducen los registros posteriores a ella.
+ * El segmento nuevo escribe su primer lote recién cuando el anterior está
+ * sincronizado con el disco, por lo que solo el último segmento puede quedar
+ * incompleto tras una caída.
+ *
+ * Formato de cada registro:
+ * <pre>
+ *   [int longitud][byte tipo][contenido][int CRC32C de tipo y contenido]
+ * </pre>
+ * Las cadenas se escriben como longitud variable seguida de sus bytes UTF-8 y
+ * las fechas como número de día desde la época. Un registro incompleto o con
+ * suma de verificación inválida al final del archivo corresponde a una
+ * escritura interrumpida; la reproducción se detiene allí y trunca el archivo.
+ *
+ * El servicio agrega cada registro antes de aplicar la operación en memoria. Si
+ * una escritura falla, el diario rechaza todos los registros siguientes, de modo
+ * que ninguna operación se aplica sin quedar registrada.
+ *
+ * Los registros se escriben mediante un {@link GroupCommitAppender}: agregar
+ * un registro solo copia sus bytes a un buffer en memoria, y un hilo de fondo
+ * escribe y sincroniza con el disco los registros acumulados en un solo lote.
+ * Las operaciones del servicio no esperan al disco, por lo que una caída del
+ * sistema puede perder los registros de la última ventana de espera
+ * ({@link #DEFAULT_MAX_DELAY_MILLIS} milisegundos por defecto). Quien necesite
+ * confirmar que una operación es durable debe llamar a {@link #flush()}.
+ *
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public final class LibraryJournal implements Closeable {
+
+    /** Nombre por defecto del archivo del diario */
+    public static final String DEFAULT_FILE_NAME = "biblioteca.journal";
+
+    /** Tamaño por defecto del lote de registros en bytes */
+    public static final int DEFAULT_BATCH_SIZE = 64 * 1024;
+
+    /** Tiempo máximo por defecto que un registro espera antes de sincronizarse, en milisegundos */
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 5;
+
+    /** Tamaño máximo aceptado para un registro al reproducir el diario */
+    private static final int MAX_RECORD_SIZE = 1024 * 1024;
+
+    /** Tipos de registro */
+    private static final byte ADD_BOOK = 1;
+    private static final byte ADD_USER = 2;
+    private static final byte LOAN = 3;
+    private static final byte RETURN = 4;
+    private static final byte REMOVE_BOOK = 5;
+    private static final byte REMOVE_USER = 6;
+
+    /** Codificador de registros reutilizado por cada hilo */
+    private static final ThreadLocal<RecordEncoder> ENCODER = ThreadLocal.withInitial(RecordEncoder::new);
+
+    /** Ruta base de los segmentos del diario */
+    private final Path base;
+
+    /** Tamaño del lote de cada segmento */
+    private final int batchSize;
+
+    /** Tiempo máximo de espera de cada segmento */
+    private final long maxDelayMillis;
+
+    /** Escritor del segmento actual */
+    private volatile GroupCommitAppender appender;
+
+    /** Escritor del segmento anterior, pendiente de cerrar tras un cambio de segmento, o null */
+    private volatile GroupCommitAppender retired;
+
+    /** Número del segmento actual */
+    private long generation;
+
+    /**
+     * Abre el diario con la configuración por defecto.
+     *
+     * @param fileName nombre del archivo del diario
+     * @throws IOException si el archivo no puede abrirse
+     * @throws IllegalArgumentException si el nombre del archivo es inválido
+     */
+    public LibraryJournal(String fileName) throws IOException {
+        this(fileName, DEFAULT_BATCH_SIZE, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    /**
+     * Abre el diario con el tamaño de lote y tiempo de espera especificados.
+     * Los registros se agregan al último segmento existente o, si no hay
+     * ninguno, al primero. Cada lote se sincroniza con el disco.
+     *
+     * @param fileName nombre del archivo del diario
+     * @param batchSize tamaño en bytes a partir del cual un lote se escribe de inmediato
+     * @param maxDelayMillis tiempo máximo que un registro espera antes de escribirse
+     * @throws IOException si el archivo no puede abrirse
+     * @throws IllegalArgumentException si algún parámetro es inválido
+     */
+    public LibraryJournal(String fileName, int batchSize, long maxDelayMillis) throws IOException {
+        if (!ValidationService.isValidFileName(fileName)) {
+            throw new IllegalArgumentException("Nombre de archivo invalido: " + fileName);
+        }
+        this.base = Paths.get(fileName);
+        this.batchSize = batchSize;
+        this.maxDelayMillis = maxDelayMillis;
+
+        List<Long> generations = listGenerations(base);
+        this.generation = generations.isEmpty() ? 1 : generations.get(generations.size() - 1);
+        this.appender = openSegment(generation, null);
+    }
+
+    /**
+     * Obtiene el número del segmento donde se agregan los registros.
+     *
+     * @return número del segmento actual
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Espera a que todos los registros agregados hasta el momento estén sincronizados con el disco.
+     *
+     * @throws IOException si la escritura del diario falló
+     */
+    public void flush() throws IOException {
+        GroupCommitAppender previous = retired;
+        if (previous != null) {
+            previous.flush();
+        }
+        appender.flush();
+    }
+
+    /**
+     * Sincroniza los registros pendientes y cierra el archivo del diario.
+     *
+     * @throws IOException si la escritura o el cierre fallan
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            closeRetiredSegment();
+        } finally {
+            appender.close();
+        }
+    }
+
+    /**
+     * Continúa en un segmento nuevo sin esperar al disco.
+     *
+     * Debe llamarse mientras ninguna operación del servicio pueda registrarse,
+     * para que todos los registros anteriores queden en los segmentos previos y
+     * todos los posteriores en el nuevo. Solo abre el segmento nuevo: el anterior
+     * se sincroniza y cierra después, con {@link #closeRetiredSegment()}, fuera
+     * de los bloqueos del servicio. Mientras tanto el segmento nuevo acumula
+     * registros pero no escribe ninguno hasta que el anterior es durable.
+     *
+     * @return número del nuevo segmento
+     * @throws IOException si el nuevo segmento no puede abrirse
+     * @throws IllegalStateException si el segmento anterior a este cambio aún no fue cerrado
+     */
+    synchronized long rotate() throws IOException {
+        if (retired != null) {
+            throw new IllegalStateException("El segmento anterior del diario aun no fue cerrado");
+        }
+        GroupCommitAppender previous = appender;
+        appender = openSegment(generation + 1, previous);
+        generation++;
+        retired = previous;
+        return generation;
+    }
+
+    /**
+     * Espera a que el segmento reemplazado por {@link #rotate()} esté
+     * sincronizado con el disco y lo cierra. No hace nada si no hay un segmento
+     * pendiente de cerrar.
+     *
+     * @throws IOException si la escritura o el cierre del segmento anterior fallan
+     */
+    void closeRetiredSegment() throws IOException {
+        GroupCommitAppender previous = retired;
+        if (previous == null) {
+            return;
+        }
+        try {
+            previous.close();
+        } finally {
+            synchronized (this) {
+                if (retired == previous) {
+                    retired = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifica si el segmento actual contiene registros.
+     *
+     * @return true si se agregó algún registro desde que se abrió el segmento
+     */
+    boolean hasRecordsInCurrentSegment() {
+        return appender.getAppendedCount() > 0;
+    }
+
+    /**
+     * Elimina los segmentos anteriores al indicado, ya cubiertos por una instantánea.
+     *
+     * @param firstKept número del primer segmento que se conserva
+     * @throws IOException si algún segmento no puede eliminarse
+     */
+    void deleteSegmentsBefore(long firstKept) throws IOException {
+        for (long segment : listGenerations(base)) {
+            if (segment < firstKept) {
+                Files.deleteIfExists(segmentFile(base, segment));
+            }
+        }
+    }
+
+    // ================================
+    // REGISTRO DE OPERACIONES
+    // ================================
+
+    /**
+     * Registra el alta de un libro.
+     *
+     * @param book libro agregado
+     */
+    void bookAdded(Book book) {
+        RecordEncoder encoder = ENCODER.get().begin(ADD_BOOK);
+        encoder.putString(book.getIsbn());
+        encoder.putString(book.getTitle());
+        encoder.putString(book.getAuthor());
+        write(encoder);
+    }
+
+    /**
+     * Registra el alta de un usuario.
+     *
+     * @param user usuario agregado
+     */
+    void userAdded(User user) {
+        RecordEncoder encoder = ENCODER.get().begin(ADD_USER);
+        encoder.putString(user.getId());
+        encoder.putString(user.getName());
+        encoder.putString(user.getEmail());
+        write(encoder);
+    }
+
+    /**
+     * Registra la creación de un préstamo.
+     *
+     * @param loan préstamo creado
+     */
+    void loanCreated(Loan loan) {
+        RecordEncoder encoder = ENCODER.get().begin(LOAN);
+        encoder.putString(loan.getLoanId());
+        encoder.putString(loan.getUser().getId());
+        encoder.putString(loan.getBook().getIsbn());
+        encoder.putDate(loan.getLoanDate());
+        encoder.putDate(loan.getDueDate());
+        write(encoder);
+    }
+
+    /**
+     * Registra la devolución de un préstamo.
+     *
+     * @param loanId ID del préstamo devuelto
+     * @param returnDate fecha de la devolución
+     */
+    void loanReturned(String loanId, LocalDate returnDate) {
+        RecordEncoder encoder = ENCODER.get().begin(RETURN);
+        encoder.putString(loanId);
+        encoder.putDate(returnDate);
+        write(encoder);
+    }
+
+    /**
+     * Registra la eliminación de un libro.
+     *
+     * @param isbn ISBN del libro eliminado
+     */
+    void bookRemoved(String isbn) {
+        RecordEncoder encoder = ENCODER.get().begin(REMOVE_BOOK);
+        encoder.putString(isbn);
+        write(encoder);
+    }
+
+    /**
+     * Registra la eliminación de un usuario.
+     *
+     * @param userId ID del usuario eliminado
+     */
+    void userRemoved(String userId) {
+        RecordEncoder encoder = ENCODER.get().begin(REMOVE_USER);
+        encoder.putString(userId);
+        write(encoder);
+    }
+
+    // ================================
+    // REPRODUCCIÓN
+    // ================================
+
+    /**
+     * Reproduce todos los segmentos de un diario sobre un servicio para reconstruir su estado.
+     *
+     * @param fileName nombre del diario
+     * @param service servicio sobre el que se aplican los registros
+     * @return resumen de la reproducción
+     * @throws IOException si ocurre un error de E/S o un registro válido no puede aplicarse
+     * @throws IllegalArgumentException si algún parámetro es inválido
+     * @see #replay(String, LibraryService, long)
+     */
+    public static ReplayResult replay(String fileName, LibraryService service) throws IOException {
+        return replay(fileName, service, 0);
+    }
+
+    /**
+     * Reproduce los segmentos de un diario a partir del indicado.
+     *
+     * El servicio no debe tener un diario asociado durante la reproducción,
+     * para no volver a registrar las operaciones reproducidas. Si no existen
+     * segmentos, no se aplica ningún registro. Si el final del último segmento
+     * contiene un registro incompleto o dañado, el archivo se trunca antes de ese
+     * registro para que las escrituras siguientes continúen desde un punto válido;
+     * un registro dañado en un segmento anterior se considera un error.
+     *
+     * @param fileName nombre del diario
+     * @param service servicio sobre el que se aplican los registros
+     * @param fromGeneration número del primer segmento a reproducir
+     * @return resumen de la reproducción
+     * @throws IOException si ocurre un error de E/S o un registro válido no puede aplicarse
+     * @throws IllegalArgumentException si algún parámetro es inválido
+     */
+    public static ReplayResult replay(String fileName, LibraryService service, long fromGeneration)
+            throws IOException {
+        if (!ValidationService.isValidFileName(fileName)) {
+            throw new IllegalArgumentException("Nombre de archivo invalido: " + fileName);
+        }
+        if (service == null) {
+            throw new IllegalArgumentException("El servicio no puede ser null");
+        }
+
+        Path basePath = Paths.get(fileName);
+        List<Long> generations = listGenerations(basePath);
+        int records = 0;
+        long truncated = 0;
+        for (int i = 0; i < generations.size(); i++) {
+            long segment = generations.get(i);
+            if (segment < fromGeneration) {
+                continue;
+            }
+            boolean last = i == generations.size() - 1;
+            ReplayResult result = replaySegment(segmentFile(basePath, segment), service, last);
+            records += result.getRecordCount();
+            truncated += result.getTruncatedBytes();
+        }
+        return new ReplayResult(records, truncated);
+    }
+
+    // ================================
+    // MÉTODOS PRIVADOS
+    // ================================
+
+    /**
+     * Reproduce un segmento del diario.
+     *
+     * @param path archivo del segmento
+     * @param service servicio sobre el que se aplican los registros
+     * @param last true si es el último segmento y puede truncarse
+     * @return resumen de la reproducción del segmento
+     * @throws IOException si ocurre un error de E/S, un registro válido no puede
+     *         aplicarse o un segmento intermedio está dañado
+     */
+    private static ReplayResult replaySegment(Path path, LibraryService service, boolean last)
+            throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (NoSuchFileException e) {
+            return new ReplayResult(0, 0);
+        }
+
+        try (FileChannel file = channel) {
+            long fileSize = file.size();
+            long validEnd = 0;
+            int records = 0;
+
+            InputStream stream = Channels.newInputStream(file);
+            DataInputStream input = new DataInputStream(new BufferedInputStream(stream, 64 * 1024));
+            CRC32C crc = new CRC32C();
+            RecordDecoder decoder = new RecordDecoder();
+
+            while (fileSize - validEnd >= Integer.BYTES) {
+                int length = input.readInt();
+                if (length <= 0 || length > MAX_RECORD_SIZE
+                        || fileSize - validEnd - Integer.BYTES < (long) length + Integer.BYTES) {
+                    break;
+                }
+                byte[] data = decoder.reset(length);
+                input.readFully(data, 0, length);
+                int storedCrc = input.readInt();
+
+                crc.reset();
+                crc.update(data, 0, length);
+                if ((int) crc.getValue() != storedCrc) {
+                    break;
+                }
+
+                try {
+                    apply(decoder, service);
+                } catch (Exception e) {
+                    throw new IOException("Registro " + (records + 1) + " del diario " + path.getFileName()
+                                          + " no puede aplicarse: " + e.getMessage(), e);
+                }
+                records++;
+                validEnd += Integer.BYTES + length + Integer.BYTES;
+            }
+
+            long truncated = fileSize - validEnd;
+            if (truncated > 0) {
+                if (!last) {
+                    throw new IOException("Segmento del diario danado: " + path.getFileName()
+                                          + " (posicion " + validEnd + ")");
+                }
+                file.truncate(validEnd);
+                file.force(true);
+            }
+            return new ReplayResult(records, truncated);
+        }
+    }
+
+    /**
+     * Abre el escritor de un segmento del diario.
+     *
+     * @param segment número del segmento
+     * @param previous escritor del segmento anterior, que debe ser durable antes
+     *        de escribir en el nuevo, o null
+     * @return escritor del segmento
+     * @throws IOException si el archivo no puede abrirse
+     */
+    private GroupCommitAppender openSegment(long segment, GroupCommitAppender previous) throws IOException {
+        return new GroupCommitAppender(segmentFile(base, segment).toString(), batchSize, maxDelayMillis,
+                                       GroupCommitAppender.Durability.FSYNC, previous);
+    }
+
+    /**
+     * Obtiene el archivo de un segmento del diario.
+     *
+     * @param basePath ruta base del diario
+     * @param segment número del segmento
+     * @return ruta del segmento
+     */
+    private static Path segmentFile(Path basePath, long segment) {
+        return basePath.resolveSibling(basePath.getFileName() + "." + segment);
+    }
+
+    /**
+     * Lista los números de los segmentos existentes de un diario, en orden ascendente.
+     *
+     * @param basePath ruta base del diario
+     * @return números de los segmentos
+     * @throws IOException si el directorio no puede leerse
+     */
+    private static List<Long> listGenerations(Path basePath) throws IOException {
+        Path absolute = basePath.toAbsolutePath();
+        String prefix = absolute.getFileName() + ".";
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(absolute.getParent(), prefix + "*")) {
+            for (Path file : files) {
+                String suffix = file.getFileName().toString().substring(prefix.length());
+                if (!suffix.isEmpty() && suffix.length() < 19 && suffix.chars().allMatch(Character::isDigit)) {
+                    generations.add(Long.parseLong(suffix));
+                }
+            }
+        }
+        Collections.sort(generations);
+        return generations;
+    }
+
+    /**
+     * Agrega el registro codificado al diario.
+     *
+     * @param encoder codificador con el registro completo
+     * @throws UncheckedIOException si el diario está cerrado o falló una escritura anterior
+     */
+    private void write(RecordEncoder encoder) {
+        try {
+            appender.append(encoder.finish(), 0, encoder.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error escribiendo el diario: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Aplica un registro decodificado sobre el servicio.
+     *
+     * @param record registro a aplicar
+     * @param service servicio de destino
+     * @throws Exception si el registro no es coherente con el estado del servicio
+     */
+    private static void apply(RecordDecoder record, LibraryService service) throws Exception {
+        byte type = record.getByte();
+        switch (type) {
+            case ADD_BOOK: {
+                // Sin revalidar: el libro se validó al registrarse, quizás con reglas de ISBN anteriores
+                Book book = new Book(record.getString(), record.getString(), record.getString());
+                if (!service.restoreBook(book)) {
+                    throw new IllegalArgumentException("Ya existe un libro con ISBN: " + book.getIsbn());
+                }
+                break;
+            }
+            case ADD_USER:
+                service.addUser(new User(record.getString(), record.getString(), record.getString()));
+                break;
+            case LOAN: {
+                String loanId = record.getString();
+                User user = service.findUserById(record.getString());
+                String isbn = record.getString();
+                Book book = service.findBookByIsbn(isbn);
+                if (book == null) {
+                    throw new BookNotFoundException(isbn);
+                }
+                LocalDate loanDate = record.getDate();
+                LocalDate dueDate = record.getDate();
+                service.restoreLoan(Loan.restore(loanId, user, book, loanDate, dueDate, null));
+                break;
+            }
+            case RETURN:
+                service.restoreReturn(record.getString(), record.getDate());
+                break;
+            case REMOVE_BOOK: {
+                String isbn = record.getString();
+                if (!service.removeBook(isbn)) {
+                    throw new BookNotFoundException(isbn);
+                }
+                break;
+            }
+            case REMOVE_USER: {
+                String userId = record.getString();
+                if (!service.removeUser(userId)) {
+                    throw new InvalidUserException(userId, InvalidUserException.ErrorType.USER_NOT_FOUND);
+                }
+                break;
+            }
+            default:
+                throw new IOException("Tipo de registro desconocido: " + type);
+        }
+    }
+
+    /**
+     * Codificador reutilizable de un registro del diario.
+     * Reserva los primeros bytes para la longitud y agrega la suma de verificación al terminar.
+     */
+    private static final class RecordEncoder {
+        private final CRC32C crc = new CRC32C();
+        private byte[] data = new byte[256];
+        private int size;
+
+        RecordEncoder begin(byte type) {
+            size = Integer.BYTES;
+            ensure(1);
+            data[size++] = type;
+            return this;
+        }
+
+        void putString(String value) {
+            int length = 0;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                length += c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isSurrogate(c) ? 2 : 3;
+            }
+            if (length == value.length()) {
+                putVarInt(length);
+                ensure(length);
+                for (int i = 0; i < length; i++) {
+                    data[size++] = (byte) value.charAt(i);
+                }
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                putVarInt(bytes.length);
+                ensure(bytes.length);
+                System.arraycopy(bytes, 0, data, size, bytes.length);
+                size += bytes.length;
+            }
+        }
+
+        void putDate(LocalDate date) {
+            putInt((int) date.toEpochDay());
+        }
+
+        byte[] finish() {
+            int length = size - Integer.BYTES;
+            crc.reset();
+            crc.update(data, Integer.BYTES, length);
+            putInt((int) crc.getValue());
+            data[0] = (byte) (length >>> 24);
+            data[1] = (byte) (length >>> 16);
+            data[2] = (byte) (length >>> 8);
+            data[3] = (byte) length;
+            return data;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void putVarInt(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+
+        private void putInt(int value) {
+            ensure(Integer.BYTES);
+            data[size++] = (byte) (value >>> 24);
+            data[size++] = (byte) (value >>> 16);
+            data[size++] = (byte) (value >>> 8);
+            data[size++] = (byte) value;
+        }
+
+        private void ensure(int bytes) {
+            if (data.length - size < bytes) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + bytes));
+            }
+        }
+    }
+
+    /**
+     * Decodificador del contenido de un registro leído del diario.
+     */
+    private static final class RecordDecoder {
+        private byte[] data = new byte[256];
+        private int limit;
+        private int position;
+
+        byte[] reset(int length) {
+            if (data.length < length) {
+                data = new byte[Math.max(length, data.length * 2)];
+            }
+            limit = length;
+            position = 0;
+            return data;
+        }
+
+        byte getByte() throws IOException {
+            require(1);
+            return data[position++];
+        }
+
+        String getString() throws IOException {
+            int length = getVarInt();
+            require(length);
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        LocalDate getDate() throws IOException {
+            require(Integer.BYTES);
+            int epochDay = ((data[position] & 0xFF) << 24) | ((data[position + 1] & 0xFF) << 16)
+                           | ((data[position + 2] & 0xFF) << 8) | (data[position + 3] & 0xFF);
+            position += Integer.BYTES;
+            return LocalDate.ofEpochDay(epochDay);
+        }
+
+        private int getVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte b = getByte();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    if (value < 0) {
+                        break;
+                    }
+                    return value;
+                }
+            }
+            throw new IOException("Longitud invalida en registro del diario");
+        }
+
+        private void require(int bytes) throws IOException {
+            if (limit - position < bytes) {
+                throw new EOFException("Registro del diario truncado");
+            }
+        }
+    }
+
+    // ================================
+    // CLASES DE RESULTADO
+    // ================================
+
+    /**
+     * Representa el resultado de reproducir un diario.
+     */
+    public static class ReplayResult {
+        private final int records;
+        private final long truncatedBytes;
+
+        public ReplayResult(int records, long truncatedBytes) {
+            this.records = records;
+            this.truncatedBytes = truncatedBytes;
+        }
+
+        // Getters
+        public int getRecordCount() { return records; }
+        public long getTruncatedBytes() { return truncatedBytes; }
+        public boolean isEmpty() { return records == 0; }
+
+        @Override
+        public String toString() {
+            return String.format("%d registros aplicados, %d bytes descartados", records, truncatedBytes);
+        }
+    }
+}
\ No newline at end of file
@@ -7,7 +7,13 @@ package com.duoc.library.service;
 
 import com.duoc.library.model.*;
 import com.duoc.library.exception.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.stream.Collectors;
 
 /**
@@ -18,13 +24,36 @@ import java.util.stream.Collectors;
  * Actúa como fachada para las operaciones complejas y mantiene la integridad
  * de los datos a través de validaciones y manejo de excepciones.
  * 
+ * El servicio es seguro para uso concurrente. Las colecciones son concurrentes
+ * y las operaciones que modifican el estado de un libro (préstamo, devolución y
+ * eliminación) se serializan mediante bloqueos particionados por ISBN, de modo
+ * que operaciones sobre libros distintos avanzan en paralelo mientras que las
+ * operaciones sobre un mismo ISBN nunca se intercalan.
+ * 
+ * Un libro prestado puede reservarse con {@link #reserveBook(String, String)}:
+ * las reservas de cada ISBN forman una cola y, al devolverse el libro, se
+ * presta directamente a la reserva más antigua, cuyo futuro se completa con el
+ * préstamo. Así los usuarios no necesitan reintentar el préstamo hasta que el
+ * libro quede disponible.
+ * 
+ * Los rechazos esperados de un préstamo, como un libro ya prestado, pueden
+ * consultarse sin excepciones mediante {@link #tryLoanBook(String, String)},
+ * que entrega un {@link LoanResult} compartido para cada tipo de rechazo.
+ * 
  * @author Sistema de Gestión de Biblioteca
  * @version 1.0
  * @since 1.0
  */
 public class LibraryService {
     
-    /** Colección de libros indexados por ISBN para búsqueda rápida */
+    /** Número de particiones de bloqueo (potencia de 2) */
+    private static final int LOCK_STRIPES = 64;
+    
+    /** Orden de préstamos por fecha de vencimiento, desempatando por ID */
+    private static final Comparator<Loan> DUE_DATE_ORDER = 
+            Comparator.comparing(Loan::getDueDate).thenComparing(Loan::getLoanId);
+    
+    /** Colección de libros indexados por ISBN en forma canónica ({@link Book#getIsbnKey()}) */
     private final Map<String, Book> books;
     
     /** Colección de usuarios indexados por ID para búsqueda rápida */
@@ -33,11 +62,50 @@ public class LibraryService {
     /** Lista de todos los préstamos realizados */
     private final List<Loan> loans;
     
+    /** Índice de todos los préstamos por ID para búsqueda en tiempo constante */
+    private final Map<String, Loan> loansById;
+    
     /** Índice de préstamos activos por ISBN para verificación rápida */
     private final Map<String, Loan> activeLoansByIsbn;
     
+    /** Préstamos activos ordenados por fecha de vencimiento */
+    private final NavigableSet<Loan> activeLoansByDueDate;
+    
+    /** Bloqueo que protege el contador de préstamos vencidos */
+    private final Object overdueLock = new Object();
+    
+    /** Fecha para la cual es válido el contador de préstamos vencidos (null si no se ha calculado) */
+    private LocalDate overdueCountDate;
+    
+    /** Número de préstamos activos vencidos a la fecha {@code overdueCountDate} */
+    private int overdueCount;
+    
+    /** Colas de reservas pendientes por ISBN, protegidas por el bloqueo del ISBN */
+    private final Map<String, ArrayDeque<Hold>> holdsByIsbn;
+    
     /** Índice de préstamos por usuario para consultas rápidas */
     private final Map<String, List<Loan>> loansByUser;
+    
+    /** Índice invertido de n-gramas sobre los títulos */
+    private final BookSearchIndex titleIndex;
+    
+    /** Índice invertido de n-gramas sobre los autores */
+    private final BookSearchIndex authorIndex;
+    
+    /** Bloqueos particionados por ISBN para serializar operaciones sobre un mismo libro */
+    private final Object[] isbnLocks;
+    
+    /** Bloqueos particionados por ID de usuario para altas, bajas y préstamos */
+    private final Object[] userLocks;
+    
+    /** Diario donde se registran las operaciones, o null si no se registran */
+    private volatile LibraryJournal journal;
+    
+    /** Generador de IDs de los préstamos nuevos */
+    private volatile LoanIdGenerator loanIdGenerator = Loan.defaultIdGenerator();
+    
+    /** Reloj del que se obtiene la fecha actual para préstamos, devoluciones y vencimientos */
+    private final LibraryClock clock;
 
     /**
      * Constructor que inicializa el servicio con colecciones vacías.
@@ -45,11 +113,127 @@ public class LibraryService {
      * eficiente del sistema de biblioteca.
      */
     public LibraryService() {
-        this.books = new HashMap<>();
-        this.users = new HashMap<>();
-        this.loans = new ArrayList<>();
-        this.activeLoansByIsbn = new HashMap<>();
-        this.loansByUser = new HashMap<>();
+        this(LibraryClock.system());
+    }
+
+    /**
+     * Constructor que inicializa el servicio con colecciones vacías y un reloj
+     * específico, por ejemplo un {@link SimulatedLibraryClock} para simular
+     * el paso de los días.
+     * 
+     * @param clock reloj que determina la fecha de préstamos, devoluciones y vencimientos
+     * @throws IllegalArgumentException si el reloj es null
+     */
+    public LibraryService(LibraryClock clock) {
+        this(clock, 0, 0);
+    }
+
+    /**
+     * Constructor que dimensiona los mapas del servicio para una cantidad
+     * esperada de libros y usuarios, por ejemplo antes de una carga masiva
+     * desde CSV. Evita que los mapas se redimensionen repetidamente mientras
+     * crecen; las cantidades son solo una estimación y no limitan el tamaño.
+     * 
+     * @param expectedBooks cantidad esperada de libros
+     * @param expectedUsers cantidad esperada de usuarios
+     * @throws IllegalArgumentException si alguna cantidad es negativa
+     */
+    public LibraryService(int expectedBooks, int expectedUsers) {
+        this(LibraryClock.system(), expectedBooks, expectedUsers);
+    }
+
+    /**
+     * Constructor que usa un reloj específico y dimensiona los mapas del
+     * servicio para una cantidad esperada de libros y usuarios.
+     * 
+     * @param clock reloj que determina la fecha de préstamos, devoluciones y vencimientos
+     * @param expectedBooks cantidad esperada de libros
+     * @param expectedUsers cantidad esperada de usuarios
+     * @throws IllegalArgumentException si el reloj es null o alguna cantidad es negativa
+     */
+    public LibraryService(LibraryClock clock, int expectedBooks, int expectedUsers) {
+        this(clock, expectedBooks, expectedUsers, 0);
+    }
+
+    /**
+     * Constructor que usa un reloj específico y dimensiona las colecciones del
+     * servicio para una cantidad esperada de libros, usuarios y préstamos,
+     * por ejemplo antes de una carga masiva cuyo tamaño se conoce. Las
+     * importaciones sobre un servicio ya creado no redimensionan sus mapas.
+     * 
+     * Las colas de reservas no se dimensionan: solo contienen los ISBN con
+     * reservas en espera, que una carga masiva no crea.
+     * 
+     * @param clock reloj que determina la fecha de préstamos, devoluciones y vencimientos
+     * @param expectedBooks cantidad esperada de libros
+     * @param expectedUsers cantidad esperada de usuarios
+     * @param expectedLoans cantidad esperada de préstamos
+     * @throws IllegalArgumentException si el reloj es null o alguna cantidad es negativa
+     */
+    public LibraryService(LibraryClock clock, int expectedBooks, int expectedUsers, int expectedLoans) {
+        if (clock == null) {
+            throw new IllegalArgumentException("El reloj no puede ser null");
+        }
+        if (expectedBooks < 0 || expectedUsers < 0 || expectedLoans < 0) {
+            throw new IllegalArgumentException("Las cantidades esperadas no pueden ser negativas");
+        }
+        this.clock = clock;
+        this.books = newMap(expectedBooks);
+        this.users = newMap(expectedUsers);
+        this.loans = Collections.synchronizedList(new ArrayList<>(expectedLoans));
+        this.loansById = newMap(expectedLoans);
+        this.activeLoansByIsbn = newMap(expectedBooks);
+        this.activeLoansByDueDate = new ConcurrentSkipListSet<>(DUE_DATE_ORDER);
+        this.loansByUser = newMap(expectedUsers);
+        this.holdsByIsbn = new ConcurrentHashMap<>();
+        this.titleIndex = new BookSearchIndex(Book::getTitle);
+        this.authorIndex = new BookSearchIndex(Book::getAuthor);
+        this.isbnLocks = createLocks();
+        this.userLocks = createLocks();
+    }
+
+    /**
+     * Asocia un diario donde se registrarán todas las operaciones que modifican
+     * el estado del servicio.
+     * 
+     * Cada operación se registra dentro del mismo bloqueo que la aplica, de modo
+     * que el orden del diario es coherente con el orden en que se aplicaron las
+     * operaciones sobre un mismo libro o usuario. El registro se agrega después
+     * de verificar la operación y antes de modificar el estado: si el diario
+     * falló o fue cerrado, la operación se rechaza con
+     * {@link java.io.UncheckedIOException} sin aplicarse, y desde entonces el
+     * servicio solo admite consultas.
+     * 
+     * @param journal diario de operaciones, o null para dejar de registrarlas
+     */
+    public void setJournal(LibraryJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Obtiene el reloj que usa el servicio para determinar la fecha actual.
+     * 
+     * @return reloj del servicio
+     */
+    public LibraryClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Reemplaza el generador de IDs de los préstamos nuevos.
+     * 
+     * Si el generador produce un ID ya registrado, el préstamo se descarta y se
+     * solicita otro ID, por lo que un generador con colisiones solo degrada el
+     * rendimiento. Por defecto se usa {@link Loan#defaultIdGenerator()}.
+     * 
+     * @param loanIdGenerator generador de IDs
+     * @throws IllegalArgumentException si el generador es null
+     */
+    public void setLoanIdGenerator(LoanIdGenerator loanIdGenerator) {
+        if (loanIdGenerator == null) {
+            throw new IllegalArgumentException("El generador de IDs no puede ser null");
+        }
+        this.loanIdGenerator = loanIdGenerator;
     }
 
     // ================================
@@ -69,16 +253,51 @@ public class LibraryService {
         if (!ValidationService.isValidBook(book)) {
             throw new IllegalArgumentException("Datos del libro invalidos");
         }
-        if (books.containsKey(book.getIsbn())) {
+        if (!insertBook(book)) {
             throw new IllegalArgumentException("Ya existe un libro con ISBN: " + book.getIsbn());
         }
+    }
+
+    /**
+     * Agrega un conjunto de libros al sistema en una sola operación.
+     * 
+     * A diferencia de {@link #addBook(Book)}, no lanza excepciones por registro:
+     * cada libro se clasifica como agregado, duplicado o inválido. La existencia
+     * del ISBN se verifica antes de validar, de modo que reimportar libros ya
+     * registrados no paga el costo de la validación.
+     * 
+     * @param newBooks libros a agregar
+     * @return cantidad de libros agregados, duplicados e inválidos
+     * @throws IllegalArgumentException si la colección es null
+     */
+    public BulkAddResult addBooks(Iterable<? extends Book> newBooks) {
+        if (newBooks == null) {
+            throw new IllegalArgumentException("La coleccion de libros no puede ser null");
+        }
         
-        books.put(book.getIsbn(), book);
+        BulkAddResult result = new BulkAddResult();
+        for (Book book : newBooks) {
+            if (book == null) {
+                result.invalid++;
+            } else if (books.containsKey(book.getIsbnKey())) {
+                result.duplicates++;
+            } else if (!ValidationService.isValidBook(book)) {
+                result.invalid++;
+            } else if (insertBook(book)) {
+                result.added++;
+            } else {
+                result.duplicates++;
+            }
+        }
+        return result;
     }
 
     /**
      * Busca un libro por su ISBN.
      * 
+     * El ISBN puede escribirse con o sin guiones y espacios, o como el ISBN-10
+     * equivalente: todas las escrituras encuentran el mismo libro.
+     * 
      * @param isbn el ISBN del libro a buscar
      * @return el libro encontrado, o null si no existe
      * @throws IllegalArgumentException si el ISBN es null o vacío
@@ -87,7 +306,7 @@ public class LibraryService {
         if (!ValidationService.isNotNullOrEmpty(isbn)) {
             throw new IllegalArgumentException("ISBN no puede ser null o vacio");
         }
-        return books.get(isbn.trim());
+        return books.get(Isbn.key(isbn));
     }
 
     /**
@@ -104,9 +323,7 @@ public class LibraryService {
         }
         
         String searchTerm = titleFragment.trim().toLowerCase();
-        return books.values().stream()
-                .filter(book -> book.getTitle().toLowerCase().contains(searchTerm))
-                .collect(Collectors.toList());
+        return titleIndex.search(searchTerm);
     }
 
     /**
@@ -123,9 +340,7 @@ public class LibraryService {
         }
         
         String searchTerm = authorFragment.trim().toLowerCase();
-        return books.values().stream()
-                .filter(book -> book.getAuthor().toLowerCase().contains(searchTerm))
-                .collect(Collectors.toList());
+        return authorIndex.search(searchTerm);
     }
 
     /**
@@ -137,6 +352,17 @@ public class LibraryService {
         return new ArrayList<>(books.values());
     }
 
+    /**
+     * Obtiene una vista de solo lectura de los libros del sistema, sin copiarlos.
+     * La vista refleja las modificaciones concurrentes y puede recorrerse mientras
+     * otros hilos agregan o eliminan libros.
+     * 
+     * @return vista de todos los libros
+     */
+    public Collection<Book> getBooksView() {
+        return Collections.unmodifiableCollection(books.values());
+    }
+
     /**
      * Obtiene todos los libros disponibles para préstamo.
      * 
@@ -162,12 +388,24 @@ public class LibraryService {
             return false;
         }
         
-        if (!book.isAvailable()) {
-            throw new BookAlreadyLoanedException(isbn, "No se puede eliminar un libro que esta prestado");
+        synchronized (lockForIsbn(book.getIsbnKey())) {
+            if (!book.isAvailable()) {
+                throw new BookAlreadyLoanedException(isbn, "No se puede eliminar un libro que esta prestado");
+            }
+            if (books.get(book.getIsbnKey()) != book) {
+                return false;
+            }
+            
+            LibraryJournal current = journal;
+            if (current != null) {
+                current.bookRemoved(book.getIsbn());
+            }
+            
+            books.remove(book.getIsbnKey(), book);
+            titleIndex.remove(book);
+            authorIndex.remove(book);
+            return true;
         }
-        
-        books.remove(isbn);
-        return true;
     }
 
     // ================================
@@ -189,12 +427,44 @@ public class LibraryService {
             throw new InvalidUserException(user.getId(), InvalidUserException.ErrorType.INVALID_DATA,
                                          "Datos del usuario invalidos");
         }
-        if (users.containsKey(user.getId())) {
+        
+        if (!insertUser(user)) {
             throw new InvalidUserException(user.getId(), InvalidUserException.ErrorType.USER_ALREADY_EXISTS);
         }
+    }
+
+    /**
+     * Agrega un conjunto de usuarios al sistema en una sola operación.
+     * 
+     * A diferencia de {@link #addUser(User)}, no lanza excepciones por registro:
+     * cada usuario se clasifica como agregado, duplicado o inválido. La existencia
+     * del ID se verifica antes de validar, de modo que reimportar usuarios ya
+     * registrados no paga el costo de la validación.
+     * 
+     * @param newUsers usuarios a agregar
+     * @return cantidad de usuarios agregados, duplicados e inválidos
+     * @throws IllegalArgumentException si la colección es null
+     */
+    public BulkAddResult addUsers(Iterable<? extends User> newUsers) {
+        if (newUsers == null) {
+            throw new IllegalArgumentException("La coleccion de usuarios no puede ser null");
+        }
         
-        users.put(user.getId(), user);
-        loansByUser.put(user.getId(), new ArrayList<>());
+        BulkAddResult result = new BulkAddResult();
+        for (User user : newUsers) {
+            if (user == null || user.getId() == null) {
+                result.invalid++;
+            } else if (users.containsKey(user.getId())) {
+                result.duplicates++;
+            } else if (!ValidationService.isValidUser(user)) {
+                result.invalid++;
+            } else if (insertUser(user)) {
+                result.added++;
+            } else {
+                result.duplicates++;
+            }
+        }
+        return result;
     }
 
     /**
@@ -218,6 +488,20 @@ public class LibraryService {
         return user;
     }
 
+    /**
+     * Busca un usuario por su ID sin lanzar excepciones.
+     * 
+     * A diferencia de {@link #findUserById(String)}, un ID ausente o con formato
+     * inválido no se distingue de uno no registrado: en ambos casos el costo es
+     * el de una búsqueda en el mapa de usuarios.
+     * 
+     * @param userId ID del usuario
+     * @return el usuario, o null si no existe o el ID es null
+     */
+    public User lookupUser(String userId) {
+        return userId != null ? users.get(userId.trim()) : null;
+    }
+
     /**
      * Obtiene todos los usuarios del sistema.
      * 
@@ -227,6 +511,16 @@ public class LibraryService {
         return new ArrayList<>(users.values());
     }
 
+    /**
+     * Obtiene una vista de solo lectura de los usuarios del sistema, sin copiarlos.
+     * La vista refleja las modificaciones concurrentes.
+     * 
+     * @return vista de todos los usuarios
+     */
+    public Collection<User> getUsersView() {
+        return Collections.unmodifiableCollection(users.values());
+    }
+
     /**
      * Busca usuarios por nombre.
      * La búsqueda es case-insensitive y busca coincidencias parciales.
@@ -254,19 +548,35 @@ public class LibraryService {
      * @throws InvalidUserException si el usuario tiene préstamos activos
      */
     public boolean removeUser(String userId) throws InvalidUserException {
-        User user = users.get(userId);
-        if (user == null) {
+        if (!ValidationService.isNotNullOrEmpty(userId)) {
             return false;
         }
         
-        List<Loan> userLoans = getUserActiveLoans(userId);
-        if (!userLoans.isEmpty()) {
-            throw new InvalidUserException(userId, InvalidUserException.ErrorType.USER_HAS_ACTIVE_LOANS);
+        String id = userId.trim();
+        User user = users.get(id);
+        if (user == null) {
+            return false;
         }
         
-        users.remove(userId);
-        loansByUser.remove(userId);
-        return true;
+        synchronized (lockForUser(id)) {
+            List<Loan> userLoans = getUserActiveLoans(id);
+            if (!userLoans.isEmpty()) {
+                throw new InvalidUserException(id, InvalidUserException.ErrorType.USER_HAS_ACTIVE_LOANS);
+            }
+            
+            if (users.get(id) != user) {
+                return false;
+            }
+            
+            LibraryJournal current = journal;
+            if (current != null) {
+                current.userRemoved(id);
+            }
+            
+            users.remove(id, user);
+            loansByUser.remove(id);
+            return true;
+        }
     }
 
     // ================================
@@ -285,31 +595,7 @@ public class LibraryService {
      */
     public Loan loanBook(String userId, String isbn) 
             throws InvalidUserException, BookNotFoundException, BookAlreadyLoanedException {
-        
-        // Validar usuario
-        User user = findUserById(userId);
-        
-        // Validar libro
-        Book book = findBookByIsbn(isbn);
-        if (book == null) {
-            throw new BookNotFoundException(isbn);
-        }
-        
-        // Verificar disponibilidad
-        if (!book.isAvailable()) {
-            String currentBorrower = getCurrentBorrower(isbn);
-            throw new BookAlreadyLoanedException(isbn, currentBorrower);
-        }
-        
-        // Crear préstamo
-        Loan loan = new Loan(user, book);
-        
-        // Actualizar estructuras de datos
-        loans.add(loan);
-        activeLoansByIsbn.put(isbn, loan);
-        loansByUser.get(userId).add(loan);
-        
-        return loan;
+        return createLoan(userId, isbn, Loan.DEFAULT_LOAN_DAYS);
     }
 
     /**
@@ -331,30 +617,44 @@ public class LibraryService {
             throw new IllegalArgumentException("Dias de prestamo invalidos: " + loanDays);
         }
         
-        // Validar usuario
-        User user = findUserById(userId);
-        
-        // Validar libro
-        Book book = findBookByIsbn(isbn);
-        if (book == null) {
-            throw new BookNotFoundException(isbn);
-        }
-        
-        // Verificar disponibilidad
-        if (!book.isAvailable()) {
-            String currentBorrower = getCurrentBorrower(isbn);
-            throw new BookAlreadyLoanedException(isbn, currentBorrower);
+        return createLoan(userId, isbn, loanDays);
+    }
+
+    /**
+     * Intenta prestar un libro sin lanzar excepciones por rechazos esperados.
+     * 
+     * @param userId ID del usuario que solicita el préstamo
+     * @param isbn ISBN del libro a prestar
+     * @return resultado con el préstamo creado o el motivo del rechazo
+     * @throws IllegalArgumentException si el ISBN es null o vacío
+     * @see #tryLoanBook(String, String, int)
+     */
+    public LoanResult tryLoanBook(String userId, String isbn) {
+        return attemptLoan(userId, isbn, Loan.DEFAULT_LOAN_DAYS);
+    }
+
+    /**
+     * Intenta prestar un libro con duración personalizada sin lanzar excepciones
+     * por rechazos esperados.
+     * 
+     * Aplica las mismas reglas que {@link #loanBook(String, String, int)}, pero
+     * un usuario inexistente, un libro inexistente o un libro ya prestado se
+     * informan con un resultado compartido en lugar de una excepción, de modo
+     * que un rechazo cuesta poco más que las búsquedas del usuario y del libro.
+     * 
+     * @param userId ID del usuario que solicita el préstamo
+     * @param isbn ISBN del libro a prestar
+     * @param loanDays duración del préstamo en días
+     * @return resultado con el préstamo creado o el motivo del rechazo
+     * @throws IllegalArgumentException si el ISBN es null o vacío, o si los días
+     *         de préstamo son inválidos
+     */
+    public LoanResult tryLoanBook(String userId, String isbn, int loanDays) {
+        if (!ValidationService.isValidLoanDays(loanDays)) {
+            throw new IllegalArgumentException("Dias de prestamo invalidos: " + loanDays);
         }
         
-        // Crear préstamo con duración personalizada
-        Loan loan = new Loan(user, book, loanDays);
-        
-        // Actualizar estructuras de datos
-        loans.add(loan);
-        activeLoansByIsbn.put(isbn, loan);
-        loansByUser.get(userId).add(loan);
-        
-        return loan;
+        return attemptLoan(userId, isbn, loanDays);
     }
 
     /**
@@ -373,13 +673,103 @@ public class LibraryService {
             throw new IllegalArgumentException("Prestamo con ID '" + loanId + "' no encontrado");
         }
         
-        if (!loan.isActive()) {
-            throw new IllegalArgumentException("El prestamo ya fue devuelto");
+        completeReturn(loan, clock.today());
+    }
+
+    /**
+     * Reserva un libro con la duración de préstamo por defecto.
+     * 
+     * @param userId ID del usuario que reserva el libro
+     * @param isbn ISBN del libro a reservar
+     * @return futuro que se completa con el préstamo cuando el libro se asigna al usuario
+     * @throws InvalidUserException si el usuario no existe o es inválido
+     * @throws BookNotFoundException si el libro no existe
+     * @see #reserveBook(String, String, int)
+     */
+    public CompletableFuture<Loan> reserveBook(String userId, String isbn) 
+            throws InvalidUserException, BookNotFoundException {
+        return reserveBook(userId, isbn, Loan.DEFAULT_LOAN_DAYS);
+    }
+
+    /**
+     * Reserva un libro con duración de préstamo personalizada.
+     * 
+     * Si el libro está disponible se presta de inmediato y el futuro devuelto ya
+     * está completo. Si está prestado, la reserva se agrega al final de la cola
+     * del ISBN y, cuando el libro se devuelve, se presta a la reserva más antigua
+     * sin pasar por la disponibilidad, de modo que ningún otro préstamo puede
+     * adelantarse. El futuro se completa fuera de los bloqueos del servicio, en
+     * el hilo que procesa la devolución; las acciones largas deben encadenarse
+     * con variantes asíncronas como {@link CompletableFuture#thenAcceptAsync}.
+     * 
+     * Una reserva se cancela con {@link CompletableFuture#cancel(boolean)} y se
+     * descarta al llegar su turno. Si al llegar su turno el usuario ya no está
+     * registrado, el futuro se completa con {@link InvalidUserException} y el
+     * libro pasa a la siguiente reserva. Las reservas solo existen en memoria;
+     * el préstamo que resulta de ellas sí se registra en el diario.
+     * 
+     * @param userId ID del usuario que reserva el libro
+     * @param isbn ISBN del libro a reservar
+     * @param loanDays duración del préstamo en días
+     * @return futuro que se completa con el préstamo cuando el libro se asigna al usuario
+     * @throws InvalidUserException si el usuario no existe o es inválido
+     * @throws BookNotFoundException si el libro no existe
+     * @throws IllegalArgumentException si los días de préstamo son inválidos
+     */
+    public CompletableFuture<Loan> reserveBook(String userId, String isbn, int loanDays) 
+            throws InvalidUserException, BookNotFoundException {
+        
+        if (!ValidationService.isValidLoanDays(loanDays)) {
+            throw new IllegalArgumentException("Dias de prestamo invalidos: " + loanDays);
+        }
+        
+        User user = findUserById(userId);
+        Book book = findBookByIsbn(isbn);
+        if (book == null) {
+            throw new BookNotFoundException(isbn);
         }
         
-        // Procesar devolución
-        loan.returnBook();
-        activeLoansByIsbn.remove(loan.getBook().getIsbn());
+        String bookIsbn = book.getIsbnKey();
+        synchronized (lockForIsbn(bookIsbn)) {
+            if (books.get(bookIsbn) != book) {
+                throw new BookNotFoundException(isbn);
+            }
+            
+            // Un libro disponible nunca tiene reservas pendientes: se presta de inmediato
+            if (book.isAvailable()) {
+                return CompletableFuture.completedFuture(registerLoan(user, book, loanDays));
+            }
+            
+            Hold hold = new Hold(user, loanDays);
+            holdsByIsbn.computeIfAbsent(bookIsbn, key -> new ArrayDeque<>()).add(hold);
+            return hold.future;
+        }
+    }
+
+    /**
+     * Obtiene el número de reservas pendientes de un libro.
+     * 
+     * @param isbn ISBN del libro
+     * @return número de reservas en espera que no han sido canceladas
+     */
+    public int getReservationCount(String isbn) {
+        if (!ValidationService.isNotNullOrEmpty(isbn)) {
+            return 0;
+        }
+        String bookIsbn = Isbn.key(isbn);
+        synchronized (lockForIsbn(bookIsbn)) {
+            ArrayDeque<Hold> queue = holdsByIsbn.get(bookIsbn);
+            if (queue == null) {
+                return 0;
+            }
+            int count = 0;
+            for (Hold hold : queue) {
+                if (!hold.future.isDone()) {
+                    count++;
+                }
+            }
+            return count;
+        }
     }
 
     /**
@@ -389,10 +779,23 @@ public class LibraryService {
      * @return el préstamo encontrado, o null si no existe
      */
     public Loan findLoanById(String loanId) {
-        return loans.stream()
-                .filter(loan -> loan.getLoanId().equals(loanId))
-                .findFirst()
-                .orElse(null);
+        if (loanId == null) {
+            return null;
+        }
+        return loansById.get(loanId);
+    }
+
+    /**
+     * Busca el préstamo activo de un libro.
+     * 
+     * @param isbn ISBN del libro, en cualquiera de sus escrituras
+     * @return el préstamo activo del libro, o null si el libro no existe o está disponible
+     */
+    public Loan findActiveLoanByIsbn(String isbn) {
+        if (isbn == null) {
+            return null;
+        }
+        return activeLoansByIsbn.get(Isbn.key(isbn));
     }
 
     /**
@@ -403,10 +806,10 @@ public class LibraryService {
      * @throws InvalidUserException si el usuario no existe
      */
     public List<Loan> getUserLoans(String userId) throws InvalidUserException {
-        if (!users.containsKey(userId)) {
+        if (!ValidationService.isNotNullOrEmpty(userId) || !users.containsKey(userId.trim())) {
             throw new InvalidUserException(userId, InvalidUserException.ErrorType.USER_NOT_FOUND);
         }
-        return new ArrayList<>(loansByUser.getOrDefault(userId, new ArrayList<>()));
+        return new ArrayList<>(loansByUser.getOrDefault(userId.trim(), new ArrayList<>()));
     }
 
     /**
@@ -416,31 +819,58 @@ public class LibraryService {
      * @return lista de préstamos activos del usuario
      */
     public List<Loan> getUserActiveLoans(String userId) {
-        return loansByUser.getOrDefault(userId, new ArrayList<>()).stream()
+        if (!ValidationService.isNotNullOrEmpty(userId)) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(loansByUser.getOrDefault(userId.trim(), new ArrayList<>())).stream()
                 .filter(Loan::isActive)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Obtiene todos los préstamos activos en el sistema.
+     * Obtiene todos los préstamos activos en el sistema,
+     * ordenados por fecha de vencimiento.
      * 
      * @return lista de préstamos activos
      */
     public List<Loan> getActiveLoans() {
-        return loans.stream()
-                .filter(Loan::isActive)
-                .collect(Collectors.toList());
+        return new ArrayList<>(activeLoansByDueDate);
+    }
+
+    /**
+     * Obtiene una vista de solo lectura de los préstamos activos ordenados por
+     * fecha de vencimiento, sin copiarlos. La vista refleja las modificaciones concurrentes.
+     * 
+     * @return vista de los préstamos activos
+     */
+    public Collection<Loan> getActiveLoansView() {
+        return Collections.unmodifiableCollection(activeLoansByDueDate);
     }
 
     /**
-     * Obtiene todos los préstamos vencidos en el sistema.
+     * Obtiene todos los préstamos vencidos en el sistema,
+     * ordenados por fecha de vencimiento.
      * 
      * @return lista de préstamos vencidos
      */
     public List<Loan> getOverdueLoans() {
-        return loans.stream()
-                .filter(Loan::isOverdue)
-                .collect(Collectors.toList());
+        List<Loan> overdue = new ArrayList<>();
+        overdueLoansIterator().forEachRemaining(overdue::add);
+        return overdue;
+    }
+
+    /**
+     * Obtiene un cursor sobre los préstamos vencidos, del más antiguo al más reciente.
+     * 
+     * El cursor recorre solo el prefijo vencido del índice por fecha de vencimiento
+     * y no materializa una lista, por lo que permite mostrar los resultados a medida
+     * que se leen. Es débilmente consistente: refleja préstamos y devoluciones
+     * concurrentes que ocurran durante el recorrido sin lanzar excepciones.
+     * 
+     * @return iterador sobre los préstamos vencidos a la fecha actual
+     */
+    public Iterator<Loan> overdueLoansIterator() {
+        return new OverdueLoanCursor(activeLoansByDueDate.iterator(), clock.today());
     }
 
     /**
@@ -452,10 +882,612 @@ public class LibraryService {
         return new ArrayList<>(loans);
     }
 
+    // ================================
+    // RECONSTRUCCIÓN DE ESTADO
+    // ================================
+
+    /**
+     * Registra un conjunto de préstamos reconstruidos con {@link Loan#restore},
+     * por ejemplo a partir de un historial exportado.
+     * 
+     * Cada préstamo se clasifica como agregado, duplicado (ID ya registrado) o
+     * inválido: préstamo activo cuyo libro o usuario no está registrado, o cuyo
+     * libro ya está prestado. Los préstamos agregados actualizan los índices por
+     * ISBN, por usuario y por fecha de vencimiento, y se registran en el diario.
+     * 
+     * @param restored préstamos a registrar
+     * @return cantidad de préstamos agregados, duplicados e inválidos
+     * @throws IllegalArgumentException si la colección es null
+     */
+    public BulkAddResult restoreLoans(Iterable<? extends Loan> restored) {
+        if (restored == null) {
+            throw new IllegalArgumentException("La coleccion de prestamos no puede ser null");
+        }
+        
+        BulkAddResult result = new BulkAddResult();
+        for (Loan loan : restored) {
+            if (loan == null) {
+                result.invalid++;
+            } else if (loansById.containsKey(loan.getLoanId())) {
+                result.duplicates++;
+            } else {
+                try {
+                    if (restoreLoan(loan)) {
+                        result.added++;
+                    } else {
+                        result.duplicates++;
+                    }
+                } catch (IllegalArgumentException e) {
+                    result.invalid++;
+                }
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Registra un libro ya validado a partir de datos persistidos.
+     * 
+     * @param book libro a registrar
+     * @return true si se registró, false si ya existía un libro con el mismo ISBN
+     */
+    boolean restoreBook(Book book) {
+        return insertBook(book);
+    }
+
+    /**
+     * Registra un usuario ya validado a partir de datos persistidos.
+     * 
+     * @param user usuario a registrar
+     * @return true si se registró, false si ya existía un usuario con el mismo ID
+     */
+    boolean restoreUser(User user) {
+        return insertUser(user);
+    }
+
+    /**
+     * Registra un préstamo reconstruido a partir de datos persistidos, como el
+     * diario de operaciones, conservando su ID y sus fechas.
+     * 
+     * Si el préstamo está activo, el libro y el usuario deben estar registrados
+     * y el libro queda marcado como prestado. Un préstamo devuelto puede referirse
+     * a un libro o usuario que ya fue eliminado; en ese caso solo se agrega al
+     * historial, igual que ocurre con los préstamos de un libro o usuario eliminado.
+     * 
+     * @param loan préstamo reconstruido con {@link Loan#restore}
+     * @return true si se registró, false si ya existía un préstamo con el mismo ID
+     * @throws IllegalArgumentException si el préstamo está activo y el libro o el
+     *         usuario no están registrados, o el libro ya está prestado
+     */
+    boolean restoreLoan(Loan loan) {
+        Book book = loan.getBook();
+        User user = loan.getUser();
+        String bookIsbn = book.getIsbnKey();
+        
+        synchronized (lockForIsbn(bookIsbn)) {
+            if (loan.isActive() && books.get(bookIsbn) != book) {
+                throw new IllegalArgumentException("Libro no registrado: " + bookIsbn);
+            }
+            if (loan.isActive() && !book.isAvailable()) {
+                throw new IllegalArgumentException("El libro ya esta prestado: " + bookIsbn);
+            }
+            
+            synchronized (lockForUser(user.getId())) {
+                List<Loan> userLoans = users.get(user.getId()) == user ? loansByUser.get(user.getId()) : null;
+                if (userLoans == null && loan.isActive()) {
+                    throw new IllegalArgumentException("Usuario no registrado: " + user.getId());
+                }
+                if (loansById.putIfAbsent(loan.getLoanId(), loan) != null) {
+                    return false;
+                }
+                journalLoan(loan);
+                
+                loans.add(loan);
+                if (userLoans != null) {
+                    userLoans.add(loan);
+                }
+                if (loan.isActive()) {
+                    book.setAvailable(false);
+                    activeLoansByIsbn.put(bookIsbn, loan);
+                    indexActiveLoan(loan);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Registra la devolución de un préstamo en la fecha indicada, a partir de
+     * datos persistidos.
+     * 
+     * Si el préstamo ya figura devuelto en esa misma fecha, la devolución ya
+     * estaba incluida en los datos cargados (por ejemplo, en una instantánea
+     * escrita después de la devolución) y no se aplica de nuevo.
+     * 
+     * @param loanId ID del préstamo devuelto
+     * @param returnDate fecha de la devolución
+     * @throws IllegalArgumentException si el préstamo no existe o ya fue devuelto en otra fecha
+     */
+    void restoreReturn(String loanId, LocalDate returnDate) {
+        Loan loan = findLoanById(loanId);
+        if (loan == null) {
+            throw new IllegalArgumentException("Prestamo con ID '" + loanId + "' no encontrado");
+        }
+        if (!loan.isActive() && returnDate.equals(loan.getReturnDate())) {
+            return;
+        }
+        completeReturn(loan, returnDate);
+    }
+
+    /**
+     * Captura el estado necesario para escribir una instantánea.
+     * 
+     * Adquiere todos los bloqueos particionados, en el mismo orden que las
+     * operaciones (primero los de ISBN y luego los de usuario), de modo que
+     * ninguna operación queda a medio aplicar. Mientras tanto cambia el diario
+     * a un segmento nuevo y copia las referencias a los libros y usuarios
+     * registrados junto con el número de préstamos. No copia los préstamos: la
+     * lista solo crece por el final, así que sus primeros elementos pueden leerse
+     * después con {@link #getLoansRange(int, int)} sin detener las operaciones.
+     * 
+     * La sincronización con el disco del segmento anterior del diario se espera
+     * recién después de liberar los bloqueos.
+     * 
+     * @param journal diario a cambiar de segmento, o null si no hay diario
+     * @return estado capturado
+     * @throws IOException si el diario no puede cambiar de segmento o el segmento
+     *         anterior no puede sincronizarse
+     */
+    CapturedState captureState(LibraryJournal journal) throws IOException {
+        CapturedState state = captureWithLocks(0, journal);
+        if (journal != null) {
+            journal.closeRetiredSegment();
+        }
+        return state;
+    }
+
+    /**
+     * Obtiene el número de préstamos del historial. La lista solo crece por el
+     * final, así que las posiciones menores al valor devuelto pueden leerse
+     * después con {@link #getLoansRange(int, int)}.
+     * 
+     * @return número de préstamos registrados
+     */
+    int getLoanCount() {
+        return loans.size();
+    }
+
+    /**
+     * Obtiene una copia de un rango de la lista de préstamos, en orden de registro.
+     * 
+     * @param from posición inicial
+     * @param to posición final exclusiva
+     * @return préstamos del rango
+     */
+    List<Loan> getLoansRange(int from, int to) {
+        synchronized (loans) {
+            return new ArrayList<>(loans.subList(from, to));
+        }
+    }
+
     // ================================
     // MÉTODOS DE UTILIDAD PRIVADOS
     // ================================
 
+    /**
+     * Registra un libro ya validado y lo agrega a los índices de búsqueda.
+     * 
+     * @param book libro a registrar
+     * @return true si se registró, false si ya existía un libro con el mismo ISBN
+     */
+    private boolean insertBook(Book book) {
+        synchronized (lockForIsbn(book.getIsbnKey())) {
+            if (books.containsKey(book.getIsbnKey())) {
+                return false;
+            }
+            
+            LibraryJournal current = journal;
+            if (current != null) {
+                current.bookAdded(book);
+            }
+            
+            books.put(book.getIsbnKey(), book);
+            titleIndex.add(book);
+            authorIndex.add(book);
+            return true;
+        }
+    }
+
+    /**
+     * Registra un usuario ya validado junto con su lista de préstamos.
+     * 
+     * @param user usuario a registrar
+     * @return true si se registró, false si ya existía un usuario con el mismo ID
+     */
+    private boolean insertUser(User user) {
+        synchronized (lockForUser(user.getId())) {
+            if (users.containsKey(user.getId())) {
+                return false;
+            }
+            
+            LibraryJournal current = journal;
+            if (current != null) {
+                current.userAdded(user);
+            }
+            
+            loansByUser.put(user.getId(), Collections.synchronizedList(new ArrayList<>()));
+            users.put(user.getId(), user);
+            return true;
+        }
+    }
+
+    /**
+     * Crea y registra un préstamo, convirtiendo los rechazos en excepciones.
+     * 
+     * @param userId ID del usuario que solicita el préstamo
+     * @param isbn ISBN del libro a prestar
+     * @param loanDays duración del préstamo en días
+     * @return el préstamo creado
+     * @throws InvalidUserException si el usuario no existe o es inválido
+     * @throws BookNotFoundException si el libro no existe
+     * @throws BookAlreadyLoanedException si el libro ya está prestado
+     */
+    private Loan createLoan(String userId, String isbn, int loanDays) 
+            throws InvalidUserException, BookNotFoundException, BookAlreadyLoanedException {
+        
+        LoanResult result = attemptLoan(userId, isbn, loanDays);
+        switch (result.getStatus()) {
+            case LOANED:
+                return result.getLoan();
+            case INVALID_USER:
+                throw new InvalidUserException(userId, InvalidUserException.ErrorType.INVALID_DATA,
+                                             "ID de usuario invalido");
+            case USER_NOT_FOUND:
+                throw new InvalidUserException(userId, InvalidUserException.ErrorType.USER_NOT_FOUND);
+            case BOOK_NOT_FOUND:
+                throw new BookNotFoundException(isbn);
+            case BOOK_ALREADY_LOANED:
+                // El préstamo pudo devolverse desde el rechazo
+                String currentBorrower = getCurrentBorrower(Isbn.key(isbn));
+                throw currentBorrower != null
+                        ? new BookAlreadyLoanedException(isbn, currentBorrower)
+                        : new BookAlreadyLoanedException(isbn);
+            default:
+                throw new IllegalStateException("Resultado de prestamo desconocido: " + result.getStatus());
+        }
+    }
+
+    /**
+     * Intenta crear y registrar un préstamo.
+     * 
+     * La verificación de disponibilidad y el registro del préstamo se realizan
+     * bajo el bloqueo del ISBN, por lo que un mismo libro nunca puede prestarse
+     * dos veces aunque varios hilos lo soliciten simultáneamente. Los rechazos
+     * se informan con los resultados compartidos de {@link LoanResult}, sin
+     * crear objetos.
+     * 
+     * @param userId ID del usuario que solicita el préstamo
+     * @param isbn ISBN del libro a prestar
+     * @param loanDays duración del préstamo en días
+     * @return resultado con el préstamo creado o el motivo del rechazo
+     * @throws IllegalArgumentException si el ISBN es null o vacío
+     */
+    private LoanResult attemptLoan(String userId, String isbn, int loanDays) {
+        // Validar usuario
+        if (!ValidationService.isValidUserId(userId)) {
+            return LoanResult.INVALID_USER;
+        }
+        User user = users.get(userId.trim());
+        if (user == null) {
+            return LoanResult.USER_NOT_FOUND;
+        }
+        
+        // Validar libro
+        Book book = findBookByIsbn(isbn);
+        if (book == null) {
+            return LoanResult.BOOK_NOT_FOUND;
+        }
+        
+        String bookIsbn = book.getIsbnKey();
+        synchronized (lockForIsbn(bookIsbn)) {
+            // El libro pudo ser eliminado mientras se esperaba el bloqueo
+            if (books.get(bookIsbn) != book) {
+                return LoanResult.BOOK_NOT_FOUND;
+            }
+            
+            // Verificar disponibilidad
+            if (!book.isAvailable()) {
+                return LoanResult.BOOK_ALREADY_LOANED;
+            }
+            
+            try {
+                return new LoanResult(LoanResult.Status.LOANED, registerLoan(user, book, loanDays));
+            } catch (InvalidUserException e) {
+                // El usuario fue eliminado mientras se esperaba el bloqueo
+                return LoanResult.USER_NOT_FOUND;
+            }
+        }
+    }
+
+    /**
+     * Registra un préstamo nuevo de un libro disponible. El llamador debe
+     * mantener el bloqueo del ISBN del libro.
+     * 
+     * @param user usuario que recibe el préstamo
+     * @param book libro a prestar
+     * @param loanDays duración del préstamo en días
+     * @return el préstamo creado
+     * @throws InvalidUserException si el usuario ya no está registrado
+     */
+    private Loan registerLoan(User user, Book book, int loanDays) throws InvalidUserException {
+        String bookIsbn = book.getIsbnKey();
+        synchronized (lockForUser(user.getId())) {
+            List<Loan> userLoans = loansByUser.get(user.getId());
+            if (userLoans == null || users.get(user.getId()) != user) {
+                throw new InvalidUserException(user.getId(), InvalidUserException.ErrorType.USER_NOT_FOUND);
+            }
+            
+            // Crear préstamo, descartando IDs que ya estén en uso; el libro se
+            // marca como prestado recién después de registrarlo en el diario
+            LoanIdGenerator generator = loanIdGenerator;
+            LocalDate today = clock.today();
+            LocalDate dueDate = today.plusDays(loanDays);
+            Loan loan = Loan.restore(generator.nextLoanId(), user, book, today, dueDate, null);
+            while (loansById.putIfAbsent(loan.getLoanId(), loan) != null) {
+                loan = Loan.restore(generator.nextLoanId(), user, book, today, dueDate, null);
+            }
+            journalLoan(loan);
+            
+            // Actualizar estructuras de datos
+            book.setAvailable(false);
+            loans.add(loan);
+            activeLoansByIsbn.put(bookIsbn, loan);
+            indexActiveLoan(loan);
+            userLoans.add(loan);
+            return loan;
+        }
+    }
+
+    /**
+     * Registra en el diario un préstamo cuyo ID ya fue reservado en
+     * {@code loansById}, antes de agregarlo al resto de las estructuras. Si el
+     * diario rechaza el registro, libera el ID para que el préstamo no quede
+     * registrado a medias. El llamador debe mantener los bloqueos del ISBN y
+     * del usuario.
+     * 
+     * @param loan préstamo a registrar
+     * @throws java.io.UncheckedIOException si el diario falló o fue cerrado
+     */
+    private void journalLoan(Loan loan) {
+        LibraryJournal current = journal;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.loanCreated(loan);
+            if (!loan.isActive()) {
+                current.loanReturned(loan.getLoanId(), loan.getReturnDate());
+            }
+        } catch (RuntimeException e) {
+            loansById.remove(loan.getLoanId(), loan);
+            throw e;
+        }
+    }
+
+    /**
+     * Procesa la devolución de un préstamo bajo el bloqueo de su ISBN.
+     * 
+     * @param loan préstamo a devolver
+     * @param returnDate fecha de la devolución
+     * @throws IllegalArgumentException si el préstamo ya fue devuelto
+     */
+    private void completeReturn(Loan loan, LocalDate returnDate) {
+        while (loan != null) {
+            Handoff handoff;
+            String bookIsbn = loan.getBook().getIsbnKey();
+            synchronized (lockForIsbn(bookIsbn)) {
+                if (!loan.isActive()) {
+                    throw new IllegalArgumentException("El prestamo ya fue devuelto");
+                }
+                
+                LibraryJournal current = journal;
+                if (current != null) {
+                    current.loanReturned(loan.getLoanId(), returnDate);
+                }
+                
+                // Procesar devolución
+                loan.returnBook(returnDate);
+                activeLoansByIsbn.remove(bookIsbn, loan);
+                unindexActiveLoan(loan);
+                
+                handoff = handOver(loan.getBook());
+            }
+            
+            // Completar los futuros fuera del bloqueo; si la reserva se canceló
+            // después de asignarle el libro, el préstamo se devuelve de inmediato
+            loan = handoff != null ? handoff.deliver() : null;
+        }
+    }
+
+    /**
+     * Presta un libro recién devuelto a la reserva pendiente más antigua de su ISBN.
+     * El llamador debe mantener el bloqueo del ISBN. Las reservas canceladas se
+     * descartan y las de usuarios que ya no están registrados se rechazan, igual
+     * que la reserva cuyo préstamo rechaza el diario.
+     * 
+     * @param book libro devuelto
+     * @return entrega pendiente de completar fuera del bloqueo, o null si no había reservas
+     */
+    private Handoff handOver(Book book) {
+        String bookIsbn = book.getIsbnKey();
+        ArrayDeque<Hold> queue = holdsByIsbn.get(bookIsbn);
+        if (queue == null) {
+            return null;
+        }
+        
+        Handoff handoff = new Handoff();
+        Hold hold;
+        while ((hold = queue.poll()) != null) {
+            if (hold.future.isDone()) {
+                continue;
+            }
+            try {
+                handoff.hold = hold;
+                handoff.loan = registerLoan(hold.user, book, hold.loanDays);
+                break;
+            } catch (InvalidUserException e) {
+                handoff.hold = null;
+                handoff.reject(hold, e);
+            } catch (UncheckedIOException e) {
+                // El diario rechazó el préstamo: la devolución ya quedó registrada
+                // y el libro queda disponible; las demás reservas siguen en espera
+                handoff.hold = null;
+                handoff.reject(hold, e);
+                break;
+            }
+        }
+        if (queue.isEmpty()) {
+            holdsByIsbn.remove(bookIsbn, queue);
+        }
+        return handoff;
+    }
+
+    /**
+     * Agrega un préstamo al índice por fecha de vencimiento, manteniendo
+     * el contador de préstamos vencidos.
+     * 
+     * @param loan préstamo activo a indexar
+     */
+    private void indexActiveLoan(Loan loan) {
+        synchronized (overdueLock) {
+            activeLoansByDueDate.add(loan);
+            if (overdueCountDate != null && overdueCountDate.isAfter(loan.getDueDate())) {
+                overdueCount++;
+            }
+        }
+    }
+
+    /**
+     * Quita un préstamo del índice por fecha de vencimiento, manteniendo
+     * el contador de préstamos vencidos.
+     * 
+     * @param loan préstamo devuelto
+     */
+    private void unindexActiveLoan(Loan loan) {
+        synchronized (overdueLock) {
+            if (activeLoansByDueDate.remove(loan)
+                    && overdueCountDate != null && overdueCountDate.isAfter(loan.getDueDate())) {
+                overdueCount--;
+            }
+        }
+    }
+
+    /**
+     * Obtiene el número de préstamos vencidos a la fecha actual.
+     * 
+     * El contador se mantiene al prestar y devolver; solo cuando cambia el día
+     * se recalcula recorriendo el prefijo vencido del índice por fecha de vencimiento.
+     * 
+     * @return número de préstamos vencidos
+     */
+    private int countOverdueLoans() {
+        LocalDate today = clock.today();
+        synchronized (overdueLock) {
+            if (!today.equals(overdueCountDate)) {
+                int count = 0;
+                for (Loan loan : activeLoansByDueDate) {
+                    if (!today.isAfter(loan.getDueDate())) {
+                        break;
+                    }
+                    count++;
+                }
+                overdueCount = count;
+                overdueCountDate = today;
+            }
+            return overdueCount;
+        }
+    }
+
+    /**
+     * Adquiere recursivamente todos los bloqueos particionados y captura el estado.
+     * 
+     * @param index índice del siguiente bloqueo a adquirir
+     * @param journal diario a cambiar de segmento, o null si no hay diario
+     * @return estado capturado
+     * @throws IOException si el diario no puede cambiar de segmento
+     */
+    private CapturedState captureWithLocks(int index, LibraryJournal journal) throws IOException {
+        if (index < LOCK_STRIPES) {
+            synchronized (isbnLocks[index]) {
+                return captureWithLocks(index + 1, journal);
+            }
+        }
+        if (index < 2 * LOCK_STRIPES) {
+            synchronized (userLocks[index - LOCK_STRIPES]) {
+                return captureWithLocks(index + 1, journal);
+            }
+        }
+        
+        long generation = journal != null ? journal.rotate() : 0;
+        return new CapturedState(generation, new ArrayList<>(books.values()),
+                                 new ArrayList<>(users.values()), loans.size());
+    }
+
+    /**
+     * Crea un mapa concurrente dimensionado para una cantidad esperada de elementos.
+     * 
+     * @param expected cantidad esperada de elementos, o 0 para la capacidad por defecto
+     * @return mapa vacío
+     */
+    private static <K, V> Map<K, V> newMap(int expected) {
+        return expected == 0 ? new ConcurrentHashMap<>() : new ConcurrentHashMap<>(expected);
+    }
+
+    /**
+     * Crea el arreglo de objetos usados como bloqueos particionados.
+     * 
+     * @return arreglo de bloqueos
+     */
+    private static Object[] createLocks() {
+        Object[] locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    /**
+     * Obtiene el bloqueo correspondiente a un ISBN.
+     * 
+     * @param isbn ISBN del libro
+     * @return objeto de bloqueo de la partición del ISBN
+     */
+    private Object lockForIsbn(String isbn) {
+        return isbnLocks[stripe(isbn)];
+    }
+
+    /**
+     * Obtiene el bloqueo correspondiente a un ID de usuario.
+     * 
+     * @param userId ID del usuario
+     * @return objeto de bloqueo de la partición del usuario
+     */
+    private Object lockForUser(String userId) {
+        return userLocks[stripe(userId)];
+    }
+
+    /**
+     * Calcula la partición de bloqueo para una clave.
+     * 
+     * @param key clave a particionar
+     * @return índice de la partición
+     */
+    private static int stripe(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (LOCK_STRIPES - 1);
+    }
+
     /**
      * Obtiene el ID del usuario que actualmente tiene prestado un libro.
      * 
@@ -467,6 +1499,100 @@ public class LibraryService {
         return activeLoan != null ? activeLoan.getUser().getId() : null;
     }
 
+    /**
+     * Reserva pendiente de un libro prestado.
+     */
+    private static final class Hold {
+        private final User user;
+        private final int loanDays;
+        private final CompletableFuture<Loan> future = new CompletableFuture<>();
+
+        Hold(User user, int loanDays) {
+            this.user = user;
+            this.loanDays = loanDays;
+        }
+    }
+
+    /**
+     * Resultado de asignar un libro devuelto a las reservas de su ISBN, cuyos
+     * futuros se completan después de liberar el bloqueo.
+     */
+    private static final class Handoff {
+        private Hold hold;
+        private Loan loan;
+        private List<Hold> rejected;
+        private List<Exception> errors;
+
+        void reject(Hold hold, Exception error) {
+            if (rejected == null) {
+                rejected = new ArrayList<>();
+                errors = new ArrayList<>();
+            }
+            rejected.add(hold);
+            errors.add(error);
+        }
+
+        /**
+         * Completa los futuros de las reservas atendidas.
+         * 
+         * @return el préstamo asignado si su reserva fue cancelada entretanto, o null
+         */
+        Loan deliver() {
+            if (rejected != null) {
+                for (int i = 0; i < rejected.size(); i++) {
+                    rejected.get(i).future.completeExceptionally(errors.get(i));
+                }
+            }
+            if (hold == null || hold.future.complete(loan)) {
+                return null;
+            }
+            return loan;
+        }
+    }
+
+    /**
+     * Cursor sobre el prefijo vencido del índice de préstamos por fecha de vencimiento.
+     * Se detiene en el primer préstamo que aún no vence.
+     */
+    private static final class OverdueLoanCursor implements Iterator<Loan> {
+        private final Iterator<Loan> source;
+        private final LocalDate today;
+        private Loan next;
+        private boolean finished;
+
+        OverdueLoanCursor(Iterator<Loan> source, LocalDate today) {
+            this.source = source;
+            this.today = today;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !finished) {
+                if (!source.hasNext()) {
+                    finished = true;
+                    break;
+                }
+                Loan candidate = source.next();
+                if (!today.isAfter(candidate.getDueDate())) {
+                    finished = true;
+                } else if (candidate.isActive()) {
+                    next = candidate;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Loan next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Loan result = next;
+            next = null;
+            return result;
+        }
+    }
+
     // ================================
     // MÉTODOS DE ESTADÍSTICAS
     // ================================
@@ -474,19 +1600,141 @@ public class LibraryService {
     /**
      * Obtiene estadísticas generales del sistema.
      * 
+     * El costo no depende del volumen de datos: los totales provienen de los
+     * contadores que mantienen las colecciones concurrentes, los libros prestados
+     * coinciden con los préstamos activos por ISBN, y los vencidos se obtienen
+     * del contador incremental asociado al índice por fecha de vencimiento.
+     * 
      * @return mapa con estadísticas del sistema
      */
     public Map<String, Object> getSystemStatistics() {
         Map<String, Object> stats = new HashMap<>();
         
-        stats.put("totalBooks", books.size());
-        stats.put("availableBooks", getAvailableBooks().size());
-        stats.put("loanedBooks", books.size() - getAvailableBooks().size());
+        int totalBooks = books.size();
+        int activeLoans = activeLoansByIsbn.size();
+        
+        stats.put("totalBooks", totalBooks);
+        stats.put("availableBooks", totalBooks - activeLoans);
+        stats.put("loanedBooks", activeLoans);
         stats.put("totalUsers", users.size());
-        stats.put("totalLoans", loans.size());
-        stats.put("activeLoans", getActiveLoans().size());
-        stats.put("overdueLoans", getOverdueLoans().size());
+        stats.put("totalLoans", loansById.size());
+        stats.put("activeLoans", activeLoans);
+        stats.put("overdueLoans", countOverdueLoans());
         
         return stats;
     }
+
+    // ================================
+    // CLASES DE RESULTADO
+    // ================================
+
+    /**
+     * Estado capturado en un punto coherente para escribir una instantánea.
+     */
+    static final class CapturedState {
+        private final long generation;
+        private final List<Book> books;
+        private final List<User> users;
+        private final int loanCount;
+
+        CapturedState(long generation, List<Book> books, List<User> users, int loanCount) {
+            this.generation = generation;
+            this.books = books;
+            this.users = users;
+            this.loanCount = loanCount;
+        }
+
+        // Getters
+        long getGeneration() { return generation; }
+        List<Book> getBooks() { return books; }
+        List<User> getUsers() { return users; }
+        int getLoanCount() { return loanCount; }
+    }
+
+    /**
+     * Representa el resultado de un intento de préstamo.
+     * 
+     * Los rechazos se representan con instancias compartidas e inmutables, una
+     * por cada motivo, por lo que pueden compararse por identidad.
+     */
+    public static final class LoanResult {
+
+        /**
+         * Enumeración que define los resultados posibles de un préstamo.
+         */
+        public enum Status {
+            /** El préstamo fue creado */
+            LOANED,
+            /** El ID de usuario es null, vacío o tiene formato inválido */
+            INVALID_USER,
+            /** El usuario no está registrado */
+            USER_NOT_FOUND,
+            /** El libro no está registrado */
+            BOOK_NOT_FOUND,
+            /** El libro ya está prestado */
+            BOOK_ALREADY_LOANED
+        }
+
+        /** Rechazo por ID de usuario inválido */
+        public static final LoanResult INVALID_USER = new LoanResult(Status.INVALID_USER, null);
+
+        /** Rechazo por usuario no registrado */
+        public static final LoanResult USER_NOT_FOUND = new LoanResult(Status.USER_NOT_FOUND, null);
+
+        /** Rechazo por libro no registrado */
+        public static final LoanResult BOOK_NOT_FOUND = new LoanResult(Status.BOOK_NOT_FOUND, null);
+
+        /** Rechazo por libro ya prestado */
+        public static final LoanResult BOOK_ALREADY_LOANED = new LoanResult(Status.BOOK_ALREADY_LOANED, null);
+
+        private final Status status;
+        private final Loan loan;
+
+        private LoanResult(Status status, Loan loan) {
+            this.status = status;
+            this.loan = loan;
+        }
+
+        // Getters
+        public Status getStatus() { return status; }
+        public Loan getLoan() { return loan; }
+        public boolean isLoaned() { return status == Status.LOANED; }
+
+        @Override
+        public String toString() {
+            switch (status) {
+                case LOANED:
+                    return "Prestamo creado: " + loan.getLoanId();
+                case INVALID_USER:
+                    return "ID de usuario invalido";
+                case USER_NOT_FOUND:
+                    return "Usuario no encontrado";
+                case BOOK_NOT_FOUND:
+                    return "Libro no encontrado";
+                case BOOK_ALREADY_LOANED:
+                    return "El libro ya esta prestado";
+                default:
+                    return status.name();
+            }
+        }
+    }
+
+    /**
+     * Representa el resultado de una operación de alta masiva.
+     */
+    public static class BulkAddResult {
+        private int added;
+        private int duplicates;
+        private int invalid;
+
+        // Getters
+        public int getAddedCount() { return added; }
+        public int getDuplicateCount() { return duplicates; }
+        public int getInvalidCount() { return invalid; }
+
+        @Override
+        public String toString() {
+            return String.format("%d agregados, %d duplicados, %d invalidos", added, duplicates, invalid);
+        }
+    }
 }
\ No newline at end of file
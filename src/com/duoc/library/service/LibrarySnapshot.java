@@ -0,0 +1,739 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.service;
+
+import com.duoc.library.model.*;
+import com.duoc.library.util.AtomicFiles;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Instantáneas binarias del estado de {@link LibraryService}.
+ *
+ * Una instantánea guarda los libros y usuarios registrados y todos los
+ * préstamos, activos e históricos, junto con el número del segmento del
+ * {@link LibraryJournal} que comienza después de ella. Al reiniciar,
+ * {@link #restore(LibraryService, String, String)} carga la instantánea y
+ * reproduce solo los segmentos posteriores, en lugar de todo el historial.
+ *
+ * Formato del archivo:
+ * <pre>
+ *   [int firma][int versión][long segmento]
+ *   [int libros]  libros registrados: ISBN, título, autor
+ *   [int usuarios] usuarios registrados: ID, nombre, correo
+ *   [int préstamos] por préstamo: ID, usuario, libro, fecha de préstamo,
+ *                   días hasta el vencimiento, devolución
+ *   [int CRC32C de todo lo anterior]
+ * </pre>
+ * Los préstamos se refieren a libros y usuarios por su posición en las tablas;
+ * un libro o usuario ya eliminado se define en línea la primera vez que aparece.
+ * Las cadenas se escriben como longitud variable seguida de sus bytes UTF-8 y
+ * las fechas como días desde la época o diferencias respecto de la fecha del préstamo.
+ *
+ * La escritura no detiene las operaciones del servicio durante la copia de
+ * los préstamos: solo se adquieren todos los bloqueos por un instante para
+ * cambiar de segmento del diario y copiar las referencias a libros y usuarios.
+ * Los préstamos se leen después por tramos, ya que la lista solo crece por el
+ * final; una devolución posterior al cambio de segmento puede quedar incluida
+ * en la instantánea y también en el diario, y se reconoce al reproducirlo.
+ * El archivo se reemplaza atómicamente y, una vez guardado, se eliminan los
+ * segmentos del diario que cubre.
+ *
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public final class LibrarySnapshot implements Closeable {
+
+    /** Nombre por defecto del archivo de instantánea */
+    public static final String DEFAULT_FILE_NAME = "biblioteca.snapshot";
+
+    /** Intervalo por defecto entre instantáneas periódicas, en minutos */
+    public static final long DEFAULT_PERIOD_MINUTES = 10;
+
+    /** Firma de los archivos de instantánea ("LBSN") */
+    private static final int MAGIC = 0x4C42534E;
+
+    /** Versión del formato */
+    private static final int VERSION = 1;
+
+    /** Préstamos copiados de la lista en cada tramo */
+    private static final int LOAN_CHUNK_SIZE = 64 * 1024;
+
+    /** Número de fechas en la caché de lectura (potencia de 2) */
+    private static final int DATE_CACHE_SIZE = 8192;
+
+    /** Tamaño del buffer de lectura y escritura */
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    /** Servicio cuyo estado se guarda */
+    private final LibraryService service;
+
+    /** Diario asociado al servicio, o null si no hay diario */
+    private final LibraryJournal journal;
+
+    /** Archivo de la instantánea */
+    private final Path target;
+
+    /** Planificador de instantáneas periódicas, o null si no se iniciaron */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Crea un escritor de instantáneas para un servicio.
+     *
+     * @param service servicio cuyo estado se guarda
+     * @param journal diario asociado al servicio, o null si no hay diario
+     * @param fileName nombre del archivo de instantánea
+     * @throws IllegalArgumentException si el servicio es null o el nombre es inválido
+     */
+    public LibrarySnapshot(LibraryService service, LibraryJournal journal, String fileName) {
+        if (service == null) {
+            throw new IllegalArgumentException("El servicio no puede ser null");
+        }
+        if (!ValidationService.isValidFileName(fileName)) {
+            throw new IllegalArgumentException("Nombre de archivo invalido: " + fileName);
+        }
+        this.service = service;
+        this.journal = journal;
+        this.target = Paths.get(fileName);
+    }
+
+    /**
+     * Escribe una instantánea del estado actual y elimina los segmentos del
+     * diario que quedan cubiertos por ella.
+     *
+     * @return cantidad de elementos guardados
+     * @throws IOException si ocurre un error de E/S; la instantánea anterior queda intacta
+     */
+    public synchronized SnapshotResult write() throws IOException {
+        LibraryService.CapturedState state = service.captureState(journal);
+
+        Path temp = AtomicFiles.createTempSibling(target);
+        SnapshotResult result;
+        try {
+            try (SnapshotOutput out = new SnapshotOutput(temp)) {
+                result = writeState(out, state);
+                out.commit();
+            }
+            AtomicFiles.moveIntoPlace(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        if (journal != null) {
+            journal.deleteSegmentsBefore(state.getGeneration());
+        }
+        return result;
+    }
+
+    /**
+     * Inicia la escritura periódica de instantáneas en un hilo de fondo.
+     * Un período en el que no se registró ninguna operación en el diario no
+     * genera una instantánea nueva.
+     *
+     * @param period intervalo entre instantáneas
+     * @param unit unidad del intervalo
+     * @throws IllegalArgumentException si el intervalo no es positivo
+     * @throws IllegalStateException si la escritura periódica ya fue iniciada
+     */
+    public synchronized void startPeriodic(long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("El intervalo debe ser positivo: " + period);
+        }
+        if (scheduler != null) {
+            throw new IllegalStateException("Las instantaneas periodicas ya fueron iniciadas");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "snapshot-" + target.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::writePeriodic, period, period, unit);
+    }
+
+    /**
+     * Detiene la escritura periódica, esperando a que termine la instantánea en curso.
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService current;
+        synchronized (this) {
+            current = scheduler;
+            scheduler = null;
+        }
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            current.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ================================
+    // RESTAURACIÓN
+    // ================================
+
+    /**
+     * Reconstruye el estado de un servicio a partir de la última instantánea y
+     * de los segmentos del diario posteriores a ella. Si no existe instantánea,
+     * se reproduce el diario completo.
+     *
+     * El servicio debe estar vacío y no tener un diario asociado. Si la
+     * instantánea está dañada se lanza una excepción y el servicio queda con
+     * un estado parcial que no debe usarse.
+     *
+     * @param service servicio vacío donde se carga el estado
+     * @param snapshotFileName nombre del archivo de instantánea
+     * @param journalFileName nombre del diario
+     * @return resumen de la restauración
+     * @throws IOException si ocurre un error de E/S o los datos son inconsistentes
+     * @throws IllegalArgumentException si algún parámetro es inválido
+     */
+    public static RestoreResult restore(LibraryService service, String snapshotFileName,
+                                        String journalFileName) throws IOException {
+        if (service == null) {
+            throw new IllegalArgumentException("El servicio no puede ser null");
+        }
+        if (!ValidationService.isValidFileName(snapshotFileName)) {
+            throw new IllegalArgumentException("Nombre de archivo invalido: " + snapshotFileName);
+        }
+
+        SnapshotInput in;
+        try {
+            in = new SnapshotInput(Paths.get(snapshotFileName));
+        } catch (NoSuchFileException e) {
+            in = null;
+        }
+
+        SnapshotResult loaded = new SnapshotResult(0, 0, 0);
+        long generation = 0;
+        if (in != null) {
+            try (SnapshotInput input = in) {
+                if (input.getInt() != MAGIC || input.getInt() != VERSION) {
+                    throw new IOException("Formato de instantanea no soportado: " + snapshotFileName);
+                }
+                generation = input.getLong();
+                loaded = readState(input, service);
+                input.verify();
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Instantanea inconsistente " + snapshotFileName + ": "
+                                      + e.getMessage(), e);
+            }
+        }
+
+        LibraryJournal.ReplayResult replay = LibraryJournal.replay(journalFileName, service, generation);
+        return new RestoreResult(in != null, loaded, replay);
+    }
+
+    // ================================
+    // MÉTODOS PRIVADOS
+    // ================================
+
+    /**
+     * Escribe una instantánea cuando el diario registró operaciones desde la anterior.
+     * Los errores se informan sin detener la escritura periódica.
+     */
+    private void writePeriodic() {
+        try {
+            if (journal == null || journal.hasRecordsInCurrentSegment() || !Files.exists(target)) {
+                write();
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error escribiendo instantanea " + target.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Codifica el estado capturado.
+     *
+     * @param out destino de la instantánea
+     * @param state estado capturado
+     * @return cantidad de elementos guardados
+     * @throws IOException si ocurre un error de E/S
+     */
+    private SnapshotResult writeState(SnapshotOutput out, LibraryService.CapturedState state) throws IOException {
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putLong(state.getGeneration());
+
+        Map<Book, Integer> bookRefs = new IdentityHashMap<>();
+        out.putInt(state.getBooks().size());
+        for (Book book : state.getBooks()) {
+            bookRefs.put(book, bookRefs.size());
+            putBook(out, book);
+        }
+
+        Map<User, Integer> userRefs = new IdentityHashMap<>();
+        out.putInt(state.getUsers().size());
+        for (User user : state.getUsers()) {
+            userRefs.put(user, userRefs.size());
+            putUser(out, user);
+        }
+
+        int loanCount = state.getLoanCount();
+        out.putInt(loanCount);
+        for (int from = 0; from < loanCount; from += LOAN_CHUNK_SIZE) {
+            for (Loan loan : service.getLoansRange(from, Math.min(from + LOAN_CHUNK_SIZE, loanCount))) {
+                out.putString(loan.getLoanId());
+
+                Integer userRef = userRefs.get(loan.getUser());
+                if (userRef == null) {
+                    out.putVarInt(userRefs.size());
+                    userRefs.put(loan.getUser(), userRefs.size());
+                    putUser(out, loan.getUser());
+                } else {
+                    out.putVarInt(userRef);
+                }
+
+                Integer bookRef = bookRefs.get(loan.getBook());
+                if (bookRef == null) {
+                    out.putVarInt(bookRefs.size());
+                    bookRefs.put(loan.getBook(), bookRefs.size());
+                    putBook(out, loan.getBook());
+                } else {
+                    out.putVarInt(bookRef);
+                }
+
+                long loanDay = loan.getLoanDate().toEpochDay();
+                LocalDate returnDate = loan.getReturnDate();
+                out.putInt((int) loanDay);
+                out.putVarInt((int) (loan.getDueDate().toEpochDay() - loanDay));
+                out.putVarInt(returnDate == null ? 0 : zigZag((int) (returnDate.toEpochDay() - loanDay)) + 1);
+            }
+        }
+        return new SnapshotResult(state.getBooks().size(), state.getUsers().size(), loanCount);
+    }
+
+    /**
+     * Decodifica una instantánea y la carga en el servicio.
+     *
+     * @param in origen de la instantánea, posicionado después del encabezado
+     * @param service servicio de destino
+     * @return cantidad de elementos cargados
+     * @throws IOException si ocurre un error de E/S o los datos están dañados
+     */
+    private static SnapshotResult readState(SnapshotInput in, LibraryService service) throws IOException {
+        int bookCount = in.getCount();
+        List<Book> books = new ArrayList<>(bookCount);
+        for (int i = 0; i < bookCount; i++) {
+            Book book = getBook(in);
+            if (!service.restoreBook(book)) {
+                throw new IOException("ISBN duplicado en la instantanea: " + book.getIsbn());
+            }
+            books.add(book);
+        }
+
+        int userCount = in.getCount();
+        List<User> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            User user = getUser(in);
+            if (!service.restoreUser(user)) {
+                throw new IOException("ID de usuario duplicado en la instantanea: " + user.getId());
+            }
+            users.add(user);
+        }
+
+        // Las fechas se repiten entre muchos préstamos: compartir sus instancias
+        // reduce la memoria retenida y el trabajo del recolector al cargar millones
+        LocalDate[] dates = new LocalDate[DATE_CACHE_SIZE];
+        int loanCount = in.getCount();
+        for (int i = 0; i < loanCount; i++) {
+            String loanId = in.getString();
+
+            int userRef = in.getVarInt();
+            if (userRef == users.size()) {
+                users.add(getUser(in));
+            } else if (userRef > users.size()) {
+                throw new IOException("Referencia de usuario invalida en la instantanea");
+            }
+
+            int bookRef = in.getVarInt();
+            if (bookRef == books.size()) {
+                books.add(getBook(in));
+            } else if (bookRef > books.size()) {
+                throw new IOException("Referencia de libro invalida en la instantanea");
+            }
+
+            long loanDay = in.getInt();
+            LocalDate loanDate = dateOf(dates, loanDay);
+            LocalDate dueDate = dateOf(dates, loanDay + in.getVarInt());
+            int returnCode = in.getVarInt();
+            LocalDate returnDate = returnCode == 0 ? null
+                    : dateOf(dates, loanDay + unZigZag(returnCode - 1));
+
+            Loan loan = Loan.restore(loanId, users.get(userRef), books.get(bookRef), loanDate, dueDate, returnDate);
+            if (!service.restoreLoan(loan)) {
+                throw new IOException("ID de prestamo duplicado en la instantanea: " + loanId);
+            }
+        }
+        return new SnapshotResult(bookCount, userCount, loanCount);
+    }
+
+    /**
+     * Escribe los datos de un libro.
+     *
+     * @param out destino de la instantánea
+     * @param book libro a escribir
+     * @throws IOException si ocurre un error de E/S
+     */
+    private static void putBook(SnapshotOutput out, Book book) throws IOException {
+        out.putString(book.getIsbn());
+        out.putString(book.getTitle());
+        out.putString(book.getAuthor());
+    }
+
+    /**
+     * Lee los datos de un libro.
+     *
+     * @param in origen de la instantánea
+     * @return libro leído
+     * @throws IOException si ocurre un error de E/S
+     */
+    private static Book getBook(SnapshotInput in) throws IOException {
+        return new Book(in.getString(), in.getString(), in.getString());
+    }
+
+    /**
+     * Escribe los datos de un usuario.
+     *
+     * @param out destino de la instantánea
+     * @param user usuario a escribir
+     * @throws IOException si ocurre un error de E/S
+     */
+    private static void putUser(SnapshotOutput out, User user) throws IOException {
+        out.putString(user.getId());
+        out.putString(user.getName());
+        out.putString(user.getEmail());
+    }
+
+    /**
+     * Lee los datos de un usuario.
+     *
+     * @param in origen de la instantánea
+     * @return usuario leído
+     * @throws IOException si ocurre un error de E/S
+     */
+    private static User getUser(SnapshotInput in) throws IOException {
+        return new User(in.getString(), in.getString(), in.getString());
+    }
+
+    /**
+     * Obtiene la fecha de un día desde la época, reutilizando la instancia
+     * guardada en la caché si corresponde al mismo día.
+     *
+     * @param cache caché de fechas indexada por día
+     * @param epochDay día desde la época
+     * @return fecha correspondiente
+     */
+    private static LocalDate dateOf(LocalDate[] cache, long epochDay) {
+        int slot = (int) (epochDay & (DATE_CACHE_SIZE - 1));
+        LocalDate date = cache[slot];
+        if (date == null || date.toEpochDay() != epochDay) {
+            date = LocalDate.ofEpochDay(epochDay);
+            cache[slot] = date;
+        }
+        return date;
+    }
+
+    /**
+     * Codifica un entero con signo para que los valores pequeños ocupen pocos bytes.
+     *
+     * @param value valor a codificar
+     * @return valor codificado
+     */
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * Decodifica un entero codificado con {@link #zigZag(int)}.
+     *
+     * @param value valor codificado
+     * @return valor original
+     */
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Escritor con buffer de un archivo de instantánea que calcula su CRC32C.
+     */
+    private static final class SnapshotOutput implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final CRC32C crc = new CRC32C();
+
+        SnapshotOutput(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putVarInt(int value) throws IOException {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        void putString(String value) throws IOException {
+            int length = value.length();
+            boolean ascii = true;
+            for (int i = 0; i < length && ascii; i++) {
+                ascii = value.charAt(i) < 0x80;
+            }
+            if (ascii) {
+                putVarInt(length);
+                ensure(length);
+                for (int i = 0; i < length; i++) {
+                    buffer.put((byte) value.charAt(i));
+                }
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                putVarInt(bytes.length);
+                ensure(bytes.length);
+                buffer.put(bytes);
+            }
+        }
+
+        /**
+         * Agrega la suma de verificación, vuelca el buffer y sincroniza el archivo.
+         */
+        void commit() throws IOException {
+            flush();
+            buffer.putInt((int) crc.getValue());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+            channel.force(true);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+                if (buffer.remaining() < bytes) {
+                    throw new IOException("Campo demasiado grande para la instantanea: " + bytes + " bytes");
+                }
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Lector con buffer de un archivo de instantánea que verifica su CRC32C.
+     */
+    private static final class SnapshotInput implements Closeable {
+        private final FileChannel channel;
+        private final long dataSize;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final CRC32C crc = new CRC32C();
+        private long consumed;
+
+        SnapshotInput(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.dataSize = channel.size() - Integer.BYTES;
+            buffer.limit(0);
+            if (dataSize < 0) {
+                channel.close();
+                throw new IOException("Instantanea vacia o truncada: " + file.getFileName());
+            }
+        }
+
+        int getInt() throws IOException {
+            require(Integer.BYTES);
+            return buffer.getInt();
+        }
+
+        long getLong() throws IOException {
+            require(Long.BYTES);
+            return buffer.getLong();
+        }
+
+        int getCount() throws IOException {
+            int count = getInt();
+            if (count < 0) {
+                throw new IOException("Cantidad invalida en la instantanea: " + count);
+            }
+            return count;
+        }
+
+        int getVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                require(1);
+                byte b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Entero invalido en la instantanea");
+        }
+
+        String getString() throws IOException {
+            int length = getVarInt();
+            if (length < 0 || length > BUFFER_SIZE) {
+                throw new IOException("Longitud de cadena invalida en la instantanea: " + length);
+            }
+            require(length);
+            String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+
+        /**
+         * Verifica que se hayan leído todos los datos y que la suma de verificación coincida.
+         */
+        void verify() throws IOException {
+            if (buffer.hasRemaining() || consumed != dataSize) {
+                throw new IOException("Datos sobrantes en la instantanea");
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(Integer.BYTES);
+            while (trailer.hasRemaining()) {
+                if (channel.read(trailer, dataSize + trailer.position()) < 0) {
+                    throw new EOFException("Instantanea truncada");
+                }
+            }
+            if (trailer.getInt(0) != (int) crc.getValue()) {
+                throw new IOException("Suma de verificacion de la instantanea invalida");
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        /**
+         * Asegura que el buffer tenga la cantidad de bytes indicada, leyendo más
+         * datos del archivo sin pasar de la suma de verificación final.
+         */
+        private void require(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                int toRead = (int) Math.min(buffer.remaining(), dataSize - consumed);
+                if (toRead == 0) {
+                    throw new EOFException("Instantanea truncada");
+                }
+                int start = buffer.position();
+                buffer.limit(start + toRead);
+                int read = channel.read(buffer);
+                if (read < 0) {
+                    throw new EOFException("Instantanea truncada");
+                }
+                crc.update(buffer.array(), start, read);
+                consumed += read;
+                buffer.limit(buffer.capacity());
+            }
+            buffer.flip();
+        }
+    }
+
+    // ================================
+    // CLASES DE RESULTADO
+    // ================================
+
+    /**
+     * Representa la cantidad de elementos guardados en una instantánea o cargados desde ella.
+     */
+    public static class SnapshotResult {
+        private final int books;
+        private final int users;
+        private final int loans;
+
+        public SnapshotResult(int books, int users, int loans) {
+            this.books = books;
+            this.users = users;
+            this.loans = loans;
+        }
+
+        // Getters
+        public int getBookCount() { return books; }
+        public int getUserCount() { return users; }
+        public int getLoanCount() { return loans; }
+
+        @Override
+        public String toString() {
+            return String.format("%d libros, %d usuarios, %d prestamos", books, users, loans);
+        }
+    }
+
+    /**
+     * Representa el resultado de restaurar el estado desde una instantánea y el diario.
+     */
+    public static class RestoreResult {
+        private final boolean snapshotFound;
+        private final SnapshotResult snapshot;
+        private final LibraryJournal.ReplayResult replay;
+
+        public RestoreResult(boolean snapshotFound, SnapshotResult snapshot, LibraryJournal.ReplayResult replay) {
+            this.snapshotFound = snapshotFound;
+            this.snapshot = snapshot;
+            this.replay = replay;
+        }
+
+        // Getters
+        public boolean isSnapshotFound() { return snapshotFound; }
+        public SnapshotResult getSnapshot() { return snapshot; }
+        public LibraryJournal.ReplayResult getReplay() { return replay; }
+        public boolean isEmpty() { return !snapshotFound && replay.isEmpty(); }
+
+        @Override
+        public String toString() {
+            String source = snapshotFound ? "instantanea con " + snapshot : "sin instantanea";
+            return source + "; diario: " + replay;
+        }
+    }
+}
\ No newline at end of file
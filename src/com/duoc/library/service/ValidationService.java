@@ -6,8 +6,9 @@
 package com.duoc.library.service;
 
 import com.duoc.library.model.Book;
+import com.duoc.library.model.Email;
+import com.duoc.library.model.Isbn;
 import com.duoc.library.model.User;
-import java.util.regex.Pattern;
 
 /**
  * Servicio de validación centralizado para el sistema de gestión de biblioteca.
@@ -22,16 +23,6 @@ import java.util.regex.Pattern;
  */
 public class ValidationService {
     
-    /** Patrón regex para validar formato de email */
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-        "^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\\.[A-Za-z]{2,})$"
-    );
-    
-    /** Patrón regex para validar formato de ISBN (10 o 13 dígitos con posibles guiones) */
-    private static final Pattern ISBN_PATTERN = Pattern.compile(
-        "^(?:ISBN(?:-1[03])?:? )?(?=[0-9X]{10}$|(?=(?:[0-9]+[- ]){3})[- 0-9X]{13}$|97[89][0-9]{10}$|(?=(?:[0-9]+[- ]){4})[- 0-9]{17}$)(?:97[89][- ]?)?[0-9]{1,5}[- ]?[0-9]+[- ]?[0-9]+[- ]?[0-9X]$"
-    );
-    
     /** Longitud mínima para nombres y títulos */
     private static final int MIN_NAME_LENGTH = 2;
     
@@ -82,25 +73,30 @@ public class ValidationService {
      * @return true si el formato es válido, false en caso contrario
      */
     public static boolean isValidEmail(String email) {
-        if (!isNotNullOrEmpty(email)) {
-            return false;
-        }
-        return EMAIL_PATTERN.matcher(email.trim()).matches();
+        return Email.isValidTrimmed(email);
     }
 
     /**
-     * Valida si un ISBN tiene formato válido.
+     * Valida si un ISBN-10 o ISBN-13 tiene formato válido y dígito de control correcto.
+     * Se admiten guiones y espacios como separadores.
      * 
      * @param isbn el ISBN a validar
-     * @return true si el formato es válido, false en caso contrario
+     * @return true si el ISBN es válido, false en caso contrario
+     * @see Isbn#isValid(String)
      */
     public static boolean isValidIsbn(String isbn) {
-        if (!isNotNullOrEmpty(isbn)) {
-            return false;
-        }
-        // Remover espacios y guiones para validación básica de longitud
-        String cleanIsbn = isbn.replaceAll("[\\s-]", "");
-        return cleanIsbn.length() == 10 || cleanIsbn.length() == 13;
+        return Isbn.isValid(isbn);
+    }
+
+    /**
+     * Obtiene la forma canónica de un ISBN: su ISBN-13 sin separadores.
+     * 
+     * @param isbn el ISBN a normalizar
+     * @return forma canónica, o null si el ISBN es inválido
+     * @see Isbn#normalize(String)
+     */
+    public static String normalizeIsbn(String isbn) {
+        return Isbn.normalize(isbn);
     }
 
     /**
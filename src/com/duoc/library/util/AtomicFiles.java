@@ -0,0 +1,181 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Utilidad para reemplazar archivos de forma atómica.
+ *
+ * El contenido nuevo se escribe en un archivo temporal del mismo directorio,
+ * se sincroniza con el disco y luego se mueve sobre el destino con un único
+ * renombrado, de modo que un lector o una caída del proceso solo pueden
+ * observar la versión anterior completa o la nueva completa.
+ *
+ * También genera archivos auxiliares con la suma de verificación CRC32C de un
+ * archivo, con el formato {@code <crc en hexadecimal>  <nombre del archivo>}.
+ *
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public final class AtomicFiles {
+
+    /** Extensión de los archivos con la suma de verificación */
+    public static final String CHECKSUM_EXTENSION = ".crc32c";
+
+    /**
+     * Constructor privado para prevenir instanciación.
+     * Esta clase solo contiene métodos estáticos.
+     */
+    private AtomicFiles() {
+        // Utility class - no instances allowed
+    }
+
+    /**
+     * Crea un archivo temporal vacío en el mismo directorio que el destino.
+     *
+     * El temporal termina ocupando el lugar del destino, por lo que debe tener
+     * sus mismos permisos: si el destino existe se copian sus permisos POSIX y,
+     * si no, el archivo se crea con los permisos por defecto del proceso, igual
+     * que cualquier archivo nuevo.
+     *
+     * @param target archivo que será reemplazado
+     * @return ruta del archivo temporal
+     * @throws IOException si el archivo no puede crearse
+     */
+    public static Path createTempSibling(Path target) throws IOException {
+        Path directory = directoryOf(target);
+        String prefix = "." + target.getFileName() + ".";
+        Path temp;
+        while (true) {
+            // Files.createTempFile crearía el archivo con permisos rw-------
+            temp = directory.resolve(prefix + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+            try {
+                Files.createFile(temp);
+                break;
+            } catch (FileAlreadyExistsException e) {
+                // Nombre en uso: probar con otro
+            }
+        }
+        try {
+            if (Files.exists(target)) {
+                Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
+            }
+        } catch (UnsupportedOperationException e) {
+            // Sistema de archivos sin permisos POSIX
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return temp;
+    }
+
+    /**
+     * Mueve un archivo temporal ya sincronizado sobre el destino.
+     *
+     * Usa un movimiento atómico cuando el sistema de archivos lo permite y, si no,
+     * un reemplazo simple. Después sincroniza el directorio para que el
+     * renombrado sobreviva a una caída del sistema.
+     *
+     * @param temp archivo temporal con el contenido nuevo
+     * @param target archivo de destino
+     * @throws IOException si el archivo no puede moverse
+     */
+    public static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(directoryOf(target));
+    }
+
+    /**
+     * Reemplaza atómicamente un archivo con el contenido indicado.
+     *
+     * @param target archivo de destino
+     * @param content contenido completo del archivo
+     * @throws IOException si ocurre un error de E/S
+     */
+    public static void write(Path target, byte[] content) throws IOException {
+        Path temp = createTempSibling(target);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer data = ByteBuffer.wrap(content);
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+                channel.force(true);
+            }
+            moveIntoPlace(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Obtiene la ruta del archivo de suma de verificación asociado a un archivo.
+     *
+     * @param target archivo verificado
+     * @return ruta del archivo de suma de verificación
+     */
+    public static Path checksumFile(Path target) {
+        return target.resolveSibling(target.getFileName() + CHECKSUM_EXTENSION);
+    }
+
+    /**
+     * Escribe atómicamente el archivo de suma de verificación de un archivo.
+     *
+     * @param target archivo verificado
+     * @param crc32c valor CRC32C del contenido completo del archivo
+     * @throws IOException si ocurre un error de E/S
+     */
+    public static void writeChecksum(Path target, long crc32c) throws IOException {
+        String line = String.format("%08x  %s%n", crc32c, target.getFileName());
+        write(checksumFile(target), line.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ================================
+    // MÉTODOS PRIVADOS
+    // ================================
+
+    /**
+     * Obtiene el directorio que contiene un archivo.
+     *
+     * @param file ruta del archivo
+     * @return directorio del archivo, o el directorio actual si la ruta no tiene padre
+     */
+    private static Path directoryOf(Path file) {
+        Path parent = file.toAbsolutePath().getParent();
+        return parent != null ? parent : file.toAbsolutePath();
+    }
+
+    /**
+     * Sincroniza un directorio con el disco para persistir los renombrados.
+     * Algunos sistemas operativos no permiten abrir directorios; en ese caso
+     * la sincronización se omite.
+     *
+     * @param directory directorio a sincronizar
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // No soportado en esta plataforma
+        }
+    }
+}
\ No newline at end of file
@@ -6,10 +6,22 @@
 package com.duoc.library.util;
 
 import com.duoc.library.model.Book;
+import com.duoc.library.model.Loan;
 import com.duoc.library.model.User;
 import com.duoc.library.service.ValidationService;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Utilidad especializada para la lectura de archivos CSV.
@@ -18,6 +30,15 @@ import java.util.*;
  * convirtiendo los datos en objetos del dominio de la biblioteca.
  * Maneja validaciones de formato y errores de parsing de manera robusta.
  * 
+ * Cada lector tiene una variante que entrega los registros uno a uno a un
+ * {@link Consumer} a medida que se leen, con uso de memoria constante
+ * independiente del tamaño del archivo.
+ * 
+ * Las líneas se separan y tokenizan directamente sobre los bytes UTF-8 del
+ * archivo; solo se crean cadenas para los campos que se conservan. Los bytes
+ * se obtienen de un flujo con buffer o, en el modo {@link ReadMode#MAPPED},
+ * directamente del archivo mapeado en memoria.
+ * 
  * @author Sistema de Gestión de Biblioteca
  * @version 1.0
  * @since 1.0
@@ -27,14 +48,37 @@ public class CSVReader {
     /** Separador de campos CSV por defecto */
     private static final String CSV_SEPARATOR = ",";
     
-    /** Encoding por defecto para lectura de archivos */
-    private static final String DEFAULT_ENCODING = "UTF-8";
-    
     /** Número esperado de campos para registros de libros */
     private static final int BOOK_FIELD_COUNT = 3;
     
     /** Número esperado de campos para registros de usuarios */
     private static final int USER_FIELD_COUNT = 3;
+    
+    /** Número esperado de campos para registros de préstamos */
+    private static final int LOAN_FIELD_COUNT = 9;
+    
+    /** Primer encabezado de los archivos de préstamos exportados */
+    private static final String LOAN_HEADER = "ID_Prestamo";
+    
+    /** Tamaño mínimo de cada bloque del archivo en la lectura paralela */
+    private static final int MIN_CHUNK_SIZE = 4 * 1024 * 1024;
+    
+    /** Tamaño máximo de cada bloque del archivo en la lectura paralela */
+    private static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Modos de acceso al archivo durante la lectura.
+     */
+    public enum ReadMode {
+        /** Lectura secuencial con un flujo y un buffer propio */
+        STREAM,
+        /**
+         * Lectura sobre ventanas del archivo mapeadas en memoria, sin copiar los datos.
+         * En algunos sistemas operativos el archivo permanece bloqueado hasta que
+         * la memoria mapeada es liberada por el recolector de basura.
+         */
+        MAPPED
+    }
 
     /**
      * Constructor privado para prevenir instanciación.
@@ -60,44 +104,64 @@ public class CSVReader {
      */
     public static List<Book> readBooksFromCSV(String fileName) 
             throws FileNotFoundException, IOException {
+        List<Book> books = new ArrayList<>();
+        readBooksFromCSV(fileName, books::add);
+        return books;
+    }
+
+    /**
+     * Lee libros desde un archivo CSV entregándolos uno a uno al consumidor.
+     * 
+     * Aplica las mismas reglas de formato que {@link #readBooksFromCSV(String)},
+     * pero no acumula los libros en memoria: cada registro se entrega en cuanto
+     * se parsea.
+     * 
+     * @param fileName nombre del archivo CSV a leer
+     * @param consumer receptor de cada libro leído
+     * @return número de libros entregados al consumidor
+     * @throws FileNotFoundException si el archivo no existe
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si el nombre del archivo es inválido
+     */
+    public static int readBooksFromCSV(String fileName, Consumer<? super Book> consumer) 
+            throws FileNotFoundException, IOException {
+        return readBooksFromCSV(fileName, ReadMode.STREAM, consumer);
+    }
+
+    /**
+     * Lee libros desde un archivo CSV con el modo de acceso especificado,
+     * entregándolos uno a uno al consumidor.
+     * 
+     * @param fileName nombre del archivo CSV a leer
+     * @param mode modo de acceso al archivo
+     * @param consumer receptor de cada libro leído
+     * @return número de libros entregados al consumidor
+     * @throws FileNotFoundException si el archivo no existe
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si el nombre del archivo o el modo son inválidos
+     */
+    public static int readBooksFromCSV(String fileName, ReadMode mode, Consumer<? super Book> consumer) 
+            throws FileNotFoundException, IOException {
         
-        if (!ValidationService.isValidCsvFileName(fileName)) {
-            throw new IllegalArgumentException("Nombre de archivo CSV invalido: " + fileName);
+        if (consumer == null) {
+            throw new IllegalArgumentException("El consumidor no puede ser null");
         }
         
-        List<Book> books = new ArrayList<>();
-        int lineNumber = 0;
-        
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(fileName), DEFAULT_ENCODING))) {
-            
-            String line;
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                
-                // Saltar líneas vacías y comentarios
-                if (isEmptyOrComment(line)) {
-                    continue;
-                }
-                
-                try {
-                    Book book = parseBookLine(line, lineNumber);
-                    if (book != null) {
-                        books.add(book);
-                    }
-                } catch (IllegalArgumentException e) {
-                    System.err.printf("Error en linea %d: %s%n", lineNumber, e.getMessage());
-                    // Continuar procesando otras líneas
+        int[] count = {0};
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        forEachDataLine(fileName, mode, (buffer, start, end, lineNumber) -> {
+            try {
+                Book book = parseBookLine(tokenizer, buffer, start, end, lineNumber);
+                if (book != null) {
+                    count[0]++;
+                    consumer.accept(book);
                 }
+            } catch (IllegalArgumentException e) {
+                System.err.printf("Error en linea %d: %s%n", lineNumber, e.getMessage());
+                // Continuar procesando otras líneas
             }
-            
-        } catch (FileNotFoundException e) {
-            throw new FileNotFoundException("Archivo no encontrado: " + fileName);
-        } catch (IOException e) {
-            throw new IOException("Error leyendo archivo " + fileName + ": " + e.getMessage(), e);
-        }
-        
-        return books;
+        });
+        return count[0];
     }
 
     /**
@@ -116,75 +180,463 @@ public class CSVReader {
      */
     public static List<User> readUsersFromCSV(String fileName) 
             throws FileNotFoundException, IOException {
+        List<User> users = new ArrayList<>();
+        readUsersFromCSV(fileName, users::add);
+        return users;
+    }
+
+    /**
+     * Lee usuarios desde un archivo CSV entregándolos uno a uno al consumidor.
+     * 
+     * Aplica las mismas reglas de formato que {@link #readUsersFromCSV(String)},
+     * pero no acumula los usuarios en memoria.
+     * 
+     * @param fileName nombre del archivo CSV a leer
+     * @param consumer receptor de cada usuario leído
+     * @return número de usuarios entregados al consumidor
+     * @throws FileNotFoundException si el archivo no existe
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si el nombre del archivo es inválido
+     */
+    public static int readUsersFromCSV(String fileName, Consumer<? super User> consumer) 
+            throws FileNotFoundException, IOException {
+        return readUsersFromCSV(fileName, ReadMode.STREAM, consumer);
+    }
+
+    /**
+     * Lee usuarios desde un archivo CSV con el modo de acceso especificado,
+     * entregándolos uno a uno al consumidor.
+     * 
+     * @param fileName nombre del archivo CSV a leer
+     * @param mode modo de acceso al archivo
+     * @param consumer receptor de cada usuario leído
+     * @return número de usuarios entregados al consumidor
+     * @throws FileNotFoundException si el archivo no existe
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si el nombre del archivo o el modo son inválidos
+     */
+    public static int readUsersFromCSV(String fileName, ReadMode mode, Consumer<? super User> consumer) 
+            throws FileNotFoundException, IOException {
+        
+        if (consumer == null) {
+            throw new IllegalArgumentException("El consumidor no puede ser null");
+        }
+        
+        int[] count = {0};
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        forEachDataLine(fileName, mode, (buffer, start, end, lineNumber) -> {
+            try {
+                User user = parseUserLine(tokenizer, buffer, start, end, lineNumber);
+                if (user != null) {
+                    count[0]++;
+                    consumer.accept(user);
+                }
+            } catch (IllegalArgumentException e) {
+                System.err.printf("Error en linea %d: %s%n", lineNumber, e.getMessage());
+                // Continuar procesando otras líneas
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * Lee préstamos desde un archivo CSV entregándolos uno a uno al consumidor.
+     * 
+     * Formato esperado del archivo, el mismo que genera
+     * {@link FileWriter#writeLoansToCSV(Iterable, String)}:
+     * ID_Prestamo,Usuario_ID,Usuario_Nombre,ISBN,Titulo,Fecha_Prestamo,
+     * Fecha_Vencimiento,Fecha_Devolucion,Estado
+     * - La línea de encabezados, si existe, es ignorada
+     * - Las fechas tienen formato dd/MM/yyyy; una fecha de devolución vacía indica un préstamo activo
+     * - El nombre del usuario, el título y el estado son informativos y no se leen
+     * 
+     * Los usuarios y libros se obtienen con las funciones de resolución a partir
+     * de su ID e ISBN; una línea cuyo usuario o libro no existe se reporta como error.
+     * Los préstamos se reconstruyen con su ID y fechas originales mediante
+     * {@link Loan#restore}, sin modificar la disponibilidad de los libros.
+     * 
+     * @param fileName nombre del archivo CSV a leer
+     * @param users función que obtiene un usuario por su ID, o null si no existe
+     * @param books función que obtiene un libro por su ISBN, o null si no existe
+     * @param consumer receptor de cada préstamo leído
+     * @return número de préstamos entregados al consumidor
+     * @throws FileNotFoundException si el archivo no existe
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si algún parámetro es inválido
+     */
+    public static int readLoansFromCSV(String fileName, Function<String, ? extends User> users,
+                                       Function<String, ? extends Book> books, Consumer<? super Loan> consumer)
+            throws FileNotFoundException, IOException {
+        return readLoansFromCSV(fileName, ReadMode.STREAM, users, books, consumer);
+    }
+
+    /**
+     * Lee préstamos desde un archivo CSV con el modo de acceso especificado,
+     * entregándolos uno a uno al consumidor.
+     * 
+     * @param fileName nombre del archivo CSV a leer
+     * @param mode modo de acceso al archivo
+     * @param users función que obtiene un usuario por su ID, o null si no existe
+     * @param books función que obtiene un libro por su ISBN, o null si no existe
+     * @param consumer receptor de cada préstamo leído
+     * @return número de préstamos entregados al consumidor
+     * @throws FileNotFoundException si el archivo no existe
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si algún parámetro es inválido
+     * @see #readLoansFromCSV(String, Function, Function, Consumer)
+     */
+    public static int readLoansFromCSV(String fileName, ReadMode mode, Function<String, ? extends User> users,
+                                       Function<String, ? extends Book> books, Consumer<? super Loan> consumer)
+            throws FileNotFoundException, IOException {
+        
+        if (users == null || books == null) {
+            throw new IllegalArgumentException("Las funciones de resolucion no pueden ser null");
+        }
+        if (consumer == null) {
+            throw new IllegalArgumentException("El consumidor no puede ser null");
+        }
+        
+        int[] count = {0};
+        boolean[] firstLine = {true};
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        forEachDataLine(fileName, mode, (buffer, start, end, lineNumber) -> {
+            try {
+                if (firstLine[0]) {
+                    firstLine[0] = false;
+                    tokenizer.tokenize(buffer, start, end);
+                    if (LOAN_HEADER.equals(tokenizer.trimmedField(0))) {
+                        return;
+                    }
+                }
+                Loan loan = parseLoanLine(tokenizer, buffer, start, end, lineNumber, users, books);
+                count[0]++;
+                consumer.accept(loan);
+            } catch (IllegalArgumentException e) {
+                System.err.printf("Error en linea %d: %s%n", lineNumber, e.getMessage());
+                // Continuar procesando otras líneas
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * Lee datos genéricos desde un archivo CSV.
+     * 
+     * @param fileName nombre del archivo CSV a leer
+     * @return lista de arrays de strings, cada array representa una línea
+     * @throws FileNotFoundException si el archivo no existe
+     * @throws IOException si ocurre un error de E/S
+     */
+    public static List<String[]> readGenericCSV(String fileName) 
+            throws FileNotFoundException, IOException {
+        List<String[]> records = new ArrayList<>();
+        readGenericCSV(fileName, records::add);
+        return records;
+    }
+
+    /**
+     * Lee datos genéricos desde un archivo CSV entregando cada línea al consumidor.
+     * 
+     * @param fileName nombre del archivo CSV a leer
+     * @param consumer receptor de los campos de cada línea
+     * @return número de registros entregados al consumidor
+     * @throws FileNotFoundException si el archivo no existe
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si el nombre del archivo es inválido
+     */
+    public static int readGenericCSV(String fileName, Consumer<? super String[]> consumer) 
+            throws FileNotFoundException, IOException {
+        return readGenericCSV(fileName, ReadMode.STREAM, consumer);
+    }
+
+    /**
+     * Lee datos genéricos desde un archivo CSV con el modo de acceso especificado,
+     * entregando cada línea al consumidor.
+     * 
+     * @param fileName nombre del archivo CSV a leer
+     * @param mode modo de acceso al archivo
+     * @param consumer receptor de los campos de cada línea
+     * @return número de registros entregados al consumidor
+     * @throws FileNotFoundException si el archivo no existe
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si el nombre del archivo o el modo son inválidos
+     */
+    public static int readGenericCSV(String fileName, ReadMode mode, Consumer<? super String[]> consumer) 
+            throws FileNotFoundException, IOException {
+        
+        if (consumer == null) {
+            throw new IllegalArgumentException("El consumidor no puede ser null");
+        }
         
+        int[] count = {0};
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        forEachDataLine(fileName, mode, (buffer, start, end, lineNumber) -> {
+            tokenizer.tokenize(buffer, start, end);
+            count[0]++;
+            consumer.accept(tokenizer.fields());
+        });
+        return count[0];
+    }
+
+    /**
+     * Lee libros desde un archivo CSV parseándolo en paralelo.
+     * 
+     * El archivo se divide en rangos de bytes alineados a fin de línea que se
+     * parsean de forma independiente en un {@link ForkJoinPool}. Los resultados
+     * se combinan en el orden del archivo y los errores se reportan con el mismo
+     * número de línea que en la lectura secuencial. Aplica las mismas reglas de
+     * formato que {@link #readBooksFromCSV(String)}.
+     * 
+     * @param fileName nombre del archivo CSV a leer
+     * @return lista de libros leídos desde el archivo, en el orden del archivo
+     * @throws FileNotFoundException si el archivo no existe
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si el nombre del archivo es inválido
+     */
+    public static List<Book> readBooksFromCSVParallel(String fileName) 
+            throws FileNotFoundException, IOException {
+        return readBooksFromCSVParallel(fileName, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Lee libros desde un archivo CSV parseándolo en paralelo en el pool especificado.
+     * 
+     * @param fileName nombre del archivo CSV a leer
+     * @param pool pool donde se ejecuta el parsing de cada bloque
+     * @return lista de libros leídos desde el archivo, en el orden del archivo
+     * @throws FileNotFoundException si el archivo no existe
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si el nombre del archivo o el pool son inválidos
+     */
+    public static List<Book> readBooksFromCSVParallel(String fileName, ForkJoinPool pool) 
+            throws FileNotFoundException, IOException {
+        return readBooksFromCSVParallel(fileName, pool, MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Lee libros desde un archivo CSV parseándolo en paralelo con un tamaño
+     * mínimo de bloque específico. Permite probar archivos pequeños divididos
+     * en varios bloques.
+     * 
+     * @param fileName nombre del archivo CSV a leer
+     * @param pool pool donde se ejecuta el parsing de cada bloque
+     * @param minChunkSize tamaño mínimo de cada bloque en bytes
+     * @return lista de libros leídos desde el archivo, en el orden del archivo
+     * @throws FileNotFoundException si el archivo no existe
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si algún parámetro es inválido
+     */
+    static List<Book> readBooksFromCSVParallel(String fileName, ForkJoinPool pool, int minChunkSize) 
+            throws FileNotFoundException, IOException {
+        
+        if (minChunkSize <= 0) {
+            throw new IllegalArgumentException("El tamano de bloque debe ser positivo: " + minChunkSize);
+        }
         if (!ValidationService.isValidCsvFileName(fileName)) {
             throw new IllegalArgumentException("Nombre de archivo CSV invalido: " + fileName);
         }
+        if (pool == null) {
+            throw new IllegalArgumentException("El pool no puede ser null");
+        }
         
-        List<User> users = new ArrayList<>();
-        int lineNumber = 0;
-        
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(fileName), DEFAULT_ENCODING))) {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            long[] bounds = splitAtLineBoundaries(channel, pool.getParallelism(), minChunkSize);
             
-            String line;
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                
-                // Saltar líneas vacías y comentarios
-                if (isEmptyOrComment(line)) {
-                    continue;
-                }
-                
-                try {
-                    User user = parseUserLine(line, lineNumber);
-                    if (user != null) {
-                        users.add(user);
-                    }
-                } catch (IllegalArgumentException e) {
-                    System.err.printf("Error en linea %d: %s%n", lineNumber, e.getMessage());
-                    // Continuar procesando otras líneas
+            List<ForkJoinTask<BookChunk>> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                tasks.add(pool.submit(ForkJoinTask.adapt(() -> parseBookChunk(channel, start, end))));
+            }
+            
+            // Combinar en orden, desplazando los números de línea de cada bloque
+            List<Book> books = new ArrayList<>();
+            int lineOffset = 0;
+            for (ForkJoinTask<BookChunk> task : tasks) {
+                BookChunk chunk = task.get();
+                for (int i = 0; i < chunk.errorLines.size(); i++) {
+                    System.err.printf("Error en linea %d: %s%n", 
+                                      lineOffset + chunk.errorLines.get(i), chunk.errorMessages.get(i));
                 }
+                books.addAll(chunk.books);
+                lineOffset += chunk.lineCount;
             }
+            return books;
             
-        } catch (FileNotFoundException e) {
+        } catch (NoSuchFileException e) {
             throw new FileNotFoundException("Archivo no encontrado: " + fileName);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Error leyendo archivo " + fileName + ": " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Lectura interrumpida del archivo " + fileName, e);
         } catch (IOException e) {
             throw new IOException("Error leyendo archivo " + fileName + ": " + e.getMessage(), e);
         }
+    }
+
+    // ================================
+    // MÉTODOS DE PARSING PRIVADOS
+    // ================================
+
+    /**
+     * Resultado del parsing de un bloque del archivo.
+     * Los números de línea de los errores son relativos al inicio del bloque.
+     */
+    private static class BookChunk {
+        private final List<Book> books = new ArrayList<>();
+        private final List<Integer> errorLines = new ArrayList<>();
+        private final List<String> errorMessages = new ArrayList<>();
+        private int lineCount;
+    }
+
+    /**
+     * Divide un archivo en rangos de bytes que terminan justo después de un '\n'.
+     * 
+     * @param channel canal del archivo a dividir
+     * @param parallelism nivel de paralelismo disponible
+     * @param minChunkSize tamaño mínimo de cada bloque en bytes
+     * @return posiciones de corte, desde 0 hasta el tamaño del archivo
+     * @throws IOException si ocurre un error de E/S
+     */
+    private static long[] splitAtLineBoundaries(FileChannel channel, int parallelism, int minChunkSize)
+            throws IOException {
+        long size = channel.size();
+        long target = Math.max(minChunkSize, size / Math.max(1, parallelism * 4L));
+        target = Math.min(target, MAX_CHUNK_SIZE / 2);
+        
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long position = target;
+        while (position < size) {
+            long boundary = nextLineStart(channel, position, probe);
+            if (boundary >= size) {
+                break;
+            }
+            bounds.add(boundary);
+            position = boundary + target;
+        }
+        bounds.add(size);
         
-        return users;
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
     }
 
     /**
-     * Lee datos genéricos desde un archivo CSV.
+     * Busca la posición inmediatamente posterior al siguiente '\n' a partir de una posición.
+     * 
+     * @param channel canal del archivo
+     * @param position posición desde la que se busca
+     * @param probe buffer auxiliar para la búsqueda
+     * @return posición de inicio de la siguiente línea, o el tamaño del archivo si no hay más
+     * @throws IOException si ocurre un error de E/S
+     */
+    private static long nextLineStart(FileChannel channel, long position, ByteBuffer probe) throws IOException {
+        while (true) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Parsea los libros contenidos en un rango de bytes del archivo.
+     * 
+     * Las líneas se separan con las mismas reglas que {@link BufferedReader#readLine()}
+     * ('\n', '\r' o "\r\n"), de modo que el conteo de líneas coincide con la lectura secuencial.
+     * El bloque se mapea en memoria y se parsea sin copiarlo.
+     * 
+     * @param channel canal del archivo
+     * @param start posición inicial del bloque (inicio de línea)
+     * @param end posición final exclusiva del bloque (inicio de línea o fin de archivo)
+     * @return libros, errores y número de líneas del bloque
+     * @throws IOException si ocurre un error de E/S
+     */
+    private static BookChunk parseBookChunk(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        
+        BookChunk chunk = new BookChunk();
+        CsvLineReader reader = new CsvLineReader(buffer);
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        while (reader.nextLine()) {
+            if (reader.isEmptyOrComment()) {
+                continue;
+            }
+            try {
+                Book book = parseBookLine(tokenizer, reader.buffer(), reader.lineStart(), 
+                                          reader.lineEnd(), reader.lineNumber());
+                if (book != null) {
+                    chunk.books.add(book);
+                }
+            } catch (IllegalArgumentException e) {
+                chunk.errorLines.add(reader.lineNumber());
+                chunk.errorMessages.add(e.getMessage());
+            }
+        }
+        chunk.lineCount = reader.lineNumber();
+        return chunk;
+    }
+
+    /**
+     * Receptor de las líneas de datos de un archivo CSV.
+     */
+    @FunctionalInterface
+    private interface LineHandler {
+        /**
+         * Procesa una línea de datos.
+         * 
+         * @param buffer buffer que contiene los bytes de la línea
+         * @param start posición inicial de la línea en el buffer
+         * @param end posición final exclusiva de la línea, sin terminador
+         * @param lineNumber número de línea en el archivo (base 1)
+         */
+        void handle(ByteBuffer buffer, int start, int end, int lineNumber);
+    }
+
+    /**
+     * Recorre las líneas de datos de un archivo CSV, omitiendo líneas vacías y comentarios.
      * 
      * @param fileName nombre del archivo CSV a leer
-     * @return lista de arrays de strings, cada array representa una línea
+     * @param mode modo de acceso al archivo
+     * @param handler receptor de cada línea de datos
      * @throws FileNotFoundException si el archivo no existe
      * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si el nombre del archivo o el modo son inválidos
      */
-    public static List<String[]> readGenericCSV(String fileName) 
+    private static void forEachDataLine(String fileName, ReadMode mode, LineHandler handler) 
             throws FileNotFoundException, IOException {
         
         if (!ValidationService.isValidCsvFileName(fileName)) {
             throw new IllegalArgumentException("Nombre de archivo CSV invalido: " + fileName);
         }
+        if (mode == null) {
+            throw new IllegalArgumentException("El modo de lectura no puede ser null");
+        }
         
-        List<String[]> records = new ArrayList<>();
-        
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(fileName), DEFAULT_ENCODING))) {
-            
-            String line;
-            while ((line = reader.readLine()) != null) {
+        try (CsvLineReader reader = openLineReader(fileName, mode)) {
+            while (reader.nextLine()) {
                 // Saltar líneas vacías y comentarios
-                if (isEmptyOrComment(line)) {
+                if (reader.isEmptyOrComment()) {
                     continue;
                 }
                 
-                String[] fields = parseCsvLine(line);
-                records.add(fields);
+                handler.handle(reader.buffer(), reader.lineStart(), reader.lineEnd(), reader.lineNumber());
             }
             
         } catch (FileNotFoundException e) {
@@ -192,40 +644,66 @@ public class CSVReader {
         } catch (IOException e) {
             throw new IOException("Error leyendo archivo " + fileName + ": " + e.getMessage(), e);
         }
-        
-        return records;
     }
 
-    // ================================
-    // MÉTODOS DE PARSING PRIVADOS
-    // ================================
+    /**
+     * Abre un lector de líneas sobre un archivo con el modo de acceso especificado.
+     * 
+     * @param fileName nombre del archivo a leer
+     * @param mode modo de acceso al archivo
+     * @return lector de líneas, que el llamador debe cerrar
+     * @throws FileNotFoundException si el archivo no existe
+     * @throws IOException si ocurre un error de E/S
+     */
+    private static CsvLineReader openLineReader(String fileName, ReadMode mode) 
+            throws FileNotFoundException, IOException {
+        if (mode == ReadMode.MAPPED) {
+            FileChannel channel;
+            try {
+                channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+            } catch (NoSuchFileException e) {
+                throw new FileNotFoundException(fileName);
+            }
+            try {
+                return new CsvLineReader(channel, CsvLineReader.DEFAULT_WINDOW_SIZE);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+        return new CsvLineReader(new FileInputStream(fileName), CsvLineReader.DEFAULT_BUFFER_SIZE);
+    }
 
     /**
      * Parsea una línea CSV para crear un objeto Book.
      * 
-     * @param line línea CSV a parsear
+     * @param tokenizer tokenizador reutilizable del hilo actual
+     * @param buffer buffer que contiene la línea
+     * @param start posición inicial de la línea
+     * @param end posición final exclusiva de la línea
      * @param lineNumber número de línea para reportes de error
      * @return objeto Book creado, o null si la línea es inválida
      * @throws IllegalArgumentException si el formato es inválido
      */
-    private static Book parseBookLine(String line, int lineNumber) {
-        String[] fields = parseCsvLine(line);
+    private static Book parseBookLine(CsvTokenizer tokenizer, ByteBuffer buffer, 
+                                      int start, int end, int lineNumber) {
+        int fieldCount = tokenizer.tokenize(buffer, start, end);
         
-        if (fields.length != BOOK_FIELD_COUNT) {
+        if (fieldCount != BOOK_FIELD_COUNT) {
             throw new IllegalArgumentException(
                 String.format("Numero incorrecto de campos. Esperado %d, encontrado %d", 
-                             BOOK_FIELD_COUNT, fields.length));
+                             BOOK_FIELD_COUNT, fieldCount));
         }
         
-        String isbn = fields[0].trim();
-        String title = fields[1].trim();
-        String author = fields[2].trim();
-        
         // Validar campos obligatorios
-        if (isbn.isEmpty() || title.isEmpty() || author.isEmpty()) {
+        if (tokenizer.isBlank(0) || tokenizer.isBlank(1) || tokenizer.isBlank(2)) {
             throw new IllegalArgumentException("Todos los campos son obligatorios (ISBN, Titulo, Autor)");
         }
         
+        String isbn = tokenizer.trimmedField(0);
+        String title = tokenizer.trimmedField(1);
+        String author = tokenizer.trimmedField(2);
+        
         try {
             return new Book(isbn, title, author);
         } catch (IllegalArgumentException e) {
@@ -236,29 +714,33 @@ public class CSVReader {
     /**
      * Parsea una línea CSV para crear un objeto User.
      * 
-     * @param line línea CSV a parsear
+     * @param tokenizer tokenizador reutilizable del hilo actual
+     * @param buffer buffer que contiene la línea
+     * @param start posición inicial de la línea
+     * @param end posición final exclusiva de la línea
      * @param lineNumber número de línea para reportes de error
      * @return objeto User creado, o null si la línea es inválida
      * @throws IllegalArgumentException si el formato es inválido
      */
-    private static User parseUserLine(String line, int lineNumber) {
-        String[] fields = parseCsvLine(line);
+    private static User parseUserLine(CsvTokenizer tokenizer, ByteBuffer buffer, 
+                                      int start, int end, int lineNumber) {
+        int fieldCount = tokenizer.tokenize(buffer, start, end);
         
-        if (fields.length != USER_FIELD_COUNT) {
+        if (fieldCount != USER_FIELD_COUNT) {
             throw new IllegalArgumentException(
                 String.format("Numero incorrecto de campos. Esperado %d, encontrado %d", 
-                             USER_FIELD_COUNT, fields.length));
+                             USER_FIELD_COUNT, fieldCount));
         }
         
-        String id = fields[0].trim();
-        String name = fields[1].trim();
-        String email = fields[2].trim();
-        
         // Validar campos obligatorios
-        if (id.isEmpty() || name.isEmpty() || email.isEmpty()) {
+        if (tokenizer.isBlank(0) || tokenizer.isBlank(1) || tokenizer.isBlank(2)) {
             throw new IllegalArgumentException("Todos los campos son obligatorios (ID, Nombre, Email)");
         }
         
+        String id = tokenizer.trimmedField(0);
+        String name = tokenizer.trimmedField(1);
+        String email = tokenizer.trimmedField(2);
+        
         try {
             return new User(id, name, email);
         } catch (IllegalArgumentException e) {
@@ -267,69 +749,56 @@ public class CSVReader {
     }
 
     /**
-     * Parsea una línea CSV separando los campos.
-     * 
-     * Este método maneja comillas simples y dobles, y campos que contienen
-     * el separador CSV dentro de comillas.
+     * Parsea una línea CSV para reconstruir un préstamo.
      * 
-     * @param line línea CSV a parsear
-     * @return array de campos parseados
+     * @param tokenizer tokenizador reutilizable del hilo actual
+     * @param buffer buffer que contiene la línea
+     * @param start posición inicial de la línea
+     * @param end posición final exclusiva de la línea
+     * @param lineNumber número de línea para reportes de error
+     * @param users función que obtiene un usuario por su ID
+     * @param books función que obtiene un libro por su ISBN
+     * @return préstamo reconstruido
+     * @throws IllegalArgumentException si el formato es inválido o una referencia no existe
      */
-    private static String[] parseCsvLine(String line) {
-        if (line == null || line.trim().isEmpty()) {
-            return new String[0];
+    private static Loan parseLoanLine(CsvTokenizer tokenizer, ByteBuffer buffer, int start, int end,
+                                      int lineNumber, Function<String, ? extends User> users,
+                                      Function<String, ? extends Book> books) {
+        int fieldCount = tokenizer.tokenize(buffer, start, end);
+        
+        if (fieldCount != LOAN_FIELD_COUNT) {
+            throw new IllegalArgumentException(
+                String.format("Numero incorrecto de campos. Esperado %d, encontrado %d", 
+                             LOAN_FIELD_COUNT, fieldCount));
         }
         
-        List<String> fields = new ArrayList<>();
-        StringBuilder currentField = new StringBuilder();
-        boolean inQuotes = false;
-        char quoteChar = '"';
+        // Validar campos obligatorios
+        if (tokenizer.isBlank(0) || tokenizer.isBlank(1) || tokenizer.isBlank(3)
+                || tokenizer.isBlank(5) || tokenizer.isBlank(6)) {
+            throw new IllegalArgumentException(
+                "Campos obligatorios faltantes (ID, Usuario_ID, ISBN, Fecha_Prestamo, Fecha_Vencimiento)");
+        }
         
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            
-            if (c == '"' || c == '\'') {
-                if (!inQuotes) {
-                    inQuotes = true;
-                    quoteChar = c;
-                } else if (c == quoteChar) {
-                    // Verificar si es una comilla escapada
-                    if (i + 1 < line.length() && line.charAt(i + 1) == quoteChar) {
-                        currentField.append(c);
-                        i++; // Saltar la siguiente comilla
-                    } else {
-                        inQuotes = false;
-                    }
-                } else {
-                    currentField.append(c);
-                }
-            } else if (c == ',' && !inQuotes) {
-                fields.add(currentField.toString());
-                currentField.setLength(0);
-            } else {
-                currentField.append(c);
-            }
+        String userId = tokenizer.trimmedField(1);
+        User user = users.apply(userId);
+        if (user == null) {
+            throw new IllegalArgumentException("Usuario no encontrado: " + userId);
+        }
+        String isbn = tokenizer.trimmedField(3);
+        Book book = books.apply(isbn);
+        if (book == null) {
+            throw new IllegalArgumentException("Libro no encontrado: " + isbn);
         }
         
-        // Agregar el último campo
-        fields.add(currentField.toString());
+        LocalDate loanDate = tokenizer.dateField(5);
+        LocalDate dueDate = tokenizer.dateField(6);
+        LocalDate returnDate = tokenizer.dateField(7);
         
-        return fields.toArray(new String[0]);
-    }
-
-    /**
-     * Verifica si una línea está vacía o es un comentario.
-     * 
-     * @param line línea a verificar
-     * @return true si la línea está vacía o es un comentario
-     */
-    private static boolean isEmptyOrComment(String line) {
-        if (line == null) {
-            return true;
+        try {
+            return Loan.restore(tokenizer.trimmedField(0), user, book, loanDate, dueDate, returnDate);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Datos de prestamo invalidos: " + e.getMessage());
         }
-        
-        String trimmed = line.trim();
-        return trimmed.isEmpty() || trimmed.startsWith("#");
     }
 
     // ================================
@@ -345,14 +814,28 @@ public class CSVReader {
      * @throws IOException si ocurre un error de E/S
      */
     public static int countDataLines(String fileName) throws IOException {
+        return countDataLines(fileName, ReadMode.STREAM);
+    }
+
+    /**
+     * Cuenta el número de líneas de datos válidas en un archivo CSV
+     * con el modo de acceso especificado.
+     * 
+     * @param fileName nombre del archivo a contar
+     * @param mode modo de acceso al archivo
+     * @return número de líneas de datos válidas
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si el modo es null
+     */
+    public static int countDataLines(String fileName, ReadMode mode) throws IOException {
+        if (mode == null) {
+            throw new IllegalArgumentException("El modo de lectura no puede ser null");
+        }
         int count = 0;
         
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(fileName), DEFAULT_ENCODING))) {
-            
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (!isEmptyOrComment(line)) {
+        try (CsvLineReader reader = openLineReader(fileName, mode)) {
+            while (reader.nextLine()) {
+                if (!reader.isEmptyOrComment()) {
                     count++;
                 }
             }
@@ -369,18 +852,7 @@ public class CSVReader {
      * @throws IOException si ocurre un error de E/S
      */
     public static boolean isValidBookCsvFormat(String fileName) throws IOException {
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(fileName), DEFAULT_ENCODING))) {
-            
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (!isEmptyOrComment(line)) {
-                    String[] fields = parseCsvLine(line);
-                    return fields.length == BOOK_FIELD_COUNT;
-                }
-            }
-        }
-        return false;
+        return firstDataLineFieldCount(fileName) == BOOK_FIELD_COUNT;
     }
 
     /**
@@ -391,17 +863,24 @@ public class CSVReader {
      * @throws IOException si ocurre un error de E/S
      */
     public static boolean isValidUserCsvFormat(String fileName) throws IOException {
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(fileName), DEFAULT_ENCODING))) {
-            
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (!isEmptyOrComment(line)) {
-                    String[] fields = parseCsvLine(line);
-                    return fields.length == USER_FIELD_COUNT;
+        return firstDataLineFieldCount(fileName) == USER_FIELD_COUNT;
+    }
+
+    /**
+     * Cuenta los campos de la primera línea de datos de un archivo CSV.
+     * 
+     * @param fileName nombre del archivo a verificar
+     * @return número de campos de la primera línea de datos, o -1 si no hay datos
+     * @throws IOException si ocurre un error de E/S
+     */
+    private static int firstDataLineFieldCount(String fileName) throws IOException {
+        try (CsvLineReader reader = openLineReader(fileName, ReadMode.STREAM)) {
+            while (reader.nextLine()) {
+                if (!reader.isEmptyOrComment()) {
+                    return new CsvTokenizer().tokenize(reader.buffer(), reader.lineStart(), reader.lineEnd());
                 }
             }
         }
-        return false;
+        return -1;
     }
 }
\ No newline at end of file
@@ -0,0 +1,345 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.zip.CRC32C;
+
+/**
+ * Escritor de registros CSV que codifica directamente a UTF-8 sobre un buffer directo.
+ *
+ * Cada campo se recorre una vez para decidir si requiere comillas y otra para
+ * codificarlo directamente en el buffer: un campo que contiene el separador,
+ * comillas o saltos de línea se entrecomilla y sus comillas se duplican, sin
+ * crear cadenas intermedias. El buffer se vuelca al
+ * {@link FileChannel} del archivo cada vez que se llena.
+ *
+ * Al reemplazar un archivo, los datos se escriben en un archivo temporal del
+ * mismo directorio que solo ocupa el lugar del destino al llamar a
+ * {@link #commit()}; si el escritor se cierra sin confirmar, el temporal se
+ * elimina y el archivo anterior queda intacto. Opcionalmente se calcula la
+ * suma CRC32C de los bytes escritos y se guarda junto al archivo.
+ *
+ * Las instancias no son seguras para uso concurrente.
+ *
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+final class CsvChannelWriter implements Closeable {
+
+    /** Tamaño por defecto del buffer de escritura */
+    static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    /** Tamaño mínimo del buffer de escritura */
+    private static final int MIN_BUFFER_SIZE = 64;
+
+    /** Bytes del separador de líneas del sistema */
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    /** Archivo de destino */
+    private final Path target;
+
+    /** Archivo temporal donde se escribe, o null en modo de agregado */
+    private final Path temp;
+
+    /** Canal del archivo donde se escriben los datos */
+    private final FileChannel channel;
+
+    /** Suma de verificación de los bytes escritos, o null si no se calcula */
+    private final CRC32C checksum;
+
+    /** Indica si la escritura ya fue confirmada */
+    private boolean committed;
+
+    /** Buffer directo donde se codifican los registros */
+    private final ByteBuffer buffer;
+
+    /** Indica si el siguiente campo es el primero de la fila */
+    private boolean firstField = true;
+
+    /**
+     * Abre un escritor sobre un archivo.
+     *
+     * En modo de agregado los datos se escriben directamente al final del archivo
+     * y no se calcula suma de verificación; si existía una, se elimina porque deja
+     * de corresponder al contenido. Al reemplazar un archivo sin suma de
+     * verificación, la que existiera se elimina al confirmar por el mismo motivo.
+     *
+     * @param fileName nombre del archivo de destino
+     * @param append true para agregar al final del archivo, false para reemplazar su contenido
+     * @param bufferSize tamaño del buffer de escritura en bytes
+     * @param withChecksum true para generar el archivo de suma de verificación al confirmar
+     * @throws IOException si el archivo no puede abrirse
+     */
+    CsvChannelWriter(String fileName, boolean append, int bufferSize, boolean withChecksum) 
+            throws IOException {
+        this.target = Paths.get(fileName);
+        if (append) {
+            this.temp = null;
+            this.checksum = null;
+            this.channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                                            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            Files.deleteIfExists(AtomicFiles.checksumFile(target));
+        } else {
+            this.temp = AtomicFiles.createTempSibling(target);
+            this.checksum = withChecksum ? new CRC32C() : null;
+            this.channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+        }
+        this.buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, MIN_BUFFER_SIZE));
+    }
+
+    /**
+     * Escribe un campo de texto, escapándolo si es necesario.
+     *
+     * @param value valor del campo; null se escribe como campo vacío
+     * @throws IOException si ocurre un error de E/S
+     */
+    void field(String value) throws IOException {
+        separate();
+        if (value != null) {
+            text(value);
+        }
+    }
+
+    /**
+     * Escribe una fecha con formato dd/MM/yyyy.
+     *
+     * @param date fecha a escribir; null se escribe como campo vacío
+     * @throws IOException si ocurre un error de E/S
+     */
+    void date(LocalDate date) throws IOException {
+        separate();
+        if (date == null) {
+            return;
+        }
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            // Fuera del rango de cuatro dígitos: delegar en el formato de texto
+            text(String.format("%02d/%02d/%d", date.getDayOfMonth(), date.getMonthValue(), year));
+            return;
+        }
+        ensure(10);
+        putTwoDigits(date.getDayOfMonth());
+        buffer.put((byte) '/');
+        putTwoDigits(date.getMonthValue());
+        buffer.put((byte) '/');
+        putTwoDigits(year / 100);
+        putTwoDigits(year % 100);
+    }
+
+    /**
+     * Escribe un conjunto de campos como una fila completa.
+     *
+     * @param values valores de los campos
+     * @throws IOException si ocurre un error de E/S
+     */
+    void row(String... values) throws IOException {
+        for (String value : values) {
+            field(value);
+        }
+        endRow();
+    }
+
+    /**
+     * Termina la fila actual escribiendo el separador de líneas.
+     *
+     * @throws IOException si ocurre un error de E/S
+     */
+    void endRow() throws IOException {
+        ensure(LINE_SEPARATOR.length);
+        buffer.put(LINE_SEPARATOR);
+        firstField = true;
+    }
+
+    /**
+     * Confirma la escritura y vuelca el buffer. Al reemplazar un archivo, además
+     * sincroniza el temporal con el disco, lo mueve sobre el destino y escribe o
+     * elimina la suma de verificación según corresponda.
+     *
+     * En modo de agregado no se sincroniza con el disco: cada agregado es pequeño
+     * y no reemplaza una copia anterior que haya que proteger.
+     *
+     * @throws IOException si ocurre un error de E/S
+     */
+    void commit() throws IOException {
+        flush();
+        if (temp != null) {
+            channel.force(true);
+        }
+        channel.close();
+        committed = true;
+        if (temp != null) {
+            try {
+                AtomicFiles.moveIntoPlace(temp, target);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            if (checksum != null) {
+                AtomicFiles.writeChecksum(target, checksum.getValue());
+            } else {
+                Files.deleteIfExists(AtomicFiles.checksumFile(target));
+            }
+        }
+    }
+
+    /**
+     * Cierra el escritor. Si la escritura no fue confirmada, al reemplazar un
+     * archivo se descarta el temporal; en modo de agregado se vuelca lo escrito.
+     *
+     * @throws IOException si ocurre un error de E/S
+     */
+    @Override
+    public void close() throws IOException {
+        if (committed) {
+            return;
+        }
+        if (temp == null) {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        } else {
+            try {
+                channel.close();
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    // ================================
+    // MÉTODOS PRIVADOS
+    // ================================
+
+    /**
+     * Escribe el separador de campos si el campo actual no es el primero de la fila.
+     *
+     * @throws IOException si ocurre un error de E/S
+     */
+    private void separate() throws IOException {
+        if (firstField) {
+            firstField = false;
+        } else {
+            put((byte) ',');
+        }
+    }
+
+    /**
+     * Codifica un texto en el buffer, entrecomillándolo si contiene caracteres especiales.
+     *
+     * @param value texto a codificar
+     * @throws IOException si ocurre un error de E/S
+     */
+    private void text(String value) throws IOException {
+        int length = value.length();
+        boolean needsQuoting = false;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                needsQuoting = true;
+                break;
+            }
+        }
+
+        if (needsQuoting) {
+            put((byte) '"');
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == '"') {
+                    put((byte) '"');
+                }
+                put((byte) c);
+            } else if (c < 0x800) {
+                ensure(2);
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                       && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                ensure(4);
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                // Surrogate sin pareja: mismo reemplazo que String.getBytes
+                put((byte) '?');
+            } else {
+                ensure(3);
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        if (needsQuoting) {
+            put((byte) '"');
+        }
+    }
+
+    /**
+     * Escribe un byte en el buffer.
+     *
+     * @param b byte a escribir
+     * @throws IOException si ocurre un error de E/S
+     */
+    private void put(byte b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put(b);
+    }
+
+    /**
+     * Escribe un número de 0 a 99 con dos dígitos. El llamador debe reservar el espacio.
+     *
+     * @param value número a escribir
+     */
+    private void putTwoDigits(int value) {
+        buffer.put((byte) ('0' + value / 10));
+        buffer.put((byte) ('0' + value % 10));
+    }
+
+    /**
+     * Asegura que el buffer tenga espacio para la cantidad de bytes indicada.
+     *
+     * @param bytes número de bytes requeridos
+     * @throws IOException si ocurre un error de E/S
+     */
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    /**
+     * Escribe en el canal el contenido acumulado en el buffer.
+     *
+     * @throws IOException si ocurre un error de E/S
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        if (checksum != null) {
+            checksum.update(buffer.duplicate());
+        }
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
\ No newline at end of file
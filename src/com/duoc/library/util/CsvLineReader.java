@@ -0,0 +1,297 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Lector de líneas que trabaja sobre bytes sin decodificar.
+ *
+ * Separa las líneas con las mismas reglas que {@link java.io.BufferedReader#readLine()}
+ * ('\n', '\r' o "\r\n") y expone cada una como un rango del buffer interno,
+ * sin crear cadenas. El rango es válido solo hasta la siguiente llamada a
+ * {@link #nextLine()}.
+ *
+ * Los bytes pueden provenir de un flujo de entrada, copiados a un buffer
+ * propio, o de un archivo mapeado en memoria por ventanas, en cuyo caso las
+ * líneas se leen directamente de las páginas del archivo sin copias
+ * intermedias. Cada ventana comienza en el inicio de la línea pendiente y se
+ * amplía si una sola línea no cabe en ella.
+ *
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+final class CsvLineReader implements Closeable {
+
+    /** Tamaño inicial del buffer de lectura */
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /** Tamaño inicial de cada ventana del archivo mapeado en memoria */
+    static final int DEFAULT_WINDOW_SIZE = 32 * 1024 * 1024;
+
+    /** Flujo de entrada, o null si los datos no provienen de un flujo */
+    private final InputStream input;
+
+    /** Canal del archivo mapeado, o null si los datos no provienen de un archivo mapeado */
+    private final FileChannel channel;
+
+    /** Tamaño del archivo mapeado */
+    private final long fileSize;
+
+    /** Posición en el archivo del primer byte de la ventana actual */
+    private long windowOffset;
+
+    /** Tamaño de las ventanas del archivo mapeado */
+    private int windowSize;
+
+    /** Buffer con los datos leídos; el contenido válido está en [0, limit) */
+    private ByteBuffer buffer;
+
+    /** Posición donde comienza la siguiente línea */
+    private int position;
+
+    /** Inicio de la línea actual */
+    private int lineStart;
+
+    /** Fin exclusivo de la línea actual, sin terminador */
+    private int lineEnd;
+
+    /** Número de líneas leídas hasta ahora */
+    private int lineNumber;
+
+    /** Indica si ya no quedan datos por leer del flujo */
+    private boolean endOfInput;
+
+    /**
+     * Crea un lector sobre un flujo de entrada.
+     *
+     * @param input flujo del que se leen los bytes
+     * @param bufferSize tamaño inicial del buffer de lectura
+     */
+    CsvLineReader(InputStream input, int bufferSize) {
+        this.input = input;
+        this.channel = null;
+        this.fileSize = -1;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.limit(0);
+        this.endOfInput = false;
+    }
+
+    /**
+     * Crea un lector sobre un contenido ya cargado en memoria.
+     *
+     * @param content buffer con el contenido completo en [0, limit)
+     */
+    CsvLineReader(ByteBuffer content) {
+        this.input = null;
+        this.channel = null;
+        this.fileSize = -1;
+        this.buffer = content;
+        this.endOfInput = true;
+    }
+
+    /**
+     * Crea un lector que mapea el archivo en memoria por ventanas.
+     *
+     * @param channel canal del archivo, abierto para lectura
+     * @param windowSize tamaño inicial de cada ventana
+     * @throws IOException si ocurre un error de E/S
+     */
+    CsvLineReader(FileChannel channel, int windowSize) throws IOException {
+        this.input = null;
+        this.channel = channel;
+        this.fileSize = channel.size();
+        this.windowSize = windowSize;
+        this.windowOffset = 0;
+        this.buffer = ByteBuffer.allocate(0);
+        this.endOfInput = fileSize == 0;
+    }
+
+    /**
+     * Avanza a la siguiente línea.
+     *
+     * @return true si hay una línea disponible, false al llegar al final
+     * @throws IOException si ocurre un error de E/S
+     */
+    boolean nextLine() throws IOException {
+        int scan = position;
+        while (true) {
+            int limit = buffer.limit();
+            while (scan < limit) {
+                byte c = buffer.get(scan);
+                if (c == '\n' || c == '\r') {
+                    break;
+                }
+                scan++;
+            }
+
+            if (scan < limit) {
+                // Un '\r' al final del buffer puede ser parte de "\r\n"
+                if (buffer.get(scan) == '\r' && scan + 1 == limit && !endOfInput) {
+                    scan = fill(scan);
+                    continue;
+                }
+                lineStart = position;
+                lineEnd = scan;
+                position = scan + 1;
+                if (buffer.get(scan) == '\r' && position < limit && buffer.get(position) == '\n') {
+                    position++;
+                }
+                lineNumber++;
+                return true;
+            }
+
+            if (endOfInput) {
+                if (position < limit) {
+                    lineStart = position;
+                    lineEnd = limit;
+                    position = limit;
+                    lineNumber++;
+                    return true;
+                }
+                return false;
+            }
+            scan = fill(scan);
+        }
+    }
+
+    /**
+     * Obtiene el buffer que contiene la línea actual.
+     *
+     * @return buffer de datos
+     */
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * Obtiene la posición de inicio de la línea actual.
+     *
+     * @return inicio de la línea
+     */
+    int lineStart() {
+        return lineStart;
+    }
+
+    /**
+     * Obtiene la posición final exclusiva de la línea actual, sin terminador.
+     *
+     * @return fin de la línea
+     */
+    int lineEnd() {
+        return lineEnd;
+    }
+
+    /**
+     * Obtiene el número de la línea actual (base 1).
+     *
+     * @return número de línea
+     */
+    int lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Verifica si la línea actual está vacía o es un comentario, con la misma
+     * semántica que recortar la línea y verificar si comienza con '#'.
+     *
+     * @return true si la línea está vacía o es un comentario
+     */
+    boolean isEmptyOrComment() {
+        int i = lineStart;
+        while (i < lineEnd && CsvTokenizer.isWhitespace(buffer.get(i))) {
+            i++;
+        }
+        return i == lineEnd || buffer.get(i) == '#';
+    }
+
+    /**
+     * Cierra el flujo o canal del que se leen los datos.
+     *
+     * @throws IOException si ocurre un error de E/S
+     */
+    @Override
+    public void close() throws IOException {
+        if (input != null) {
+            input.close();
+        }
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    // ================================
+    // MÉTODOS PRIVADOS
+    // ================================
+
+    /**
+     * Obtiene más datos de la fuente, descartando las líneas ya consumidas.
+     *
+     * @param scan posición hasta la que ya se buscó un terminador
+     * @return posición equivalente a {@code scan} en el nuevo buffer
+     * @throws IOException si ocurre un error de E/S
+     */
+    private int fill(int scan) throws IOException {
+        return channel != null ? remap(scan) : read(scan);
+    }
+
+    /**
+     * Mapea la siguiente ventana del archivo a partir del inicio de la línea
+     * pendiente, duplicando su tamaño si la línea ocupa toda la ventana actual.
+     *
+     * @param scan posición hasta la que ya se buscó un terminador
+     * @return posición equivalente a {@code scan} en la nueva ventana
+     * @throws IOException si ocurre un error de E/S
+     */
+    private int remap(int scan) throws IOException {
+        if (position == 0 && buffer.limit() > 0) {
+            windowSize = (int) Math.min((long) windowSize * 2, Integer.MAX_VALUE - 8);
+        }
+        int newScan = scan - position;
+        windowOffset += position;
+        position = 0;
+
+        long size = Math.min(windowSize, fileSize - windowOffset);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowOffset, size);
+        endOfInput = windowOffset + size == fileSize;
+        return newScan;
+    }
+
+    /**
+     * Lee más datos del flujo, descartando las líneas ya consumidas
+     * y ampliando el buffer si una línea no cabe.
+     *
+     * @param scan posición hasta la que ya se buscó un terminador
+     * @return posición equivalente a {@code scan} tras compactar el buffer
+     * @throws IOException si ocurre un error de E/S
+     */
+    private int read(int scan) throws IOException {
+        byte[] data = buffer.array();
+        int remaining = buffer.limit() - position;
+        if (position > 0) {
+            System.arraycopy(data, position, data, 0, remaining);
+        } else if (remaining == data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        int newScan = scan - position;
+        position = 0;
+
+        int read = input.read(data, remaining, data.length - remaining);
+        if (read < 0) {
+            endOfInput = true;
+            read = 0;
+        }
+        buffer = ByteBuffer.wrap(data);
+        buffer.limit(remaining + read);
+        return newScan;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,381 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Tokenizador de líneas CSV que trabaja directamente sobre bytes UTF-8.
+ *
+ * En lugar de construir un {@code String} por campo, registra los límites de
+ * cada campo dentro del buffer y solo crea cadenas para los campos que se piden.
+ * Las comillas se interpretan igual que en el parser original basado en
+ * caracteres: comillas dobles o simples abren un tramo entrecomillado, la misma
+ * comilla repetida dentro del tramo representa una comilla literal, y la coma
+ * solo separa campos fuera de comillas. Como la coma, las comillas y los
+ * espacios son ASCII, nunca aparecen dentro de una secuencia UTF-8 multibyte.
+ *
+ * Las instancias reutilizan sus arreglos internos y no son seguras para uso
+ * concurrente; cada hilo debe usar su propio tokenizador.
+ *
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+final class CsvTokenizer {
+
+    /** Byte de separador de campos */
+    private static final byte SEPARATOR = ',';
+
+    /** Buffer de la línea tokenizada */
+    private ByteBuffer buffer;
+
+    /** Posición de inicio de cada campo en el buffer */
+    private int[] starts = new int[8];
+
+    /** Posición final (exclusiva) de cada campo en el buffer */
+    private int[] ends = new int[8];
+
+    /** Indica si el campo contiene comillas y requiere desescapado */
+    private boolean[] quoted = new boolean[8];
+
+    /** Número de campos de la última línea tokenizada */
+    private int fieldCount;
+
+    /** Buffer auxiliar para desescapar campos con comillas o copiar desde buffers directos */
+    private byte[] scratch = new byte[256];
+
+    /** Longitud del contenido válido en el buffer auxiliar */
+    private int scratchLength;
+
+    /**
+     * Tokeniza una línea CSV ubicada en un rango del buffer.
+     *
+     * @param buffer buffer que contiene la línea
+     * @param from posición inicial de la línea
+     * @param to posición final exclusiva de la línea (sin terminador)
+     * @return número de campos encontrados
+     */
+    int tokenize(ByteBuffer buffer, int from, int to) {
+        this.buffer = buffer;
+        this.fieldCount = 0;
+
+        int fieldStart = from;
+        boolean fieldQuoted = false;
+        boolean inQuotes = false;
+        byte quoteChar = '"';
+
+        for (int i = from; i < to; i++) {
+            byte c = buffer.get(i);
+            if (c == '"' || c == '\'') {
+                fieldQuoted = true;
+                if (!inQuotes) {
+                    inQuotes = true;
+                    quoteChar = c;
+                } else if (c == quoteChar) {
+                    if (i + 1 < to && buffer.get(i + 1) == quoteChar) {
+                        i++; // Comilla escapada
+                    } else {
+                        inQuotes = false;
+                    }
+                }
+            } else if (c == SEPARATOR && !inQuotes) {
+                addField(fieldStart, i, fieldQuoted);
+                fieldStart = i + 1;
+                fieldQuoted = false;
+            }
+        }
+
+        // Agregar el último campo
+        addField(fieldStart, to, fieldQuoted);
+        return fieldCount;
+    }
+
+    /**
+     * Obtiene el número de campos de la última línea tokenizada.
+     *
+     * @return número de campos
+     */
+    int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Obtiene el valor de un campo sin eliminar espacios.
+     *
+     * @param index índice del campo
+     * @return valor del campo
+     */
+    String field(int index) {
+        if (quoted[index]) {
+            unescape(index);
+            return new String(scratch, 0, scratchLength, StandardCharsets.UTF_8);
+        }
+        return decode(starts[index], ends[index]);
+    }
+
+    /**
+     * Obtiene el valor de un campo sin espacios al inicio ni al final,
+     * con la misma semántica que {@link String#trim()}.
+     *
+     * @param index índice del campo
+     * @return valor del campo recortado
+     */
+    String trimmedField(int index) {
+        if (quoted[index]) {
+            unescape(index);
+            int start = 0;
+            int end = scratchLength;
+            while (start < end && isWhitespace(scratch[start])) {
+                start++;
+            }
+            while (end > start && isWhitespace(scratch[end - 1])) {
+                end--;
+            }
+            return new String(scratch, start, end - start, StandardCharsets.UTF_8);
+        }
+        int start = starts[index];
+        int end = ends[index];
+        while (start < end && isWhitespace(buffer.get(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(buffer.get(end - 1))) {
+            end--;
+        }
+        return decode(start, end);
+    }
+
+    /**
+     * Verifica si un campo está vacío o contiene solo espacios, sin crear cadenas.
+     *
+     * @param index índice del campo
+     * @return true si el campo recortado está vacío
+     */
+    boolean isBlank(int index) {
+        if (quoted[index]) {
+            unescape(index);
+            for (int i = 0; i < scratchLength; i++) {
+                if (!isWhitespace(scratch[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (int i = starts[index]; i < ends[index]; i++) {
+            if (!isWhitespace(buffer.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Interpreta un campo como una fecha con formato dd/MM/yyyy, sin crear cadenas.
+     * Los espacios al inicio y al final se ignoran.
+     * 
+     * @param index índice del campo
+     * @return fecha del campo, o null si el campo está vacío
+     * @throws IllegalArgumentException si el campo no es una fecha válida
+     */
+    LocalDate dateField(int index) {
+        if (isBlank(index)) {
+            return null;
+        }
+        if (quoted[index]) {
+            unescape(index);
+            return parseDate(ByteBuffer.wrap(scratch), 0, scratchLength);
+        }
+        return parseDate(buffer, starts[index], ends[index]);
+    }
+
+    /**
+     * Obtiene todos los campos de la última línea tokenizada, sin recortar.
+     *
+     * @return arreglo con el valor de cada campo
+     */
+    String[] fields() {
+        String[] result = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            result[i] = field(i);
+        }
+        return result;
+    }
+
+    /**
+     * Verifica si un byte corresponde a un carácter eliminado por {@link String#trim()}.
+     *
+     * @param b byte a verificar
+     * @return true si es un carácter de control o espacio ASCII
+     */
+    static boolean isWhitespace(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    // ================================
+    // MÉTODOS PRIVADOS
+    // ================================
+
+    /**
+     * Registra los límites de un campo, ampliando los arreglos si es necesario.
+     *
+     * @param start posición inicial del campo
+     * @param end posición final exclusiva del campo
+     * @param fieldQuoted true si el campo contiene comillas
+     */
+    private void addField(int start, int end, boolean fieldQuoted) {
+        if (fieldCount == starts.length) {
+            int capacity = fieldCount * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            quoted = Arrays.copyOf(quoted, capacity);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        quoted[fieldCount] = fieldQuoted;
+        fieldCount++;
+    }
+
+    /**
+     * Copia el contenido de un campo con comillas al buffer auxiliar,
+     * eliminando las comillas delimitadoras y resolviendo las escapadas.
+     *
+     * @param index índice del campo
+     */
+    private void unescape(int index) {
+        int start = starts[index];
+        int end = ends[index];
+        ensureScratch(end - start);
+        scratchLength = 0;
+
+        boolean inQuotes = false;
+        byte quoteChar = '"';
+        for (int i = start; i < end; i++) {
+            byte c = buffer.get(i);
+            if (c == '"' || c == '\'') {
+                if (!inQuotes) {
+                    inQuotes = true;
+                    quoteChar = c;
+                } else if (c == quoteChar) {
+                    if (i + 1 < end && buffer.get(i + 1) == quoteChar) {
+                        scratch[scratchLength++] = c;
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    scratch[scratchLength++] = c;
+                }
+            } else {
+                scratch[scratchLength++] = c;
+            }
+        }
+    }
+
+    /**
+     * Interpreta un rango de bytes como una fecha con formato dd/MM/yyyy,
+     * ignorando los espacios al inicio y al final.
+     * 
+     * @param data buffer con los bytes de la fecha
+     * @param start posición inicial
+     * @param end posición final exclusiva
+     * @return fecha interpretada
+     * @throws IllegalArgumentException si el rango no es una fecha válida
+     */
+    private static LocalDate parseDate(ByteBuffer data, int start, int end) {
+        while (start < end && isWhitespace(data.get(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(data.get(end - 1))) {
+            end--;
+        }
+        
+        int day = 0;
+        int month = 0;
+        int year = 0;
+        int part = 0;
+        int digits = 0;
+        boolean negativeYear = false;
+        for (int i = start; i < end; i++) {
+            byte c = data.get(i);
+            if (c >= '0' && c <= '9' && digits < 9) {
+                int digit = c - '0';
+                if (part == 0) {
+                    day = day * 10 + digit;
+                } else if (part == 1) {
+                    month = month * 10 + digit;
+                } else {
+                    year = year * 10 + digit;
+                }
+                digits++;
+            } else if (c == '/' && part < 2 && digits > 0) {
+                part++;
+                digits = 0;
+            } else if (c == '-' && part == 2 && digits == 0 && !negativeYear) {
+                negativeYear = true;
+            } else {
+                throw invalidDate(data, start, end);
+            }
+        }
+        if (part != 2 || digits == 0) {
+            throw invalidDate(data, start, end);
+        }
+        
+        try {
+            return LocalDate.of(negativeYear ? -year : year, month, day);
+        } catch (DateTimeException e) {
+            throw invalidDate(data, start, end);
+        }
+    }
+
+    /**
+     * Crea la excepción para una fecha inválida, incluyendo el texto original.
+     * 
+     * @param data buffer con los bytes de la fecha
+     * @param start posición inicial
+     * @param end posición final exclusiva
+     * @return excepción a lanzar
+     */
+    private static IllegalArgumentException invalidDate(ByteBuffer data, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        data.get(start, bytes);
+        return new IllegalArgumentException("Fecha invalida: " + new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un rango del buffer como UTF-8.
+     *
+     * @param start posición inicial
+     * @param end posición final exclusiva
+     * @return cadena decodificada
+     */
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (length == 0) {
+            return "";
+        }
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        }
+        ensureScratch(length);
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Asegura que el buffer auxiliar tenga al menos la capacidad indicada.
+     *
+     * @param capacity capacidad mínima requerida
+     */
+    private void ensureScratch(int capacity) {
+        if (scratch.length < capacity) {
+            scratch = new byte[Math.max(capacity, scratch.length * 2)];
+        }
+    }
+}
\ No newline at end of file
@@ -6,11 +6,12 @@
 package com.duoc.library.util;
 
 import com.duoc.library.model.Book;
+import com.duoc.library.model.LibraryClock;
 import com.duoc.library.model.User;
 import com.duoc.library.model.Loan;
 import com.duoc.library.service.ValidationService;
 import java.io.*;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -20,26 +21,28 @@ import java.util.List;
  * de la biblioteca en archivos CSV con formato estándar.
  * Maneja la serialización de datos y el formato de salida de manera consistente.
  * 
+ * Los registros se toman directamente de cualquier {@link Iterable}, por lo que
+ * pueden exportarse vistas de las colecciones del servicio sin copiarlas, y se
+ * codifican a UTF-8 sobre un buffer directo que se vuelca al archivo mediante un
+ * {@link java.nio.channels.FileChannel}. El tamaño del buffer es configurable.
+ * 
+ * Los archivos se reemplazan de forma atómica: el contenido se escribe en un
+ * archivo temporal del mismo directorio, se sincroniza con el disco y recién
+ * entonces se mueve sobre el destino, por lo que una falla a mitad de la
+ * exportación conserva la copia anterior. Las sobrecargas con el parámetro
+ * {@code withChecksum} generan además junto al archivo uno con extensión
+ * {@value AtomicFiles#CHECKSUM_EXTENSION} que contiene la suma CRC32C del
+ * contenido; al escribir sin ella se elimina la que hubiera quedado de una
+ * escritura anterior.
+ * 
  * @author Sistema de Gestión de Biblioteca
  * @version 1.0
  * @since 1.0
  */
 public class FileWriter {
     
-    /** Separador de campos CSV */
-    private static final String CSV_SEPARATOR = ",";
-    
-    /** Separador de líneas */
-    private static final String LINE_SEPARATOR = System.lineSeparator();
-    
-    /** Encoding por defecto para escritura de archivos */
-    private static final String DEFAULT_ENCODING = "UTF-8";
-    
-    /** Formateador de fechas para archivos CSV */
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-    
-    /** Carácter de comilla para campos que contienen el separador */
-    private static final String QUOTE_CHAR = "\"";
+    /** Tamaño por defecto del buffer de escritura en bytes */
+    public static final int DEFAULT_BUFFER_SIZE = CsvChannelWriter.DEFAULT_BUFFER_SIZE;
 
     /**
      * Constructor privado para prevenir instanciación.
@@ -50,39 +53,72 @@ public class FileWriter {
     }
 
     /**
-     * Escribe una lista de libros a un archivo CSV.
+     * Escribe una colección de libros a un archivo CSV.
      * 
      * Formato de salida: ISBN,Titulo,Autor,Disponible
      * - Incluye encabezados en la primera línea
      * - Los campos que contienen comas son entrecomillados
      * - La disponibilidad se muestra como "Si" o "No"
      * 
-     * @param books lista de libros a escribir
+     * @param books libros a escribir
+     * @param fileName nombre del archivo de destino
+     * @return número de libros escritos
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si los parámetros son inválidos
+     */
+    public static int writeBooksToCSV(Iterable<? extends Book> books, String fileName) throws IOException {
+        return writeBooksToCSV(books, fileName, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Escribe una colección de libros a un archivo CSV con el tamaño de buffer especificado.
+     * 
+     * @param books libros a escribir
+     * @param fileName nombre del archivo de destino
+     * @param bufferSize tamaño del buffer de escritura en bytes
+     * @return número de libros escritos
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si los parámetros son inválidos
+     */
+    public static int writeBooksToCSV(Iterable<? extends Book> books, String fileName, int bufferSize) 
+            throws IOException {
+        return writeBooksToCSV(books, fileName, bufferSize, false);
+    }
+
+    /**
+     * Escribe una colección de libros a un archivo CSV, generando opcionalmente
+     * el archivo de suma de verificación.
+     * 
+     * @param books libros a escribir
      * @param fileName nombre del archivo de destino
+     * @param bufferSize tamaño del buffer de escritura en bytes
+     * @param withChecksum true para generar el archivo de suma de verificación CRC32C
+     * @return número de libros escritos
      * @throws IOException si ocurre un error de E/S
      * @throws IllegalArgumentException si los parámetros son inválidos
      */
-    public static void writeBooksToCSV(List<Book> books, String fileName) throws IOException {
+    public static int writeBooksToCSV(Iterable<? extends Book> books, String fileName, int bufferSize,
+                                      boolean withChecksum) throws IOException {
         if (books == null) {
             throw new IllegalArgumentException("La lista de libros no puede ser null");
         }
-        if (!ValidationService.isValidCsvFileName(fileName)) {
-            throw new IllegalArgumentException("Nombre de archivo CSV invalido: " + fileName);
-        }
+        validateTarget(fileName, bufferSize);
         
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(fileName), DEFAULT_ENCODING))) {
+        try (CsvChannelWriter writer = new CsvChannelWriter(fileName, false, bufferSize, withChecksum)) {
             
             // Escribir encabezados
-            writer.write("ISBN,Titulo,Autor,Disponible");
-            writer.write(LINE_SEPARATOR);
+            writer.row("ISBN", "Titulo", "Autor", "Disponible");
             
             // Escribir datos de libros
+            int count = 0;
             for (Book book : books) {
                 if (book != null) {
                     writeBookRecord(writer, book);
+                    count++;
                 }
             }
+            writer.commit();
+            return count;
             
         } catch (IOException e) {
             throw new IOException("Error escribiendo archivo de libros " + fileName + ": " + e.getMessage(), e);
@@ -90,38 +126,71 @@ public class FileWriter {
     }
 
     /**
-     * Escribe una lista de usuarios a un archivo CSV.
+     * Escribe una colección de usuarios a un archivo CSV.
      * 
      * Formato de salida: ID,Nombre,Email
      * - Incluye encabezados en la primera línea
      * - Los campos que contienen comas son entrecomillados
      * 
-     * @param users lista de usuarios a escribir
+     * @param users usuarios a escribir
      * @param fileName nombre del archivo de destino
+     * @return número de usuarios escritos
      * @throws IOException si ocurre un error de E/S
      * @throws IllegalArgumentException si los parámetros son inválidos
      */
-    public static void writeUsersToCSV(List<User> users, String fileName) throws IOException {
+    public static int writeUsersToCSV(Iterable<? extends User> users, String fileName) throws IOException {
+        return writeUsersToCSV(users, fileName, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Escribe una colección de usuarios a un archivo CSV con el tamaño de buffer especificado.
+     * 
+     * @param users usuarios a escribir
+     * @param fileName nombre del archivo de destino
+     * @param bufferSize tamaño del buffer de escritura en bytes
+     * @return número de usuarios escritos
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si los parámetros son inválidos
+     */
+    public static int writeUsersToCSV(Iterable<? extends User> users, String fileName, int bufferSize) 
+            throws IOException {
+        return writeUsersToCSV(users, fileName, bufferSize, false);
+    }
+
+    /**
+     * Escribe una colección de usuarios a un archivo CSV, generando opcionalmente
+     * el archivo de suma de verificación.
+     * 
+     * @param users usuarios a escribir
+     * @param fileName nombre del archivo de destino
+     * @param bufferSize tamaño del buffer de escritura en bytes
+     * @param withChecksum true para generar el archivo de suma de verificación CRC32C
+     * @return número de usuarios escritos
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si los parámetros son inválidos
+     */
+    public static int writeUsersToCSV(Iterable<? extends User> users, String fileName, int bufferSize,
+                                      boolean withChecksum) throws IOException {
         if (users == null) {
             throw new IllegalArgumentException("La lista de usuarios no puede ser null");
         }
-        if (!ValidationService.isValidCsvFileName(fileName)) {
-            throw new IllegalArgumentException("Nombre de archivo CSV invalido: " + fileName);
-        }
+        validateTarget(fileName, bufferSize);
         
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(fileName), DEFAULT_ENCODING))) {
+        try (CsvChannelWriter writer = new CsvChannelWriter(fileName, false, bufferSize, withChecksum)) {
             
             // Escribir encabezados
-            writer.write("ID,Nombre,Email");
-            writer.write(LINE_SEPARATOR);
+            writer.row("ID", "Nombre", "Email");
             
             // Escribir datos de usuarios
+            int count = 0;
             for (User user : users) {
                 if (user != null) {
                     writeUserRecord(writer, user);
+                    count++;
                 }
             }
+            writer.commit();
+            return count;
             
         } catch (IOException e) {
             throw new IOException("Error escribiendo archivo de usuarios " + fileName + ": " + e.getMessage(), e);
@@ -136,32 +205,93 @@ public class FileWriter {
      * - Las fechas se formatean como dd/MM/yyyy
      * - El estado puede ser "ACTIVO", "DEVUELTO", o "VENCIDO"
      * 
-     * @param loans lista de préstamos a escribir
+     * @param loans préstamos a escribir
      * @param fileName nombre del archivo de destino
+     * @return número de préstamos escritos
      * @throws IOException si ocurre un error de E/S
      * @throws IllegalArgumentException si los parámetros son inválidos
      */
-    public static void writeLoansToCSV(List<Loan> loans, String fileName) throws IOException {
+    public static int writeLoansToCSV(Iterable<? extends Loan> loans, String fileName) throws IOException {
+        return writeLoansToCSV(loans, fileName, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Escribe una colección de préstamos a un archivo CSV con el tamaño de buffer especificado.
+     * 
+     * El estado de vencimiento de todos los préstamos se evalúa respecto de la
+     * misma fecha, obtenida de {@link LibraryClock#system()} una sola vez al
+     * inicio de la exportación.
+     * 
+     * @param loans préstamos a escribir
+     * @param fileName nombre del archivo de destino
+     * @param bufferSize tamaño del buffer de escritura en bytes
+     * @return número de préstamos escritos
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si los parámetros son inválidos
+     */
+    public static int writeLoansToCSV(Iterable<? extends Loan> loans, String fileName, int bufferSize) 
+            throws IOException {
+        return writeLoansToCSV(loans, fileName, bufferSize, LibraryClock.system().today());
+    }
+
+    /**
+     * Escribe una colección de préstamos a un archivo CSV evaluando su vencimiento
+     * respecto de una fecha dada. Permite que varios archivos de una misma
+     * exportación usen exactamente la misma fecha de referencia.
+     * 
+     * @param loans préstamos a escribir
+     * @param fileName nombre del archivo de destino
+     * @param bufferSize tamaño del buffer de escritura en bytes
+     * @param today fecha de referencia para determinar si un préstamo está vencido
+     * @return número de préstamos escritos
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si los parámetros son inválidos
+     */
+    public static int writeLoansToCSV(Iterable<? extends Loan> loans, String fileName, int bufferSize, 
+                                      LocalDate today) throws IOException {
+        return writeLoansToCSV(loans, fileName, bufferSize, today, false);
+    }
+
+    /**
+     * Escribe una colección de préstamos a un archivo CSV evaluando su vencimiento
+     * respecto de una fecha dada, generando opcionalmente el archivo de suma de
+     * verificación.
+     * 
+     * @param loans préstamos a escribir
+     * @param fileName nombre del archivo de destino
+     * @param bufferSize tamaño del buffer de escritura en bytes
+     * @param today fecha de referencia para determinar si un préstamo está vencido
+     * @param withChecksum true para generar el archivo de suma de verificación CRC32C
+     * @return número de préstamos escritos
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si los parámetros son inválidos
+     */
+    public static int writeLoansToCSV(Iterable<? extends Loan> loans, String fileName, int bufferSize, 
+                                      LocalDate today, boolean withChecksum) throws IOException {
         if (loans == null) {
             throw new IllegalArgumentException("La lista de prestamos no puede ser null");
         }
-        if (!ValidationService.isValidCsvFileName(fileName)) {
-            throw new IllegalArgumentException("Nombre de archivo CSV invalido: " + fileName);
+        if (today == null) {
+            throw new IllegalArgumentException("La fecha de referencia no puede ser null");
         }
+        validateTarget(fileName, bufferSize);
         
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(fileName), DEFAULT_ENCODING))) {
+        try (CsvChannelWriter writer = new CsvChannelWriter(fileName, false, bufferSize, withChecksum)) {
             
             // Escribir encabezados
-            writer.write("ID_Prestamo,Usuario_ID,Usuario_Nombre,ISBN,Titulo,Fecha_Prestamo,Fecha_Vencimiento,Fecha_Devolucion,Estado");
-            writer.write(LINE_SEPARATOR);
+            writer.row("ID_Prestamo", "Usuario_ID", "Usuario_Nombre", "ISBN", "Titulo", 
+                       "Fecha_Prestamo", "Fecha_Vencimiento", "Fecha_Devolucion", "Estado");
             
             // Escribir datos de préstamos
+            int count = 0;
             for (Loan loan : loans) {
                 if (loan != null) {
-                    writeLoanRecord(writer, loan);
+                    writeLoanRecord(writer, loan, today);
+                    count++;
                 }
             }
+            writer.commit();
+            return count;
             
         } catch (IOException e) {
             throw new IOException("Error escribiendo archivo de prestamos " + fileName + ": " + e.getMessage(), e);
@@ -179,29 +309,41 @@ public class FileWriter {
      */
     public static void writeGenericCSV(List<String[]> data, String[] headers, String fileName) 
             throws IOException {
+        writeGenericCSV(data, headers, fileName, false);
+    }
+
+    /**
+     * Escribe datos genéricos a un archivo CSV, generando opcionalmente el
+     * archivo de suma de verificación.
+     * 
+     * @param data lista de arrays de strings representando filas
+     * @param headers array de encabezados (opcional, puede ser null)
+     * @param fileName nombre del archivo de destino
+     * @param withChecksum true para generar el archivo de suma de verificación CRC32C
+     * @throws IOException si ocurre un error de E/S
+     * @throws IllegalArgumentException si los parámetros son inválidos
+     */
+    public static void writeGenericCSV(List<String[]> data, String[] headers, String fileName,
+                                       boolean withChecksum) throws IOException {
         if (data == null) {
             throw new IllegalArgumentException("Los datos no pueden ser null");
         }
-        if (!ValidationService.isValidCsvFileName(fileName)) {
-            throw new IllegalArgumentException("Nombre de archivo CSV invalido: " + fileName);
-        }
+        validateTarget(fileName, DEFAULT_BUFFER_SIZE);
         
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(fileName), DEFAULT_ENCODING))) {
+        try (CsvChannelWriter writer = new CsvChannelWriter(fileName, false, DEFAULT_BUFFER_SIZE, withChecksum)) {
             
             // Escribir encabezados si se proporcionan
             if (headers != null && headers.length > 0) {
-                writer.write(formatCsvLine(headers));
-                writer.write(LINE_SEPARATOR);
+                writer.row(headers);
             }
             
             // Escribir datos
             for (String[] row : data) {
                 if (row != null && row.length > 0) {
-                    writer.write(formatCsvLine(row));
-                    writer.write(LINE_SEPARATOR);
+                    writer.row(row);
                 }
             }
+            writer.commit();
             
         } catch (IOException e) {
             throw new IOException("Error escribiendo archivo generico " + fileName + ": " + e.getMessage(), e);
@@ -213,76 +355,87 @@ public class FileWriter {
     // ================================
 
     /**
-     * Escribe un registro de libro al BufferedWriter.
+     * Estima los bytes que ocupan unas filas en UTF-8, sin superar el tamaño de
+     * buffer por defecto. Si la estimación se queda corta, el buffer simplemente
+     * se vuelca más de una vez.
+     * 
+     * @param data filas a escribir
+     * @return tamaño de buffer adecuado para las filas
+     */
+    private static int estimateSize(List<String[]> data) {
+        long size = 0;
+        for (String[] row : data) {
+            if (row != null) {
+                for (String value : row) {
+                    size += (value != null ? value.length() : 0) + 1;
+                }
+                size += System.lineSeparator().length();
+            }
+            if (size >= DEFAULT_BUFFER_SIZE) {
+                return DEFAULT_BUFFER_SIZE;
+            }
+        }
+        return (int) size;
+    }
+
+    /**
+     * Escribe un registro de libro.
      * 
      * @param writer escritor donde escribir el registro
      * @param book libro a escribir
      * @throws IOException si ocurre un error de E/S
      */
-    private static void writeBookRecord(BufferedWriter writer, Book book) throws IOException {
-        String[] fields = {
-            book.getIsbn(),
-            book.getTitle(),
-            book.getAuthor(),
-            book.isAvailable() ? "Si" : "No"
-        };
-        
-        writer.write(formatCsvLine(fields));
-        writer.write(LINE_SEPARATOR);
+    private static void writeBookRecord(CsvChannelWriter writer, Book book) throws IOException {
+        writer.field(book.getIsbn());
+        writer.field(book.getTitle());
+        writer.field(book.getAuthor());
+        writer.field(book.isAvailable() ? "Si" : "No");
+        writer.endRow();
     }
 
     /**
-     * Escribe un registro de usuario al BufferedWriter.
+     * Escribe un registro de usuario.
      * 
      * @param writer escritor donde escribir el registro
      * @param user usuario a escribir
      * @throws IOException si ocurre un error de E/S
      */
-    private static void writeUserRecord(BufferedWriter writer, User user) throws IOException {
-        String[] fields = {
-            user.getId(),
-            user.getName(),
-            user.getEmail()
-        };
-        
-        writer.write(formatCsvLine(fields));
-        writer.write(LINE_SEPARATOR);
+    private static void writeUserRecord(CsvChannelWriter writer, User user) throws IOException {
+        writer.field(user.getId());
+        writer.field(user.getName());
+        writer.field(user.getEmail());
+        writer.endRow();
     }
 
     /**
-     * Escribe un registro de préstamo al BufferedWriter.
+     * Escribe un registro de préstamo.
      * 
      * @param writer escritor donde escribir el registro
      * @param loan préstamo a escribir
+     * @param today fecha de referencia para determinar si el préstamo está vencido
      * @throws IOException si ocurre un error de E/S
      */
-    private static void writeLoanRecord(BufferedWriter writer, Loan loan) throws IOException {
+    private static void writeLoanRecord(CsvChannelWriter writer, Loan loan, LocalDate today) 
+            throws IOException {
         String status;
         if (!loan.isActive()) {
             status = "DEVUELTO";
-        } else if (loan.isOverdue()) {
+        } else if (loan.isOverdue(today)) {
             status = "VENCIDO";
         } else {
             status = "ACTIVO";
         }
         
-        String returnDateStr = loan.getReturnDate() != null ? 
-            loan.getReturnDate().format(DATE_FORMATTER) : "";
-        
-        String[] fields = {
-            loan.getLoanId(),
-            loan.getUser().getId(),
-            loan.getUser().getName(),
-            loan.getBook().getIsbn(),
-            loan.getBook().getTitle(),
-            loan.getLoanDate().format(DATE_FORMATTER),
-            loan.getDueDate().format(DATE_FORMATTER),
-            returnDateStr,
-            status
-        };
-        
-        writer.write(formatCsvLine(fields));
-        writer.write(LINE_SEPARATOR);
+        writer.field(loan.getLoanId());
+        writer.field(loan.getUser().getId());
+        writer.field(loan.getUser().getName());
+        writer.field(loan.getBook().getIsbn());
+        writer.field(loan.getBook().getTitle());
+        writer.date(loan.getLoanDate());
+        writer.date(loan.getDueDate());
+        writer.date(loan.getReturnDate());
+        writer.field(status);
+        writer.endRow();
     }
 
     // ================================
@@ -290,62 +443,32 @@ public class FileWriter {
     // ================================
 
     /**
-     * Formatea una línea CSV a partir de un array de campos.
-     * 
-     * Los campos que contienen comas, comillas o saltos de línea
-     * son automáticamente entrecomillados.
+     * Valida el nombre del archivo de destino y el tamaño del buffer.
      * 
-     * @param fields array de campos a formatear
-     * @return línea CSV formateada
-     */
-    private static String formatCsvLine(String[] fields) {
-        if (fields == null || fields.length == 0) {
-            return "";
-        }
-        
-        StringBuilder line = new StringBuilder();
-        
-        for (int i = 0; i < fields.length; i++) {
-            if (i > 0) {
-                line.append(CSV_SEPARATOR);
-            }
-            
-            String field = fields[i] != null ? fields[i] : "";
-            line.append(escapeCsvField(field));
-        }
-        
-        return line.toString();
-    }
-
-    /**
-     * Escapa un campo CSV agregando comillas si es necesario.
-     * 
-     * @param field campo a escapar
-     * @return campo escapado
+     * @param fileName nombre del archivo de destino
+     * @param bufferSize tamaño del buffer de escritura
+     * @throws IllegalArgumentException si alguno de los parámetros es inválido
      */
-    private static String escapeCsvField(String field) {
-        if (field == null) {
-            return "";
+    private static void validateTarget(String fileName, int bufferSize) {
+        if (!ValidationService.isValidCsvFileName(fileName)) {
+            throw new IllegalArgumentException("Nombre de archivo CSV invalido: " + fileName);
         }
-        
-        // Verificar si el campo necesita ser entrecomillado
-        boolean needsQuoting = field.contains(CSV_SEPARATOR) || 
-                              field.contains(QUOTE_CHAR) || 
-                              field.contains("\n") || 
-                              field.contains("\r");
-        
-        if (needsQuoting) {
-            // Escapar comillas duplicándolas
-            String escaped = field.replace(QUOTE_CHAR, QUOTE_CHAR + QUOTE_CHAR);
-            return QUOTE_CHAR + escaped + QUOTE_CHAR;
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("El tamano del buffer debe ser positivo: " + bufferSize);
         }
-        
-        return field;
     }
 
     /**
      * Agrega datos a un archivo CSV existente (append mode).
      * 
+     * Los datos se agregan directamente al archivo, sin reemplazo atómico ni
+     * sincronización con el disco, usando un buffer del tamaño aproximado de los
+     * datos. Si el archivo tenía una suma de verificación, se elimina porque deja
+     * de corresponder a su contenido.
+     * 
+     * Cada llamada abre y cierra el archivo; para registrar eventos frecuentes
+     * desde varios hilos conviene usar {@link GroupCommitAppender}.
+     * 
      * @param data lista de arrays de strings representando filas
      * @param fileName nombre del archivo de destino
      * @throws IOException si ocurre un error de E/S
@@ -354,19 +477,16 @@ public class FileWriter {
         if (data == null) {
             throw new IllegalArgumentException("Los datos no pueden ser null");
         }
-        if (!ValidationService.isValidCsvFileName(fileName)) {
-            throw new IllegalArgumentException("Nombre de archivo CSV invalido: " + fileName);
-        }
+        validateTarget(fileName, DEFAULT_BUFFER_SIZE);
         
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(fileName, true), DEFAULT_ENCODING))) {
+        try (CsvChannelWriter writer = new CsvChannelWriter(fileName, true, estimateSize(data), false)) {
             
             for (String[] row : data) {
                 if (row != null && row.length > 0) {
-                    writer.write(formatCsvLine(row));
-                    writer.write(LINE_SEPARATOR);
+                    writer.row(row);
                 }
             }
+            writer.commit();
             
         } catch (IOException e) {
             throw new IOException("Error agregando datos al archivo " + fileName + ": " + e.getMessage(), e);
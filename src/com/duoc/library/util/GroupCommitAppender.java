@@ -0,0 +1,535 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.util;
+
+import com.duoc.library.service.ValidationService;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Escritor de registros al final de un archivo con confirmación agrupada.
+ *
+ * Mantiene el archivo abierto y acumula en memoria los registros que agregan
+ * distintos hilos. Un hilo de fondo escribe el lote acumulado cuando alcanza el
+ * tamaño configurado o cuando transcurre el tiempo máximo de espera, de modo
+ * que muchos registros comparten una sola escritura y, si se pide, una sola
+ * sincronización con el disco. Mientras un lote se escribe, los nuevos registros
+ * se acumulan en un segundo buffer.
+ *
+ * Cada registro agregado recibe un número de secuencia creciente; con
+ * {@link #awaitDurable(long)} un hilo puede esperar a que su registro haya sido
+ * escrito con la durabilidad configurada.
+ *
+ * Un escritor puede abrirse como continuación de otro: antes de escribir su
+ * primer lote espera a que todos los registros del anterior sean durables, de
+ * modo que el archivo nuevo nunca tiene registros escritos mientras el anterior
+ * puede quedar incompleto.
+ *
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public final class GroupCommitAppender implements Closeable {
+
+    /** Tamaño por defecto del lote en bytes */
+    public static final int DEFAULT_BATCH_SIZE = 256 * 1024;
+
+    /** Tiempo máximo por defecto que un registro espera antes de escribirse, en milisegundos */
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 10;
+
+    /** Separador de líneas para las filas CSV */
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    /**
+     * Nivel de durabilidad de cada lote escrito.
+     */
+    public enum Durability {
+        /** El lote se entrega al sistema operativo; sobrevive a una caída del proceso */
+        FLUSH,
+        /** El lote además se sincroniza con el disco; sobrevive a una caída del sistema */
+        FSYNC
+    }
+
+    /** Nombre del archivo de destino */
+    private final String fileName;
+
+    /** Canal del archivo, abierto en modo de agregado */
+    private final FileChannel channel;
+
+    /** Durabilidad de cada lote */
+    private final Durability durability;
+
+    /** Tamaño del lote que dispara una escritura inmediata */
+    private final int batchSize;
+
+    /** Tiempo máximo de espera de un lote incompleto, en nanosegundos */
+    private final long maxDelayNanos;
+
+    /** Bloqueo que protege los buffers y las secuencias */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Señal para el hilo de escritura: hay datos, un lote lleno o un cierre pendiente */
+    private final Condition batchReady = lock.newCondition();
+
+    /** Señal para los productores: el buffer activo tiene espacio nuevamente */
+    private final Condition spaceAvailable = lock.newCondition();
+
+    /** Señal para quienes esperan durabilidad: se completó la escritura de un lote */
+    private final Condition batchWritten = lock.newCondition();
+
+    /** Buffer donde se acumulan los registros nuevos */
+    private ByteBuffer active;
+
+    /** Buffer libre para el siguiente intercambio */
+    private ByteBuffer spare;
+
+    /** Número de registros agregados */
+    private long appendedSequence;
+
+    /** Número de registros escritos con la durabilidad configurada */
+    private long durableSequence;
+
+    /** Indica si algún hilo pidió escribir el lote sin esperar */
+    private boolean flushRequested;
+
+    /**
+     * Indica si se pidió cerrar el escritor. Solo lo cambia {@link #close()}: una
+     * falla del hilo de escritura se registra en {@link #failure}, de modo que el
+     * cierre posterior igualmente cierre el archivo e informe el error.
+     */
+    private boolean closeRequested;
+
+    /** Error de E/S del hilo de escritura, o null si no hubo errores */
+    private IOException failure;
+
+    /** Escritor cuyos registros deben ser durables antes del primer lote propio, o null */
+    private volatile GroupCommitAppender predecessor;
+
+    /** Hilo de fondo que escribe los lotes */
+    private final Thread flusher;
+
+    /**
+     * Abre un escritor con el tamaño de lote y tiempo de espera por defecto,
+     * sin sincronizar cada lote con el disco.
+     *
+     * @param fileName nombre del archivo de destino
+     * @throws IOException si el archivo no puede abrirse
+     * @throws IllegalArgumentException si el nombre del archivo es inválido
+     */
+    public GroupCommitAppender(String fileName) throws IOException {
+        this(fileName, DEFAULT_BATCH_SIZE, DEFAULT_MAX_DELAY_MILLIS, Durability.FLUSH);
+    }
+
+    /**
+     * Abre un escritor con la configuración especificada.
+     *
+     * @param fileName nombre del archivo de destino
+     * @param batchSize tamaño en bytes a partir del cual un lote se escribe de inmediato
+     * @param maxDelayMillis tiempo máximo que un registro espera antes de escribirse
+     * @param durability durabilidad de cada lote
+     * @throws IOException si el archivo no puede abrirse
+     * @throws IllegalArgumentException si algún parámetro es inválido
+     */
+    public GroupCommitAppender(String fileName, int batchSize, long maxDelayMillis, Durability durability)
+            throws IOException {
+        this(fileName, batchSize, maxDelayMillis, durability, null);
+    }
+
+    /**
+     * Abre un escritor que continúa a otro. El primer lote se escribe recién
+     * cuando todos los registros agregados al escritor anterior son durables; si
+     * el anterior falla, este escritor falla con el mismo error sin escribir.
+     * El escritor anterior no debe recibir registros nuevos.
+     *
+     * @param fileName nombre del archivo de destino
+     * @param batchSize tamaño en bytes a partir del cual un lote se escribe de inmediato
+     * @param maxDelayMillis tiempo máximo que un registro espera antes de escribirse
+     * @param durability durabilidad de cada lote
+     * @param predecessor escritor anterior, o null si no continúa a otro
+     * @throws IOException si el archivo no puede abrirse
+     * @throws IllegalArgumentException si algún parámetro es inválido
+     */
+    public GroupCommitAppender(String fileName, int batchSize, long maxDelayMillis, Durability durability,
+                               GroupCommitAppender predecessor) throws IOException {
+        if (!ValidationService.isValidFileName(fileName)) {
+            throw new IllegalArgumentException("Nombre de archivo invalido: " + fileName);
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("El tamano del lote debe ser positivo: " + batchSize);
+        }
+        if (maxDelayMillis < 0) {
+            throw new IllegalArgumentException("El tiempo de espera no puede ser negativo: " + maxDelayMillis);
+        }
+        if (durability == null) {
+            throw new IllegalArgumentException("La durabilidad no puede ser null");
+        }
+
+        this.fileName = fileName;
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.durability = durability;
+        this.predecessor = predecessor;
+        this.active = ByteBuffer.allocate(batchSize);
+        this.spare = ByteBuffer.allocate(batchSize);
+        this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                                        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+        this.flusher = new Thread(this::runFlusher, "group-commit-" + fileName);
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    // ================================
+    // OPERACIONES DE ESCRITURA
+    // ================================
+
+    /**
+     * Agrega un registro binario al lote en curso.
+     *
+     * @param record bytes del registro
+     * @return número de secuencia del registro
+     * @throws IOException si el escritor está cerrado o falló una escritura anterior
+     */
+    public long append(byte[] record) throws IOException {
+        if (record == null) {
+            throw new IllegalArgumentException("El registro no puede ser null");
+        }
+        return append(record, 0, record.length);
+    }
+
+    /**
+     * Agrega un rango de bytes como un registro del lote en curso.
+     *
+     * Si el lote no tiene espacio, el hilo espera a que el hilo de escritura
+     * libere un buffer. Un registro mayor que el tamaño del lote se acepta
+     * ampliando el buffer.
+     *
+     * @param data arreglo con los bytes del registro
+     * @param offset posición inicial del registro
+     * @param length longitud del registro
+     * @return número de secuencia del registro
+     * @throws IOException si el escritor está cerrado o falló una escritura anterior
+     */
+    public long append(byte[] data, int offset, int length) throws IOException {
+        lock.lock();
+        try {
+            ensureOpen();
+            while (active.remaining() < length) {
+                if (active.position() == 0) {
+                    active = ByteBuffer.allocate(length);
+                    break;
+                }
+                flushRequested = true;
+                batchReady.signal();
+                spaceAvailable.awaitUninterruptibly();
+                ensureOpen();
+            }
+
+            boolean wasEmpty = active.position() == 0;
+            active.put(data, offset, length);
+            appendedSequence++;
+            if (wasEmpty || active.position() >= batchSize) {
+                batchReady.signal();
+            }
+            return appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Agrega una fila CSV con las mismas reglas de escape que {@link FileWriter}.
+     *
+     * @param fields valores de los campos; null se escribe como campo vacío
+     * @return número de secuencia de la fila
+     * @throws IOException si el escritor está cerrado o falló una escritura anterior
+     */
+    public long appendRow(String... fields) throws IOException {
+        if (fields == null) {
+            throw new IllegalArgumentException("Los campos no pueden ser null");
+        }
+
+        StringBuilder line = new StringBuilder(64);
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            appendEscaped(line, fields[i]);
+        }
+        line.append(LINE_SEPARATOR);
+        return append(line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Espera a que el registro con el número de secuencia indicado haya sido
+     * escrito con la durabilidad configurada. Pide escribir el lote en curso
+     * sin esperar el tiempo máximo.
+     *
+     * @param sequence número de secuencia devuelto al agregar el registro
+     * @throws IOException si la escritura del lote falló
+     * @throws InterruptedIOException si el hilo es interrumpido mientras espera
+     */
+    public void awaitDurable(long sequence) throws IOException {
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (failure != null) {
+                    throw new IOException("Error escribiendo archivo " + fileName + ": "
+                                          + failure.getMessage(), failure);
+                }
+                flushRequested = true;
+                batchReady.signal();
+                try {
+                    batchWritten.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Espera interrumpida escribiendo " + fileName);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene el número de registros agregados desde que se abrió el escritor.
+     *
+     * @return número de registros agregados
+     */
+    public long getAppendedCount() {
+        lock.lock();
+        try {
+            return appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Escribe todos los registros agregados hasta el momento y espera su durabilidad.
+     *
+     * @throws IOException si la escritura falló
+     */
+    public void flush() throws IOException {
+        long sequence;
+        lock.lock();
+        try {
+            sequence = appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(sequence);
+    }
+
+    /**
+     * Escribe los registros pendientes, detiene el hilo de escritura y cierra el archivo.
+     *
+     * El archivo se cierra siempre, también si el hilo de escritura terminó por
+     * una falla; en ese caso la falla se informa al cerrar.
+     *
+     * @throws IOException si la escritura de algún lote o el cierre fallan
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closeRequested) {
+                return;
+            }
+            closeRequested = true;
+            batchReady.signal();
+            spaceAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        boolean interrupted = false;
+        while (flusher.isAlive()) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        // El hilo terminó: su falla, si la hubo, ya es visible sin tomar el bloqueo
+        IOException error = failure != null
+                ? new IOException("Error escribiendo archivo " + fileName + ": " + failure.getMessage(), failure)
+                : null;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            if (error == null) {
+                throw e;
+            }
+            error.addSuppressed(e);
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    // ================================
+    // MÉTODOS PRIVADOS
+    // ================================
+
+    /**
+     * Ciclo del hilo de escritura: espera un lote, lo intercambia por el buffer
+     * libre y lo escribe fuera del bloqueo.
+     */
+    private void runFlusher() {
+        while (true) {
+            ByteBuffer batch;
+            long sequence;
+
+            lock.lock();
+            try {
+                while (active.position() == 0 && !closeRequested) {
+                    batchReady.awaitUninterruptibly();
+                }
+                if (active.position() == 0) {
+                    return;
+                }
+                // Dar tiempo a que otros hilos completen el lote
+                long remaining = maxDelayNanos;
+                while (remaining > 0 && active.position() < batchSize && !flushRequested && !closeRequested) {
+                    try {
+                        remaining = batchReady.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        remaining = 0;
+                    }
+                }
+
+                batch = active;
+                active = spare.capacity() >= batchSize ? spare : ByteBuffer.allocate(batchSize);
+                spare = null;
+                sequence = appendedSequence;
+                flushRequested = false;
+                spaceAvailable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = awaitPredecessor();
+            if (error == null) {
+                error = writeBatch(batch);
+            }
+
+            lock.lock();
+            try {
+                batch.clear();
+                spare = batch.capacity() == batchSize ? batch : ByteBuffer.allocate(batchSize);
+                if (error != null) {
+                    failure = error;
+                    spaceAvailable.signalAll();
+                } else {
+                    durableSequence = sequence;
+                }
+                batchWritten.signalAll();
+                if (error != null) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Espera a que los registros del escritor anterior sean durables. Solo la
+     * primera espera bloquea; después el escritor anterior se olvida.
+     *
+     * @return el error del escritor anterior, o null si sus registros son durables
+     */
+    private IOException awaitPredecessor() {
+        GroupCommitAppender previous = predecessor;
+        if (previous == null) {
+            return null;
+        }
+        try {
+            previous.flush();
+            predecessor = null;
+            return null;
+        } catch (IOException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Escribe un lote completo en el archivo con la durabilidad configurada.
+     *
+     * @param batch buffer con los registros del lote
+     * @return el error ocurrido, o null si la escritura fue exitosa
+     */
+    private IOException writeBatch(ByteBuffer batch) {
+        try {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            if (durability == Durability.FSYNC) {
+                channel.force(false);
+            }
+            return null;
+        } catch (IOException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Verifica que el escritor siga abierto. Debe llamarse con el bloqueo tomado.
+     *
+     * @throws IOException si el escritor está cerrado o falló una escritura anterior
+     */
+    private void ensureOpen() throws IOException {
+        if (failure != null) {
+            throw new IOException("Error escribiendo archivo " + fileName + ": " + failure.getMessage(), failure);
+        }
+        if (closeRequested) {
+            throw new IOException("El archivo " + fileName + " ya fue cerrado");
+        }
+    }
+
+    /**
+     * Agrega un campo CSV, entrecomillándolo si contiene el separador, comillas
+     * o saltos de línea.
+     *
+     * @param line línea en construcción
+     * @param field valor del campo
+     */
+    private static void appendEscaped(StringBuilder line, String field) {
+        if (field == null) {
+            return;
+        }
+        int start = line.length();
+        boolean needsQuoting = false;
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '"') {
+                line.append('"');
+                needsQuoting = true;
+            } else if (c == ',' || c == '\n' || c == '\r') {
+                needsQuoting = true;
+            }
+            line.append(c);
+        }
+        if (needsQuoting) {
+            line.insert(start, '"').append('"');
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library;
+
+import com.duoc.library.model.Book;
+import com.duoc.library.model.User;
+import com.duoc.library.service.LibraryService;
+
+/**
+ * Generador de datos deterministas para las pruebas.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public final class TestData {
+
+    /**
+     * Constructor privado para prevenir instanciación.
+     * Esta clase solo contiene métodos estáticos.
+     */
+    private TestData() {
+        // Utility class - no instances allowed
+    }
+
+    /**
+     * Obtiene el ISBN del libro con el índice indicado.
+     * 
+     * @param index índice del libro
+     * @return ISBN-13 válido, con dígito de control, y único para el índice
+     */
+    public static String isbn(int index) {
+        String digits = String.format("978%09d", index);
+        int sum = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            int d = digits.charAt(i) - '0';
+            sum += (i & 1) == 0 ? d : 3 * d;
+        }
+        return "978-" + digits.substring(3) + (10 - sum % 10) % 10;
+    }
+
+    /**
+     * Obtiene el ID del usuario con el índice indicado.
+     * 
+     * @param index índice del usuario
+     * @return ID único para el índice
+     */
+    public static String userId(int index) {
+        return String.format("U%05d", index);
+    }
+
+    /**
+     * Crea el libro con el índice indicado.
+     * 
+     * @param index índice del libro
+     * @return libro con ISBN {@link #isbn(int)}
+     */
+    public static Book book(int index) {
+        return new Book(isbn(index), "Titulo de prueba " + index, "Autor de prueba " + index);
+    }
+
+    /**
+     * Crea el usuario con el índice indicado.
+     * 
+     * @param index índice del usuario
+     * @return usuario con ID {@link #userId(int)}
+     */
+    public static User user(int index) {
+        return new User(userId(index), "Usuario " + index, "usuario" + index + "@duoc.cl");
+    }
+
+    /**
+     * Crea un servicio con libros y usuarios, sin préstamos.
+     * 
+     * @param bookCount cantidad de libros
+     * @param userCount cantidad de usuarios
+     * @return servicio poblado
+     */
+    public static LibraryService service(int bookCount, int userCount) {
+        LibraryService service = new LibraryService();
+        for (int i = 0; i < bookCount; i++) {
+            service.addBook(book(i));
+        }
+        for (int i = 0; i < userCount; i++) {
+            try {
+                service.addUser(user(i));
+            } catch (Exception e) {
+                throw new IllegalStateException("Datos de prueba inconsistentes: " + e.getMessage(), e);
+            }
+        }
+        return service;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.main;
+
+import com.duoc.library.TestData;
+import com.duoc.library.model.Book;
+import com.duoc.library.model.SimulatedLibraryClock;
+import com.duoc.library.service.LibraryService;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de la separación de campos, de las líneas de resultado y de los
+ * contadores de {@link BatchRunner}.
+ *
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public class BatchRunnerTest {
+
+    private LibraryService service;
+    private StringWriter output;
+    private BatchRunner runner;
+
+    @Before
+    public void setUp() {
+        service = new LibraryService(new SimulatedLibraryClock(LocalDate.of(2026, 3, 1)));
+        output = new StringWriter();
+        runner = new BatchRunner(service, new PrintWriter(output));
+    }
+
+    @Test
+    public void quotedFieldsKeepSpacesAndEscapedQuotes() throws IOException {
+        List<String> lines = run(
+                "ADD_BOOK " + TestData.isbn(1) + " \"Cien años de \"\"soledad\"\"\" \"Gabriel García Márquez\"",
+                "add_user " + TestData.userId(1) + "   \"Ana  Perez\"\tana@duoc.cl");
+
+        assertEquals(Arrays.asList("OK", "OK"), lines);
+        Book book = service.findBookByIsbn(TestData.isbn(1));
+        assertEquals("Cien años de \"soledad\"", book.getTitle());
+        assertEquals("Gabriel García Márquez", book.getAuthor());
+        assertEquals("Ana  Perez", service.lookupUser(TestData.userId(1)).getName());
+        assertCounts(2, 0, 0);
+    }
+
+    @Test
+    public void blankLinesAndCommentsAreSkipped() throws IOException {
+        List<String> lines = run(
+                "# comentario",
+                "",
+                "   \t ",
+                "   # comentario con sangria",
+                "ADD_BOOK " + TestData.isbn(2) + " Titulo #autor");
+
+        assertEquals(Arrays.asList("OK"), lines);
+        // # solo inicia un comentario como primer campo
+        assertEquals("#autor", service.findBookByIsbn(TestData.isbn(2)).getAuthor());
+        assertCounts(1, 0, 0);
+    }
+
+    @Test
+    public void unclosedQuoteIsAnErrorCountedAsCommand() throws IOException {
+        List<String> lines = run(
+                "ADD_BOOK " + TestData.isbn(3) + " \"Titulo sin cerrar Autor",
+                "STATS");
+
+        assertEquals("ERROR linea 1: Comillas sin cerrar", lines.get(0));
+        assertTrue(lines.get(1), lines.get(1).startsWith("OK "));
+        assertNull(service.findBookByIsbn(TestData.isbn(3)));
+        assertCounts(2, 0, 1);
+    }
+
+    @Test
+    public void resultLinesReportOkRejectionsAndErrors() throws IOException {
+        String isbn = TestData.isbn(4);
+        String userId = TestData.userId(4);
+        List<String> lines = run(
+                "ADD_BOOK " + isbn + " Titulo Autor",
+                "ADD_USER " + userId + " Nombre nombre@duoc.cl",
+                "LOAN " + userId + " " + isbn,
+                "LOAN " + userId + " " + isbn,
+                "RETURN_BOOK " + isbn,
+                "RETURN_BOOK " + isbn,
+                "LOAN " + userId + " " + isbn + " muchos",
+                "FIND_BOOK " + TestData.isbn(99),
+                "DESCONOCIDO",
+                "ADD_BOOK " + isbn);
+
+        assertEquals(10, lines.size());
+        assertEquals("OK", lines.get(0));
+        assertEquals("OK", lines.get(1));
+        String loanId = service.getAllLoans().get(0).getLoanId();
+        assertEquals("OK " + loanId, lines.get(2));
+        assertEquals("RECHAZADO El libro ya esta prestado", lines.get(3));
+        assertEquals("OK " + loanId, lines.get(4));
+        assertEquals("RECHAZADO El libro no tiene un prestamo activo", lines.get(5));
+        assertEquals("ERROR linea 7: Dias de prestamo invalidos: muchos", lines.get(6));
+        assertTrue(lines.get(7), lines.get(7).startsWith("ERROR linea 8: "));
+        assertEquals("ERROR linea 9: Comando desconocido: DESCONOCIDO", lines.get(8));
+        assertEquals("ERROR linea 10: Uso: ADD_BOOK <isbn> <titulo> <autor>", lines.get(9));
+        assertCounts(10, 2, 4);
+    }
+
+    @Test
+    public void returningAReturnedLoanIsRejected() throws Exception {
+        service.addBook(TestData.book(5));
+        service.addUser(TestData.user(5));
+        String loanId = service.loanBook(TestData.userId(5), TestData.isbn(5)).getLoanId();
+
+        List<String> lines = run(
+                "RETURN " + loanId,
+                "RETURN " + loanId,
+                "RETURN NO-EXISTE");
+
+        assertEquals("OK", lines.get(0));
+        assertEquals("RECHAZADO El prestamo ya fue devuelto", lines.get(1));
+        assertEquals("ERROR linea 3: Prestamo con ID 'NO-EXISTE' no encontrado", lines.get(2));
+        assertCounts(3, 1, 1);
+    }
+
+    // ================================
+    // MÉTODOS AUXILIARES
+    // ================================
+
+    /**
+     * Ejecuta las líneas de comandos y devuelve las líneas de resultado.
+     */
+    private List<String> run(String... commands) throws IOException {
+        runner.run(new BufferedReader(new StringReader(String.join("\n", commands))));
+        String text = output.toString();
+        return text.isEmpty() ? Arrays.asList() : Arrays.asList(text.split(System.lineSeparator()));
+    }
+
+    private void assertCounts(int commands, int rejected, int errors) {
+        assertEquals("comandos", commands, runner.getCommandCount());
+        assertEquals("rechazados", rejected, runner.getRejectedCount());
+        assertEquals("errores", errors, runner.getErrorCount());
+    }
+}
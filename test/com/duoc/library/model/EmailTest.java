@@ -0,0 +1,94 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.model;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de {@link Email} contra la expresión regular que reemplaza.
+ *
+ * Cada dirección debe tener el mismo resultado que el patrón usado antes por
+ * {@code User} y {@code ValidationService}: el texto completo con
+ * {@link Email#isValid(String)} y el texto recortado con
+ * {@link Email#isValidTrimmed(String)}.
+ *
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public class EmailTest {
+
+    /** Patrón anterior a {@link Email} */
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(
+        "^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\\.[A-Za-z]{2,})$"
+    );
+
+    /** Caracteres con que se generan direcciones al azar, incluidos los límites de cada clase */
+    private static final String ALPHABET = "aZz09+_.-@@..AMmy-_ \t\n\u00f1\u00c1\u0660\uff21/:,\"";
+
+    private static final String[] EXAMPLES = {
+        "usuario@duoc.cl", "Nombre.Apellido+etiqueta@sub.dominio.com", "a@b.cd", "a_b-c.d@e-f.gh",
+        "1@2.co", "...@...ab", "a@.cl", "a@b.c", "a@b.c1", "a@b.cl.", "a@@b.cl", "@b.cl", "a@",
+        "a@b", "a@b..cl", "a@-b-.cl", "a b@c.cl", "a@b.c-l", "ñ@b.cl", "a@ñ.cl", "a@b.ñl", "a@b.CL",
+        "a@b.cl\n", "\na@b.cl", "", " ", "a@b.clx", "a@b.c\u0660"
+    };
+
+    @Test
+    public void examplesMatchThePattern() {
+        for (String email : EXAMPLES) {
+            assertSameResult(email);
+            assertSameResult("  " + email + " ");
+            assertSameResult("\t" + email);
+            assertSameResult(email + "\r\n");
+        }
+    }
+
+    @Test
+    public void randomAddressesMatchThePattern() {
+        Random random = new Random(20240501L);
+        StringBuilder text = new StringBuilder();
+        for (int n = 0; n < 200_000; n++) {
+            text.setLength(0);
+            int length = random.nextInt(14);
+            for (int i = 0; i < length; i++) {
+                text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            assertSameResult(text.toString());
+        }
+    }
+
+    @Test
+    public void rangesMatchThePatternOnTheSubstring() {
+        String text = "  x usuario@duoc.cl, otro@mail.com;";
+        for (int start = 0; start <= text.length(); start++) {
+            for (int end = start; end <= text.length(); end++) {
+                String part = text.substring(start, end);
+                assertEquals("'" + part + "'", EMAIL_PATTERN.matcher(part).matches(),
+                             Email.isValid(text, start, end));
+            }
+        }
+    }
+
+    @Test
+    public void nullIsInvalid() {
+        assertFalse(Email.isValid(null));
+        assertFalse(Email.isValidTrimmed(null));
+    }
+
+    // ================================
+    // MÉTODOS AUXILIARES
+    // ================================
+
+    private static void assertSameResult(String email) {
+        String shown = "'" + email.replace("\n", "\\n").replace("\t", "\\t").replace("\r", "\\r") + "'";
+        assertEquals(shown, EMAIL_PATTERN.matcher(email).matches(), Email.isValid(email));
+        assertEquals(shown + " recortado", EMAIL_PATTERN.matcher(email.trim()).matches(),
+                     Email.isValidTrimmed(email));
+    }
+}
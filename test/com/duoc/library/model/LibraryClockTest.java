@@ -0,0 +1,160 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.model;
+
+import com.duoc.library.TestData;
+import com.duoc.library.service.LibraryService;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de {@link SystemLibraryClock} y {@link SimulatedLibraryClock}.
+ *
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public class LibraryClockTest {
+
+    private static final ZoneId SANTIAGO = ZoneId.of("America/Santiago");
+
+    @Test
+    public void cachedDateChangesAtMidnight() {
+        AdjustableClock time = new AdjustableClock(SANTIAGO);
+        SystemLibraryClock clock = new SystemLibraryClock(time);
+
+        time.set(LocalDateTime.of(2026, 6, 10, 23, 59, 59, 999_000_000));
+        assertEquals(LocalDate.of(2026, 6, 10), clock.today());
+        time.advance(1);
+        assertEquals(LocalDate.of(2026, 6, 11), clock.today());
+        time.advance(86_399_999);
+        assertEquals(LocalDate.of(2026, 6, 11), clock.today());
+        time.advance(1);
+        assertEquals(LocalDate.of(2026, 6, 12), clock.today());
+    }
+
+    @Test
+    public void cachedDateFollowsTheClockBackwards() {
+        AdjustableClock time = new AdjustableClock(SANTIAGO);
+        SystemLibraryClock clock = new SystemLibraryClock(time);
+
+        time.set(LocalDateTime.of(2026, 6, 11, 0, 0));
+        assertEquals(LocalDate.of(2026, 6, 11), clock.today());
+        time.advance(-1);
+        assertEquals(LocalDate.of(2026, 6, 10), clock.today());
+    }
+
+    @Test
+    public void daysOfDaylightSavingChangesHaveTheirLength() {
+        AdjustableClock time = new AdjustableClock(SANTIAGO);
+        SystemLibraryClock clock = new SystemLibraryClock(time);
+
+        // En Santiago los cambios de horario ocurren a medianoche: estos días no duran 24 horas
+        for (LocalDate date = LocalDate.of(2026, 1, 1); date.getYear() == 2026; date = date.plusDays(1)) {
+            long start = date.atStartOfDay(SANTIAGO).toInstant().toEpochMilli();
+            long end = date.plusDays(1).atStartOfDay(SANTIAGO).toInstant().toEpochMilli();
+            time.setMillis(start);
+            assertEquals(date, clock.today());
+            time.setMillis(end - 1);
+            assertEquals(date, clock.today());
+            time.setMillis(end);
+            assertEquals(date.plusDays(1), clock.today());
+        }
+    }
+
+    @Test
+    public void simulatedClockDrivesOverdueCounts() throws Exception {
+        SimulatedLibraryClock clock = new SimulatedLibraryClock(LocalDate.of(2026, 2, 1));
+        LibraryService service = new LibraryService(clock);
+        for (int i = 0; i < 3; i++) {
+            service.addBook(TestData.book(i));
+            service.addUser(TestData.user(i));
+        }
+        Loan week = service.loanBook(TestData.userId(0), TestData.isbn(0), 7);
+        service.loanBook(TestData.userId(1), TestData.isbn(1), 14);
+        assertEquals(0, overdue(service));
+
+        clock.advanceDays(7);
+        assertEquals(0, overdue(service));
+        clock.advanceDays(1);
+        assertEquals(1, overdue(service));
+        assertEquals(week, service.getOverdueLoans().get(0));
+
+        // Un préstamo nuevo no vence hasta su propia fecha
+        service.loanBook(TestData.userId(2), TestData.isbn(2), 1);
+        assertEquals(1, overdue(service));
+        clock.advanceDays(7);
+        assertEquals(3, overdue(service));
+
+        service.returnBook(week.getLoanId());
+        assertEquals(2, overdue(service));
+
+        // Retroceder el reloj también recalcula el contador
+        clock.setToday(LocalDate.of(2026, 2, 1));
+        assertEquals(0, overdue(service));
+    }
+
+    // ================================
+    // MÉTODOS AUXILIARES
+    // ================================
+
+    private static int overdue(LibraryService service) {
+        int count = (Integer) service.getSystemStatistics().get("overdueLoans");
+        assertEquals(service.getOverdueLoans().size(), count);
+        return count;
+    }
+
+    /**
+     * Reloj de Java cuyo instante se fija desde la prueba.
+     */
+    private static final class AdjustableClock extends Clock {
+        private final ZoneId zone;
+        private volatile long millis;
+
+        AdjustableClock(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        void set(LocalDateTime dateTime) {
+            millis = dateTime.atZone(zone).toInstant().toEpochMilli();
+        }
+
+        void setMillis(long value) {
+            millis = value;
+        }
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId newZone) {
+            AdjustableClock clock = new AdjustableClock(newZone);
+            clock.millis = millis;
+            return clock;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
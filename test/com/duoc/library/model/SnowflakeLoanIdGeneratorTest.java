@@ -0,0 +1,115 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.model;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de {@link SnowflakeLoanIdGenerator} con muchos hilos generando IDs a la vez.
+ *
+ * Cada hilo genera miles de IDs por milisegundo, de modo que la secuencia
+ * dentro de un mismo milisegundo se agota y la marca de tiempo debe avanzar
+ * por delante del reloj.
+ *
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public class SnowflakeLoanIdGeneratorTest {
+
+    private static final int THREAD_COUNT = 8;
+    private static final int IDS_PER_THREAD = 50_000;
+
+    @Test
+    public void concurrentIdsAreUniqueAndIncreasing() throws Exception {
+        SnowflakeLoanIdGenerator generator = new SnowflakeLoanIdGenerator(7);
+        List<long[]> generated = generate(generator, generator, THREAD_COUNT);
+
+        Set<Long> unique = new HashSet<>();
+        for (long[] ids : generated) {
+            for (int i = 0; i < ids.length; i++) {
+                if (i > 0) {
+                    assertTrue("IDs no crecientes en un mismo hilo", ids[i] > ids[i - 1]);
+                }
+                assertEquals(7, (ids[i] >>> 12) & SnowflakeLoanIdGenerator.MAX_NODE);
+                unique.add(ids[i]);
+            }
+        }
+        assertEquals(THREAD_COUNT * IDS_PER_THREAD, unique.size());
+    }
+
+    @Test
+    public void generatorsOnDifferentNodesNeverCollide() throws Exception {
+        List<long[]> generated = generate(new SnowflakeLoanIdGenerator(1), new SnowflakeLoanIdGenerator(2), 4);
+
+        Set<Long> unique = new HashSet<>();
+        for (long[] ids : generated) {
+            for (long id : ids) {
+                unique.add(id);
+            }
+        }
+        assertEquals(4 * IDS_PER_THREAD, unique.size());
+    }
+
+    @Test
+    public void formattedIdsSortLikeTheirNumbers() {
+        SnowflakeLoanIdGenerator generator = new SnowflakeLoanIdGenerator();
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long next = generator.nextId();
+            String text = SnowflakeLoanIdGenerator.format(next);
+            assertEquals(21, text.length());
+            assertTrue(text.startsWith("LOAN-"));
+            assertTrue(SnowflakeLoanIdGenerator.format(previous).compareTo(text) < 0);
+            assertEquals(next, Long.parseUnsignedLong(text.substring(5), 16));
+            previous = next;
+        }
+    }
+
+    // ================================
+    // MÉTODOS AUXILIARES
+    // ================================
+
+    /**
+     * Genera IDs desde varios hilos a la vez, alternando los hilos entre dos generadores.
+     */
+    private static List<long[]> generate(SnowflakeLoanIdGenerator even, SnowflakeLoanIdGenerator odd,
+                                         int threads) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                SnowflakeLoanIdGenerator generator = t % 2 == 0 ? even : odd;
+                results.add(executor.submit(() -> {
+                    long[] ids = new long[IDS_PER_THREAD];
+                    start.await();
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+            List<long[]> generated = new ArrayList<>();
+            for (Future<long[]> result : results) {
+                generated.add(result.get());
+            }
+            return generated;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
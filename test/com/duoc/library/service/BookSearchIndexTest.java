@@ -0,0 +1,97 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.service;
+
+import com.duoc.library.TestData;
+import com.duoc.library.model.Book;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de {@link BookSearchIndex} contra una búsqueda {@code contains}
+ * case-insensitive sobre todo el catálogo.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public class BookSearchIndexTest {
+
+    private static final String ALPHABET = "abcAB áñ-,'";
+
+    @Test
+    public void searchMatchesContainsAfterAddsAndRemoves() {
+        Random random = new Random(42);
+        BookSearchIndex index = new BookSearchIndex(Book::getTitle);
+        List<Book> catalog = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int length = 1 + random.nextInt(30);
+            Book book = new Book(TestData.isbn(i), "x" + randomText(random, length), "Autor");
+            catalog.add(book);
+            index.add(book);
+        }
+        for (int i = 0; i < catalog.size(); i += 3) {
+            index.remove(catalog.get(i));
+        }
+        List<Book> remaining = new ArrayList<>();
+        for (int i = 0; i < catalog.size(); i++) {
+            if (i % 3 != 0) {
+                remaining.add(catalog.get(i));
+            }
+        }
+        
+        for (int q = 0; q < 3000; q++) {
+            String term = randomText(random, 1 + random.nextInt(6)).toLowerCase().trim();
+            if (term.isEmpty()) {
+                continue;
+            }
+            Set<Book> expected = new HashSet<>();
+            for (Book book : remaining) {
+                if (book.getTitle().toLowerCase().contains(term)) {
+                    expected.add(book);
+                }
+            }
+            List<Book> actual = index.search(term);
+            assertEquals("Resultados duplicados para '" + term + "'", actual.size(), new HashSet<>(actual).size());
+            assertEquals("Busqueda '" + term + "'", expected, new HashSet<>(actual));
+        }
+    }
+
+    @Test
+    public void serviceSearchUsesCurrentCatalog() throws Exception {
+        LibraryService service = TestData.service(3, 0);
+        service.addBook(new Book(TestData.isbn(10), "Cronica de una Biblioteca", "Autora Extensa"));
+        
+        assertEquals(1, service.searchBooksByTitle("BIBLIOTECA").size());
+        assertEquals(4, service.searchBooksByTitle("e").size());
+        assertEquals(1, service.searchBooksByAuthor("extensa").size());
+        assertEquals(3, service.searchBooksByAuthor("autor de").size());
+        
+        assertTrue(service.removeBook(TestData.isbn(10)));
+        assertTrue(service.searchBooksByTitle("biblioteca").isEmpty());
+        assertEquals(3, service.searchBooksByTitle("e").size());
+    }
+
+    /**
+     * Genera un texto aleatorio con un alfabeto reducido para forzar coincidencias.
+     * 
+     * @param random generador de números aleatorios
+     * @param length largo del texto
+     * @return texto generado
+     */
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+}
\ No newline at end of file
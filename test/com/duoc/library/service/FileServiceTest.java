@@ -0,0 +1,229 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.service;
+
+import com.duoc.library.TestData;
+import com.duoc.library.exception.FileNotFoundException;
+import com.duoc.library.model.Book;
+import com.duoc.library.model.LibraryClock;
+import com.duoc.library.model.Loan;
+import com.duoc.library.model.SimulatedLibraryClock;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de las importaciones y exportaciones de {@link FileService}.
+ *
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public class FileServiceTest {
+
+    /** Archivos creados por la prueba en el directorio de trabajo */
+    private final List<Path> files = new ArrayList<>();
+
+    @After
+    public void deleteFiles() throws IOException {
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void presizedServiceLoadsBooksAndUsers() throws FileNotFoundException, IOException {
+        StringBuilder books = new StringBuilder("# catalogo\n");
+        for (int i = 0; i < 2_000; i++) {
+            books.append(TestData.isbn(i)).append(",Titulo ").append(i).append(",Autor\n");
+        }
+        StringBuilder users = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            users.append(TestData.userId(i)).append(",Usuario ").append(i)
+                 .append(",usuario").append(i).append("@duoc.cl\n");
+        }
+        String booksFile = write("libros", books.toString());
+        String usersFile = write("usuarios", users.toString());
+
+        LibraryService service = new LibraryService(LibraryClock.system(), 2_000, 300, 0);
+        assertEquals(0, service.getSystemStatistics().get("totalBooks"));
+
+        FileService fileService = new FileService(service);
+        assertEquals(2_000, fileService.loadBooksFromCSV(booksFile).getImportedRecords());
+        assertEquals(300, fileService.loadUsersFromCSV(usersFile).getImportedRecords());
+        assertEquals(2_000, service.getSystemStatistics().get("totalBooks"));
+        assertEquals(300, service.getSystemStatistics().get("totalUsers"));
+    }
+
+    @Test
+    public void exportedLoanHistoryLoadsBackUnchanged() throws Exception {
+        LibraryService service = serviceWithLoans();
+        SimulatedLibraryClock clock = (SimulatedLibraryClock) service.getClock();
+        service.addBook(new Book(TestData.isbn(500), "Cien años, \"otra\" vez", "Autor, con coma"));
+        service.loanBook(TestData.userId(3), TestData.isbn(500));
+        List<Loan> original = service.getAllLoans();
+        for (int i = 0; i < original.size(); i += 4) {
+            clock.advanceDays(i % 7);
+            service.returnBook(original.get(i).getLoanId());
+        }
+        String fileName = newFileName("historial");
+        assertEquals(91, new FileService(service).exportAllLoansToCSV(fileName).getExportedRecords());
+
+        LibraryService restored = new LibraryService(clock);
+        for (Book book : service.getAllBooks()) {
+            restored.addBook(new Book(book.getIsbn(), book.getTitle(), book.getAuthor()));
+        }
+        restored.addUsers(service.getUsersView());
+        FileService fileService = new FileService(restored);
+        FileService.ImportResult result = fileService.loadLoansFromCSV(fileName);
+
+        assertEquals(91, result.getImportedRecords());
+        assertEquals(0, result.getErrorRecords());
+        assertEquals(service.getSystemStatistics(), restored.getSystemStatistics());
+        for (Loan loan : service.getAllLoans()) {
+            Loan copy = restored.findLoanById(loan.getLoanId());
+            assertNotNull(loan.getLoanId(), copy);
+            assertEquals(loan.getUser().getId(), copy.getUser().getId());
+            assertEquals(loan.getBook().getIsbn(), copy.getBook().getIsbn());
+            assertEquals(loan.getLoanDate(), copy.getLoanDate());
+            assertEquals(loan.getDueDate(), copy.getDueDate());
+            assertEquals(loan.getReturnDate(), copy.getReturnDate());
+            // Cada libro se prestó una sola vez
+            assertEquals(loan.isActive(), !restored.findBookByIsbn(loan.getBook().getIsbn()).isAvailable());
+        }
+
+        // Una segunda carga del mismo archivo solo encuentra duplicados
+        FileService.ImportResult again = fileService.loadLoansFromCSV(fileName);
+        assertEquals(0, again.getImportedRecords());
+        assertEquals(91, again.getDuplicateRecords());
+    }
+
+    @Test
+    public void monthPartitionsHoldEachMonthsLoans() throws Exception {
+        LibraryService service = serviceWithLoans();
+        String manifest = newFileName("por-mes");
+
+        FileService.ExportResult result = new FileService(service).exportLoansByMonth(manifest);
+
+        assertEquals(90, result.getExportedRecords());
+        List<String[]> rows = readManifest(manifest);
+        assertEquals(3, rows.size());
+        assertManifestRow(rows.get(0), manifest, "2026-01", 31);
+        assertManifestRow(rows.get(1), manifest, "2026-02", 28);
+        assertManifestRow(rows.get(2), manifest, "2026-03", 31);
+    }
+
+    @Test
+    public void userHashPartitionsKeepEachUsersLoansTogether() throws Exception {
+        LibraryService service = serviceWithLoans();
+        String manifest = newFileName("por-usuario");
+        int shards = 5;
+
+        FileService.ExportResult result = new FileService(service).exportLoansByUserHash(manifest, shards);
+
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (Loan loan : service.getAllLoans()) {
+            expected.merge(Math.floorMod(loan.getUser().getId().hashCode(), shards), 1, Integer::sum);
+        }
+        assertEquals(90, result.getExportedRecords());
+        List<String[]> rows = readManifest(manifest);
+        assertEquals(shards, rows.size());
+        for (int i = 0; i < shards; i++) {
+            assertManifestRow(rows.get(i), manifest, String.format("part-%03d", i), expected.getOrDefault(i, 0));
+            for (String line : dataLines(shardFile(manifest, rows.get(i)[0]))) {
+                String userId = line.split(",")[1];
+                assertEquals(i, Math.floorMod(userId.hashCode(), shards));
+            }
+        }
+    }
+
+    // ================================
+    // MÉTODOS AUXILIARES
+    // ================================
+
+    /**
+     * Crea un archivo CSV en el directorio de trabajo, ya que los nombres de
+     * archivo CSV no admiten rutas.
+     */
+    private String write(String prefix, String content) throws IOException {
+        Path file = Files.createTempFile(Paths.get(""), prefix, ".csv");
+        files.add(file);
+        Files.writeString(file, content);
+        return file.toString();
+    }
+
+    /**
+     * Crea un servicio con 90 préstamos, uno por día desde el 1 de enero de
+     * 2026: 31 en enero, 28 en febrero y 31 en marzo.
+     */
+    private static LibraryService serviceWithLoans() throws Exception {
+        SimulatedLibraryClock clock = new SimulatedLibraryClock(LocalDate.of(2026, 1, 1));
+        LibraryService service = new LibraryService(clock);
+        for (int i = 0; i < 90; i++) {
+            service.addBook(TestData.book(i));
+        }
+        for (int i = 0; i < 7; i++) {
+            service.addUser(TestData.user(i));
+        }
+        for (int i = 0; i < 90; i++) {
+            service.loanBook(TestData.userId(i % 7), TestData.isbn(i));
+            clock.advanceDays(1);
+        }
+        return service;
+    }
+
+    /**
+     * Reserva un nombre de archivo en el directorio de trabajo para un manifiesto
+     * y registra los archivos de sus particiones para borrarlos al terminar.
+     */
+    private String newFileName(String prefix) {
+        String fileName = prefix + "-" + System.nanoTime() + ".csv";
+        files.add(Paths.get(fileName));
+        return fileName;
+    }
+
+    private Path shardFile(String manifest, String shardName) {
+        Path shard = Paths.get(shardName);
+        files.add(shard);
+        return shard;
+    }
+
+    /**
+     * Lee las filas del manifiesto, sin encabezado, y registra sus particiones
+     * para borrarlas al terminar.
+     */
+    private List<String[]> readManifest(String manifest) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        for (String line : dataLines(Paths.get(manifest))) {
+            String[] row = line.split(",");
+            shardFile(manifest, row[0]);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private void assertManifestRow(String[] row, String manifest, String label, int records) throws IOException {
+        String baseName = manifest.substring(0, manifest.length() - ".csv".length());
+        assertEquals(baseName + "_" + label + ".csv", row[0]);
+        assertEquals(label, row[1]);
+        assertEquals(String.valueOf(records), row[2]);
+        assertEquals(label, records, dataLines(shardFile(manifest, row[0])).size());
+    }
+
+    private static List<String> dataLines(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file);
+        return lines.subList(1, lines.size());
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.service;
+
+import com.duoc.library.TestData;
+import com.duoc.library.model.Loan;
+import com.duoc.library.model.SimulatedLibraryClock;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de la reproducción de {@link LibraryJournal} y del rechazo de
+ * operaciones cuando el diario no puede registrarlas.
+ *
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public class LibraryJournalTest {
+
+    /** Los nombres del diario no admiten rutas: los segmentos quedan en el directorio de trabajo */
+    private final String journalName = "prueba-diario-" + System.nanoTime() + ".journal";
+
+    private final SimulatedLibraryClock clock = new SimulatedLibraryClock(LocalDate.of(2026, 3, 1));
+
+    @After
+    public void deleteSegments() throws IOException {
+        for (Path segment : segments()) {
+            Files.deleteIfExists(segment);
+        }
+    }
+
+    @Test
+    public void replayRebuildsTheSameStatistics() throws Exception {
+        LibraryService service = new LibraryService(clock);
+        try (LibraryJournal journal = new LibraryJournal(journalName, 4096, 1)) {
+            service.setJournal(journal);
+            runOperations(service);
+        }
+
+        LibraryService restored = new LibraryService(clock);
+        LibraryJournal.ReplayResult result = LibraryJournal.replay(journalName, restored);
+
+        assertEquals(0, result.getTruncatedBytes());
+        assertEquals(service.getSystemStatistics(), restored.getSystemStatistics());
+        assertEquals(service.getAllLoans().size(), restored.getAllLoans().size());
+        for (Loan loan : service.getAllLoans()) {
+            Loan copy = restored.findLoanById(loan.getLoanId());
+            assertNotNull(loan.getLoanId(), copy);
+            assertEquals(loan.getDueDate(), copy.getDueDate());
+            assertEquals(loan.getReturnDate(), copy.getReturnDate());
+        }
+        assertNull(restored.findBookByIsbn(TestData.isbn(39)));
+        assertNull(restored.lookupUser(TestData.userId(9)));
+    }
+
+    @Test
+    public void tornTailOfLastSegmentIsTruncated() throws Exception {
+        LibraryService service = new LibraryService(clock);
+        try (LibraryJournal journal = new LibraryJournal(journalName, 4096, 1)) {
+            service.setJournal(journal);
+            runOperations(service);
+        }
+        Path segment = segments().get(0);
+        long validSize = Files.size(segment);
+        // Registro de 100 bytes interrumpido tras sus primeros bytes
+        Files.write(segment, new byte[] {0, 0, 0, 100, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        LibraryService restored = new LibraryService(clock);
+        LibraryJournal.ReplayResult result = LibraryJournal.replay(journalName, restored);
+
+        assertEquals(7, result.getTruncatedBytes());
+        assertEquals(validSize, Files.size(segment));
+        assertEquals(service.getSystemStatistics(), restored.getSystemStatistics());
+    }
+
+    @Test
+    public void damageInEarlierSegmentIsAnError() throws Exception {
+        LibraryService service = new LibraryService(clock);
+        try (LibraryJournal journal = new LibraryJournal(journalName, 4096, 1)) {
+            service.setJournal(journal);
+            service.addBook(TestData.book(0));
+            journal.rotate();
+            service.addBook(TestData.book(1));
+        }
+        List<Path> segments = segments();
+        assertEquals(2, segments.size());
+        // Invertir un bit del contenido del primer registro
+        byte[] data = Files.readAllBytes(segments.get(0));
+        data[6] ^= 1;
+        Files.write(segments.get(0), data);
+
+        try {
+            LibraryJournal.replay(journalName, new LibraryService(clock));
+            fail("Se esperaba un error por el segmento danado");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Segmento del diario danado"));
+        }
+    }
+
+    @Test
+    public void failedJournalRejectsOperationsWithoutApplyingThem() throws Exception {
+        LibraryService service = new LibraryService(clock);
+        for (int i = 0; i < 2; i++) {
+            service.addBook(TestData.book(i));
+            service.addUser(TestData.user(i));
+        }
+        Loan loan = service.loanBook(TestData.userId(0), TestData.isbn(0));
+        LibraryJournal journal = new LibraryJournal(journalName, 4096, 1);
+        service.setJournal(journal);
+        journal.close();
+        Object statistics = service.getSystemStatistics();
+
+        assertRejected(() -> service.addBook(TestData.book(5)));
+        assertRejected(() -> service.addUser(TestData.user(5)));
+        assertRejected(() -> service.loanBook(TestData.userId(1), TestData.isbn(1)));
+        assertRejected(() -> service.returnBook(loan.getLoanId()));
+        assertRejected(() -> service.removeBook(TestData.isbn(1)));
+        assertRejected(() -> service.removeUser(TestData.userId(1)));
+
+        assertEquals(statistics, service.getSystemStatistics());
+        assertNull(service.findBookByIsbn(TestData.isbn(5)));
+        assertNull(service.lookupUser(TestData.userId(5)));
+        assertTrue(loan.isActive());
+        assertTrue(service.findBookByIsbn(TestData.isbn(1)).isAvailable());
+        assertEquals(1, service.getAllLoans().size());
+    }
+
+    // ================================
+    // MÉTODOS AUXILIARES
+    // ================================
+
+    @FunctionalInterface
+    private interface Operation {
+        void run() throws Exception;
+    }
+
+    private static void assertRejected(Operation operation) throws Exception {
+        try {
+            operation.run();
+            fail("Se esperaba el rechazo del diario");
+        } catch (UncheckedIOException e) {
+            // Esperado
+        }
+    }
+
+    /**
+     * Registra libros y usuarios, préstamos a lo largo de varios días (algunos
+     * vencidos), devoluciones y eliminaciones.
+     */
+    private void runOperations(LibraryService service) throws Exception {
+        for (int i = 0; i < 40; i++) {
+            service.addBook(TestData.book(i));
+        }
+        for (int i = 0; i < 10; i++) {
+            service.addUser(TestData.user(i));
+        }
+        List<Loan> loans = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            loans.add(service.loanBook(TestData.userId(i % 9), TestData.isbn(i), 1 + i % 20));
+            clock.advanceDays(1);
+        }
+        for (int i = 0; i < loans.size(); i += 3) {
+            service.returnBook(loans.get(i).getLoanId());
+        }
+        // Devuelto y vuelto a prestar
+        service.loanBook(TestData.userId(1), TestData.isbn(0), 7);
+        assertTrue(service.removeBook(TestData.isbn(39)));
+        assertTrue(service.removeUser(TestData.userId(9)));
+    }
+
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get("").toAbsolutePath(),
+                                                                    journalName + ".*")) {
+            files.forEach(segments::add);
+        }
+        segments.sort(null);
+        return segments;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.service;
+
+import com.duoc.library.TestData;
+import com.duoc.library.exception.BookAlreadyLoanedException;
+import com.duoc.library.exception.InvalidUserException;
+import com.duoc.library.model.Book;
+import com.duoc.library.model.Loan;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de {@link LibraryService} bajo préstamos y devoluciones concurrentes.
+ * 
+ * Varios hilos prestan y devuelven libros elegidos al azar entre unos pocos
+ * ISBN, de modo que compiten constantemente por los mismos bloqueos. Cada hilo
+ * registra cuántos titulares tiene cada libro: un préstamo exitoso sobre un
+ * libro que ya tiene titular demostraría un préstamo doble.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public class LibraryServiceConcurrencyTest {
+
+    private static final int BOOK_COUNT = 32;
+    private static final int USER_COUNT = 64;
+    private static final int THREAD_COUNT = 16;
+    private static final int OPERATIONS_PER_THREAD = 20000;
+
+    @Test
+    public void concurrentLoansNeverLendABookTwice() throws Exception {
+        LibraryService service = TestData.service(BOOK_COUNT, USER_COUNT);
+        AtomicIntegerArray holders = new AtomicIntegerArray(BOOK_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            results.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                List<Loan> held = new ArrayList<>();
+                List<Integer> heldIndexes = new ArrayList<>();
+                int loans = 0;
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    if (!held.isEmpty() && random.nextBoolean()) {
+                        int slot = random.nextInt(held.size());
+                        // El contador baja antes de devolver: otro hilo puede prestarlo enseguida
+                        holders.decrementAndGet(heldIndexes.remove(slot));
+                        service.returnBook(held.remove(slot).getLoanId());
+                        continue;
+                    }
+                    int index = random.nextInt(BOOK_COUNT);
+                    try {
+                        Loan loan = service.loanBook(TestData.userId(random.nextInt(USER_COUNT)),
+                                                     TestData.isbn(index));
+                        assertEquals("Libro prestado dos veces: " + TestData.isbn(index),
+                                     1, holders.incrementAndGet(index));
+                        held.add(loan);
+                        heldIndexes.add(index);
+                        loans++;
+                    } catch (BookAlreadyLoanedException e) {
+                        // Resultado esperado cuando otro hilo tiene el libro
+                    }
+                }
+                return loans;
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue("Los hilos no terminaron a tiempo", executor.awaitTermination(2, TimeUnit.MINUTES));
+        
+        int totalLoans = 0;
+        for (Future<Integer> result : results) {
+            totalLoans += result.get();
+        }
+        assertTrue("La prueba no generó contención suficiente", totalLoans > THREAD_COUNT);
+        assertServiceConsistent(service, holders);
+        assertEquals(totalLoans, service.getAllLoans().size());
+    }
+
+    @Test
+    public void userLookupsTolerateNullAndSurroundingSpaces() throws Exception {
+        LibraryService service = TestData.service(1, 2);
+        
+        assertFalse(service.removeUser(null));
+        assertFalse(service.removeUser("   "));
+        assertTrue(service.getUserActiveLoans(null).isEmpty());
+        try {
+            service.getUserLoans(null);
+            fail("Se esperaba InvalidUserException");
+        } catch (InvalidUserException e) {
+            assertEquals(InvalidUserException.ErrorType.USER_NOT_FOUND, e.getErrorType());
+        }
+        
+        service.loanBook(TestData.userId(0), TestData.isbn(0));
+        assertEquals(1, service.getUserLoans(" " + TestData.userId(0) + " ").size());
+        assertEquals(1, service.getUserActiveLoans(" " + TestData.userId(0) + " ").size());
+        assertTrue(service.removeUser(" " + TestData.userId(1) + " "));
+        assertNull(service.lookupUser(TestData.userId(1)));
+    }
+
+    /**
+     * Verifica que los índices del servicio coincidan con los titulares registrados.
+     * 
+     * @param service servicio a verificar
+     * @param holders cantidad de titulares de cada libro según los hilos
+     */
+    private static void assertServiceConsistent(LibraryService service, AtomicIntegerArray holders) {
+        Set<String> loanedIsbns = new HashSet<>();
+        for (Loan loan : service.getActiveLoans()) {
+            assertTrue("ISBN con dos prestamos activos: " + loan.getBook().getIsbn(),
+                       loanedIsbns.add(loan.getBook().getIsbnKey()));
+            assertFalse(loan.getBook().isAvailable());
+        }
+        for (int i = 0; i < BOOK_COUNT; i++) {
+            Book book = service.findBookByIsbn(TestData.isbn(i));
+            assertEquals(holders.get(i) == 1, !book.isAvailable());
+            assertEquals(!book.isAvailable(), loanedIsbns.contains(book.getIsbnKey()));
+        }
+        assertEquals(loanedIsbns.size(), service.getSystemStatistics().get("activeLoans"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,163 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.service;
+
+import com.duoc.library.TestData;
+import com.duoc.library.model.Loan;
+import com.duoc.library.model.SimulatedLibraryClock;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de la restauración con {@link LibrarySnapshot}: la instantánea más
+ * los segmentos del diario posteriores a ella deben reconstruir el mismo estado.
+ *
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public class LibrarySnapshotTest {
+
+    /** Los nombres de archivo no admiten rutas: los archivos quedan en el directorio de trabajo */
+    private final String prefix = "prueba-instantanea-" + System.nanoTime();
+    private final String snapshotName = prefix + ".snapshot";
+    private final String journalName = prefix + ".journal";
+
+    private final SimulatedLibraryClock clock = new SimulatedLibraryClock(LocalDate.of(2026, 5, 1));
+
+    @After
+    public void deleteFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get("").toAbsolutePath(), prefix + ".*")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    public void snapshotPlusJournalTailRebuildsTheState() throws Exception {
+        LibraryService service = new LibraryService(clock);
+        List<Loan> loans = new ArrayList<>();
+        try (LibraryJournal journal = new LibraryJournal(journalName, 4096, 1)) {
+            service.setJournal(journal);
+            for (int i = 0; i < 20; i++) {
+                service.addBook(TestData.book(i));
+                service.addUser(TestData.user(i));
+            }
+            for (int i = 0; i < 10; i++) {
+                loans.add(service.loanBook(TestData.userId(i), TestData.isbn(i)));
+                clock.advanceDays(2);
+            }
+            new LibrarySnapshot(service, journal, snapshotName).write();
+
+            // Cola del diario: altas, préstamos, devoluciones y bajas posteriores
+            service.addBook(TestData.book(20));
+            service.returnBook(loans.get(0).getLoanId());
+            service.returnBook(loans.get(1).getLoanId());
+            service.loanBook(TestData.userId(15), TestData.isbn(20));
+            clock.advanceDays(10);
+            assertTrue(service.removeBook(TestData.isbn(19)));
+            assertTrue(service.removeUser(TestData.userId(19)));
+        }
+
+        LibraryService restored = new LibraryService(clock);
+        LibrarySnapshot.RestoreResult result = LibrarySnapshot.restore(restored, snapshotName, journalName);
+
+        assertTrue(result.isSnapshotFound());
+        assertEquals(10, result.getSnapshot().getLoanCount());
+        assertEquals(6, result.getReplay().getRecordCount());
+        assertEquals(service.getSystemStatistics(), restored.getSystemStatistics());
+        assertFalse(restored.findLoanById(loans.get(0).getLoanId()).isActive());
+        assertTrue(restored.findLoanById(loans.get(2).getLoanId()).isActive());
+    }
+
+    @Test
+    public void returnInSnapshotAndJournalIsAppliedOnce() throws Exception {
+        LibraryService service = new LibraryService(clock);
+        Loan loan;
+        byte[] tail;
+        try (LibraryJournal journal = new LibraryJournal(journalName, 4096, 1)) {
+            service.setJournal(journal);
+            service.addBook(TestData.book(0));
+            service.addUser(TestData.user(0));
+            loan = service.loanBook(TestData.userId(0), TestData.isbn(0));
+            LibrarySnapshot snapshot = new LibrarySnapshot(service, journal, snapshotName);
+            snapshot.write();
+
+            clock.advanceDays(3);
+            service.returnBook(loan.getLoanId());
+            journal.flush();
+            tail = Files.readAllBytes(segment(journal.getGeneration()));
+
+            // La nueva instantánea ya incluye la devolución
+            snapshot.write();
+        }
+        // Una devolución registrada mientras se escribía la instantánea queda en
+        // ella y también en el segmento que sigue a la instantánea
+        long generation;
+        try (LibraryJournal journal = new LibraryJournal(journalName)) {
+            generation = journal.getGeneration();
+        }
+        Files.write(segment(generation), tail);
+
+        LibraryService restored = new LibraryService(clock);
+        LibrarySnapshot.RestoreResult result = LibrarySnapshot.restore(restored, snapshotName, journalName);
+
+        assertEquals(1, result.getReplay().getRecordCount());
+        Loan copy = restored.findLoanById(loan.getLoanId());
+        assertFalse(copy.isActive());
+        assertEquals(loan.getReturnDate(), copy.getReturnDate());
+        assertTrue(restored.findBookByIsbn(TestData.isbn(0)).isAvailable());
+        assertEquals(service.getSystemStatistics(), restored.getSystemStatistics());
+    }
+
+    @Test
+    public void removedBooksAndUsersAreKeptForTheLoanHistory() throws Exception {
+        LibraryService service = new LibraryService(clock);
+        for (int i = 0; i < 3; i++) {
+            service.addBook(TestData.book(i));
+            service.addUser(TestData.user(i));
+        }
+        Loan loan = service.loanBook(TestData.userId(1), TestData.isbn(1));
+        clock.advanceDays(5);
+        service.returnBook(loan.getLoanId());
+        assertTrue(service.removeBook(TestData.isbn(1)));
+        assertTrue(service.removeUser(TestData.userId(1)));
+
+        LibrarySnapshot.SnapshotResult written = new LibrarySnapshot(service, null, snapshotName).write();
+        LibraryService restored = new LibraryService(clock);
+        LibrarySnapshot.restore(restored, snapshotName, journalName);
+
+        assertEquals(2, written.getBookCount());
+        assertEquals(2, written.getUserCount());
+        assertNull(restored.findBookByIsbn(TestData.isbn(1)));
+        assertNull(restored.lookupUser(TestData.userId(1)));
+        Loan copy = restored.findLoanById(loan.getLoanId());
+        assertEquals(TestData.userId(1), copy.getUser().getId());
+        assertEquals(TestData.user(1).getEmail(), copy.getUser().getEmail());
+        assertEquals(TestData.isbn(1), copy.getBook().getIsbn());
+        assertEquals(TestData.book(1).getTitle(), copy.getBook().getTitle());
+        assertEquals(loan.getReturnDate(), copy.getReturnDate());
+        assertEquals(service.getSystemStatistics(), restored.getSystemStatistics());
+    }
+
+    // ================================
+    // MÉTODOS AUXILIARES
+    // ================================
+
+    private Path segment(long generation) {
+        return Paths.get(journalName + "." + generation);
+    }
+}
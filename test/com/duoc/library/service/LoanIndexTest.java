@@ -0,0 +1,114 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.service;
+
+import com.duoc.library.TestData;
+import com.duoc.library.model.Loan;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del índice de préstamos por ID usado por
+ * {@link LibraryService#findLoanById(String)} y {@link LibraryService#returnBook(String)}.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public class LoanIndexTest {
+
+    @Test
+    public void findLoanByIdFindsActiveAndReturnedLoans() throws Exception {
+        LibraryService service = TestData.service(50, 5);
+        List<Loan> loans = new ArrayList<>();
+        for (int round = 0; round < 4; round++) {
+            for (int i = 0; i < 50; i++) {
+                Loan loan = service.loanBook(TestData.userId(i % 5), TestData.isbn(i));
+                loans.add(loan);
+                if (round < 3) {
+                    service.returnBook(loan.getLoanId());
+                }
+            }
+        }
+        
+        for (Loan loan : loans) {
+            assertSame(loan, service.findLoanById(loan.getLoanId()));
+        }
+        assertEquals(loans.size(), service.getAllLoans().size());
+        assertEquals(50, service.getActiveLoans().size());
+        assertNull(service.findLoanById("LOAN-NO-EXISTE"));
+        assertNull(service.findLoanById(null));
+    }
+
+    @Test
+    public void returnBookUpdatesTheIndexedLoan() throws Exception {
+        LibraryService service = TestData.service(1, 1);
+        Loan loan = service.loanBook(TestData.userId(0), TestData.isbn(0));
+        
+        service.returnBook(" " + loan.getLoanId() + " ");
+        assertFalse(service.findLoanById(loan.getLoanId()).isActive());
+        assertTrue(service.findBookByIsbn(TestData.isbn(0)).isAvailable());
+        
+        try {
+            service.returnBook(loan.getLoanId());
+            fail("Se esperaba IllegalArgumentException al devolver dos veces");
+        } catch (IllegalArgumentException e) {
+            // Esperado
+        }
+        try {
+            service.returnBook("LOAN-NO-EXISTE");
+            fail("Se esperaba IllegalArgumentException para un prestamo inexistente");
+        } catch (IllegalArgumentException e) {
+            // Esperado
+        }
+    }
+
+    @Test
+    public void concurrentLoansGetUniqueIndexedIds() throws Exception {
+        final int threads = 8;
+        final int booksPerThread = 500;
+        final int rounds = 10;
+        LibraryService service = TestData.service(threads * booksPerThread, threads);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<Loan>>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int first = t * booksPerThread;
+            final String userId = TestData.userId(t);
+            results.add(executor.submit(() -> {
+                List<Loan> created = new ArrayList<>();
+                for (int round = 0; round < rounds; round++) {
+                    for (int i = first; i < first + booksPerThread; i++) {
+                        Loan loan = service.loanBook(userId, TestData.isbn(i));
+                        service.returnBook(loan.getLoanId());
+                        created.add(loan);
+                    }
+                }
+                return created;
+            }));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        
+        Set<String> ids = new HashSet<>();
+        for (Future<List<Loan>> result : results) {
+            for (Loan loan : result.get()) {
+                assertTrue("ID de prestamo repetido: " + loan.getLoanId(), ids.add(loan.getLoanId()));
+                assertSame(loan, service.findLoanById(loan.getLoanId()));
+            }
+        }
+        assertEquals(threads * booksPerThread * rounds, ids.size());
+        assertEquals(ids.size(), service.getAllLoans().size());
+    }
+}
\ No newline at end of file
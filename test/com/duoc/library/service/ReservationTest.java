@@ -0,0 +1,187 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.service;
+
+import com.duoc.library.TestData;
+import com.duoc.library.exception.InvalidUserException;
+import com.duoc.library.model.Loan;
+import com.duoc.library.model.LoanIdGenerator;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de las reservas de {@link LibraryService#reserveBook(String, String)}.
+ *
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public class ReservationTest {
+
+    private static final int WAITER_COUNT = 32;
+
+    @Test
+    public void returnedBookGoesToTheOldestHold() throws Exception {
+        LibraryService service = TestData.service(1, 4);
+        Loan loan = service.loanBook(TestData.userId(0), TestData.isbn(0));
+        List<CompletableFuture<Loan>> holds = reserve(service, 1, 2, 3);
+        assertEquals(3, service.getReservationCount(TestData.isbn(0)));
+
+        for (int i = 0; i < holds.size(); i++) {
+            service.returnBook(loan.getLoanId());
+            loan = holds.get(i).getNow(null);
+            assertNotNull("Reserva " + (i + 1), loan);
+            assertEquals(TestData.userId(i + 1), loan.getUser().getId());
+            assertSame(loan, service.findActiveLoanByIsbn(TestData.isbn(0)));
+            for (int j = i + 1; j < holds.size(); j++) {
+                assertFalse(holds.get(j).isDone());
+            }
+            assertEquals(holds.size() - i - 1, service.getReservationCount(TestData.isbn(0)));
+        }
+
+        service.returnBook(loan.getLoanId());
+        assertTrue(service.findBookByIsbn(TestData.isbn(0)).isAvailable());
+    }
+
+    @Test
+    public void cancelledHoldsAreSkipped() throws Exception {
+        LibraryService service = TestData.service(1, 4);
+        Loan loan = service.loanBook(TestData.userId(0), TestData.isbn(0));
+        List<CompletableFuture<Loan>> holds = reserve(service, 1, 2, 3);
+
+        assertTrue(holds.get(0).cancel(false));
+        assertTrue(holds.get(1).cancel(false));
+        assertEquals(1, service.getReservationCount(TestData.isbn(0)));
+
+        service.returnBook(loan.getLoanId());
+        assertEquals(TestData.userId(3), holds.get(2).getNow(null).getUser().getId());
+        assertEquals(0, service.getReservationCount(TestData.isbn(0)));
+        assertEquals(2, service.getAllLoans().size());
+    }
+
+    @Test
+    public void loanOfHoldCancelledDuringHandoffIsReturned() throws Exception {
+        LibraryService service = TestData.service(1, 3);
+        AtomicReference<Runnable> beforeNextId = new AtomicReference<>();
+        LoanIdGenerator ids = Loan.defaultIdGenerator();
+        service.setLoanIdGenerator(() -> {
+            Runnable action = beforeNextId.getAndSet(null);
+            if (action != null) {
+                action.run();
+            }
+            return ids.nextLoanId();
+        });
+        Loan loan = service.loanBook(TestData.userId(0), TestData.isbn(0));
+        List<CompletableFuture<Loan>> holds = reserve(service, 1, 2);
+
+        // La reserva se cancela mientras se le asigna el libro, antes de entregar el préstamo
+        beforeNextId.set(() -> holds.get(0).cancel(false));
+        service.returnBook(loan.getLoanId());
+
+        assertTrue(holds.get(0).isCancelled());
+        Loan next = holds.get(1).getNow(null);
+        assertEquals(TestData.userId(2), next.getUser().getId());
+        assertSame(next, service.findActiveLoanByIsbn(TestData.isbn(0)));
+
+        List<Loan> history = service.getAllLoans();
+        assertEquals(3, history.size());
+        Loan cancelled = history.get(1);
+        assertEquals(TestData.userId(1), cancelled.getUser().getId());
+        assertFalse(cancelled.isActive());
+        assertTrue(service.getUserActiveLoans(TestData.userId(1)).isEmpty());
+    }
+
+    @Test
+    public void holdsOfRemovedUsersAreRejected() throws Exception {
+        LibraryService service = TestData.service(1, 3);
+        Loan loan = service.loanBook(TestData.userId(0), TestData.isbn(0));
+        List<CompletableFuture<Loan>> holds = reserve(service, 1, 2);
+
+        assertTrue(service.removeUser(TestData.userId(1)));
+        service.returnBook(loan.getLoanId());
+
+        try {
+            holds.get(0).get();
+            fail("Se esperaba el rechazo de la reserva");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof InvalidUserException);
+        }
+        assertEquals(TestData.userId(2), holds.get(1).getNow(null).getUser().getId());
+
+        try {
+            service.reserveBook(TestData.userId(1), TestData.isbn(0));
+            fail("Un usuario eliminado no puede reservar");
+        } catch (InvalidUserException e) {
+            // Esperado
+        }
+    }
+
+    @Test
+    public void manyWaitersOnOneBookEachGetItOnce() throws Exception {
+        LibraryService service = TestData.service(1, WAITER_COUNT + 1);
+        Loan first = service.loanBook(TestData.userId(0), TestData.isbn(0));
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(WAITER_COUNT);
+        try {
+            List<Future<Loan>> results = new ArrayList<>();
+            for (int i = 1; i <= WAITER_COUNT; i++) {
+                String userId = TestData.userId(i);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    Loan loan = service.reserveBook(userId, TestData.isbn(0)).get(30, TimeUnit.SECONDS);
+                    assertSame(loan, service.findActiveLoanByIsbn(TestData.isbn(0)));
+                    service.returnBook(loan.getLoanId());
+                    return loan;
+                }));
+            }
+            start.countDown();
+            while (service.getReservationCount(TestData.isbn(0)) < WAITER_COUNT) {
+                Thread.sleep(1);
+            }
+            service.returnBook(first.getLoanId());
+
+            Set<String> borrowers = new HashSet<>();
+            for (Future<Loan> result : results) {
+                assertTrue(borrowers.add(result.get(30, TimeUnit.SECONDS).getUser().getId()));
+            }
+            assertEquals(WAITER_COUNT, borrowers.size());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(WAITER_COUNT + 1, service.getAllLoans().size());
+        assertEquals(0, service.getReservationCount(TestData.isbn(0)));
+        assertTrue(service.findBookByIsbn(TestData.isbn(0)).isAvailable());
+        assertNull(service.findActiveLoanByIsbn(TestData.isbn(0)));
+    }
+
+    // ================================
+    // MÉTODOS AUXILIARES
+    // ================================
+
+    private static List<CompletableFuture<Loan>> reserve(LibraryService service, int... users) throws Exception {
+        List<CompletableFuture<Loan>> holds = new ArrayList<>();
+        for (int user : users) {
+            CompletableFuture<Loan> hold = service.reserveBook(TestData.userId(user), TestData.isbn(0));
+            assertFalse(hold.isDone());
+            holds.add(hold);
+        }
+        return holds;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.util;
+
+import com.duoc.library.TestData;
+import com.duoc.library.model.Book;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de la lectura paralela por bloques de {@link CSVReader}.
+ *
+ * Con un tamaño de bloque de pocos bytes, el archivo se divide en muchos
+ * bloques y las líneas inválidas quedan a ambos lados de cada corte; los
+ * errores deben reportarse con el mismo número de línea que en la lectura
+ * secuencial.
+ *
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public class CsvParallelReadTest {
+
+    private Path file;
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() throws IOException {
+        // Los nombres de archivo CSV no admiten rutas: el archivo queda en el directorio de trabajo
+        file = Files.createTempFile(Paths.get(""), "prueba-paralela", ".csv");
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        pool.shutdownNow();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void errorLineNumbersMatchSequentialReadAcrossChunks() throws IOException {
+        StringBuilder text = new StringBuilder("# catalogo\n");
+        List<Integer> expectedErrors = new ArrayList<>();
+        int line = 1;
+        for (int i = 0; i < 300; i++) {
+            line++;
+            if (i % 5 == 1) {
+                text.append("linea invalida ").append(i);
+                expectedErrors.add(line);
+            } else if (i % 11 == 0) {
+                text.append(TestData.isbn(i)).append(",,Autor");
+                expectedErrors.add(line);
+            } else if (i % 13 == 0) {
+                text.append("# comentario ").append(i);
+            } else if (i % 17 == 0) {
+                text.append("   ");
+            } else {
+                text.append(TestData.isbn(i)).append(",Titulo ").append(i).append(",Autor ").append(i);
+            }
+            text.append(i % 3 == 0 ? "\r\n" : i % 7 == 0 ? "\r" : "\n");
+        }
+        Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<Book> sequential = new ArrayList<>();
+        String sequentialErrors = captureErrors(
+                () -> CSVReader.readBooksFromCSV(file.toString(), sequential::add));
+        List<Book> parallel = new ArrayList<>();
+        String parallelErrors = captureErrors(
+                () -> parallel.addAll(CSVReader.readBooksFromCSVParallel(file.toString(), pool, 16)));
+
+        assertEquals(expectedErrors, errorLines(sequentialErrors));
+        assertEquals(sequentialErrors, parallelErrors);
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).getIsbn(), parallel.get(i).getIsbn());
+            assertEquals(sequential.get(i).getTitle(), parallel.get(i).getTitle());
+        }
+    }
+
+    @Test
+    public void everyChunkSizeReportsTheSameLines() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            text.append(i % 2 == 0 ? "a,b\n" : TestData.isbn(i) + ",T,A\n");
+        }
+        Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+
+        String expected = captureErrors(() -> CSVReader.readBooksFromCSV(file.toString(), book -> { }));
+        for (int chunkSize = 1; chunkSize <= 64; chunkSize++) {
+            int size = chunkSize;
+            String errors = captureErrors(
+                    () -> assertEquals(20, CSVReader.readBooksFromCSVParallel(file.toString(), pool, size).size()));
+            assertEquals("Bloque de " + chunkSize + " bytes", expected, errors);
+        }
+    }
+
+    // ================================
+    // MÉTODOS AUXILIARES
+    // ================================
+
+    @FunctionalInterface
+    private interface IoAction {
+        void run() throws IOException;
+    }
+
+    private static String captureErrors(IoAction action) throws IOException {
+        PrintStream original = System.err;
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(errors, true, StandardCharsets.UTF_8));
+        try {
+            action.run();
+        } finally {
+            System.setErr(original);
+        }
+        return errors.toString(StandardCharsets.UTF_8);
+    }
+
+    private static List<Integer> errorLines(String errors) {
+        List<Integer> lines = new ArrayList<>();
+        for (String message : errors.split(System.lineSeparator())) {
+            if (message.startsWith("Error en linea ")) {
+                lines.add(Integer.parseInt(message.substring(15, message.indexOf(':'))));
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.util;
+
+import com.duoc.library.TestData;
+import com.duoc.library.model.Book;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de equivalencia entre los modos de lectura {@code STREAM} y {@code MAPPED}.
+ * 
+ * Ambos modos deben separar las líneas igual que {@link BufferedReader#readLine()},
+ * también cuando un terminador "\r\n" o una secuencia UTF-8 quedan partidos
+ * entre dos buffers o ventanas.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public class CsvReadModeTest {
+
+    private Path file;
+
+    @Before
+    public void createFile() throws IOException {
+        // Los nombres de archivo CSV no admiten rutas: el archivo queda en el directorio de trabajo
+        file = Files.createTempFile(Paths.get(""), "prueba-modos", ".csv");
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void smallBuffersAndWindowsSplitLinesLikeBufferedReader() throws IOException {
+        Random random = new Random(9);
+        String[] pieces = {"a", "ñ", "€", ",", "\"", "#", " ", "\n", "\r", "\r\n", "\r\n\r\n"};
+        for (int n = 0; n < 2_000; n++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int i = 0; i < length; i++) {
+                text.append(pieces[random.nextInt(pieces.length)]);
+            }
+            byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+            Files.write(file, bytes);
+            
+            List<String> expected = referenceLines(bytes);
+            int size = 1 + random.nextInt(8);
+            assertEquals("Flujo, buffer " + size, expected,
+                         lines(new CsvLineReader(new ByteArrayInputStream(bytes), size)));
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                assertEquals("Mapeado, ventana " + size, expected,
+                             lines(new CsvLineReader(channel, size)));
+            }
+        }
+    }
+
+    @Test
+    public void booksAreTheSameInBothModes() throws IOException {
+        StringBuilder text = new StringBuilder("# catalogo\r\n\r\n");
+        for (int i = 0; i < 5_000; i++) {
+            text.append(TestData.isbn(i)).append(",\"Título, ").append(i).append("\",'Autor ''")
+                .append(i % 7).append("'").append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        text.append(TestData.isbn(5_000)).append(",Sin salto final,Autor");
+        Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+        
+        List<Book> stream = new ArrayList<>();
+        List<Book> mapped = new ArrayList<>();
+        assertEquals(5_001, CSVReader.readBooksFromCSV(file.toString(), CSVReader.ReadMode.STREAM, stream::add));
+        assertEquals(5_001, CSVReader.readBooksFromCSV(file.toString(), CSVReader.ReadMode.MAPPED, mapped::add));
+        
+        for (int i = 0; i < stream.size(); i++) {
+            Book a = stream.get(i);
+            Book b = mapped.get(i);
+            assertEquals(a.getIsbn(), b.getIsbn());
+            assertEquals(a.getTitle(), b.getTitle());
+            assertEquals(a.getAuthor(), b.getAuthor());
+        }
+        assertEquals("Título, 4", stream.get(4).getTitle());
+        assertEquals("Autor '4", stream.get(4).getAuthor());
+        
+        List<String[]> generic = new ArrayList<>();
+        CSVReader.readGenericCSV(file.toString(), CSVReader.ReadMode.MAPPED, generic::add);
+        assertEquals(5_001, generic.size());
+        assertEquals(CSVReader.countDataLines(file.toString(), CSVReader.ReadMode.STREAM),
+                     CSVReader.countDataLines(file.toString(), CSVReader.ReadMode.MAPPED));
+    }
+
+    @Test
+    public void emptyFileHasNoRecordsInEitherMode() throws IOException {
+        for (CSVReader.ReadMode mode : CSVReader.ReadMode.values()) {
+            assertEquals(0, CSVReader.readBooksFromCSV(file.toString(), mode, book -> fail()));
+        }
+    }
+
+    // ================================
+    // MÉTODOS AUXILIARES
+    // ================================
+
+    private static List<String> lines(CsvLineReader reader) throws IOException {
+        List<String> result = new ArrayList<>();
+        try (reader) {
+            while (reader.nextLine()) {
+                assertEquals(result.size() + 1, reader.lineNumber());
+                byte[] line = new byte[reader.lineEnd() - reader.lineStart()];
+                reader.buffer().get(reader.lineStart(), line);
+                result.add(new String(line, StandardCharsets.UTF_8));
+            }
+        }
+        return result;
+    }
+
+    private static List<String> referenceLines(byte[] bytes) throws IOException {
+        List<String> result = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ByteArrayInputStream(bytes), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                result.add(line);
+            }
+        }
+        return result;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.util;
+
+import com.duoc.library.TestData;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de memoria de la lectura CSV por callback.
+ * 
+ * Lee un archivo de un millón de libros, del orden de 60 MB, y mide el heap
+ * ocupado tras una recolección de basura al 10% y al 90% de la lectura. Si
+ * los registros se acumularan en memoria, entre ambas mediciones el heap
+ * crecería en cientos de MB; con la lectura por callback debe mantenerse
+ * plano.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public class CsvStreamingMemoryTest {
+
+    private static final int ROWS = 1_000_000;
+
+    /** Crecimiento máximo tolerado del heap entre las dos mediciones */
+    private static final long MAX_GROWTH_BYTES = 32L * 1024 * 1024;
+
+    private static Path booksFile;
+
+    @BeforeClass
+    public static void writeFile() throws IOException {
+        // Los nombres de archivo CSV no admiten rutas: el archivo queda en el directorio de trabajo
+        booksFile = Files.createTempFile(Paths.get(""), "prueba-libros", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(booksFile, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < ROWS; i++) {
+                writer.write(TestData.isbn(i));
+                writer.write(",\"Titulo, de prueba\" numero ");
+                writer.write(Integer.toString(i));
+                writer.write(",Autor de prueba ");
+                writer.write(Integer.toString(i % 1000));
+                writer.newLine();
+            }
+        }
+    }
+
+    @AfterClass
+    public static void deleteFile() throws IOException {
+        Files.deleteIfExists(booksFile);
+    }
+
+    @Test
+    public void streamReadKeepsHeapFlat() throws IOException {
+        assertHeapFlat(CSVReader.ReadMode.STREAM);
+    }
+
+    @Test
+    public void mappedReadKeepsHeapFlat() throws IOException {
+        assertHeapFlat(CSVReader.ReadMode.MAPPED);
+    }
+
+    /**
+     * Lee el archivo completo con el modo indicado y verifica el crecimiento del heap.
+     * 
+     * @param mode modo de lectura
+     * @throws IOException si ocurre un error de E/S
+     */
+    private static void assertHeapFlat(CSVReader.ReadMode mode) throws IOException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long[] samples = new long[2];
+        int[] seen = {0};
+        
+        int count = CSVReader.readBooksFromCSV(booksFile.toString(), mode, book -> {
+            int index = seen[0]++;
+            if (index == ROWS / 10) {
+                samples[0] = usedHeapAfterGc(memory);
+            } else if (index == ROWS - ROWS / 10) {
+                samples[1] = usedHeapAfterGc(memory);
+            }
+        });
+        
+        assertEquals(ROWS, count);
+        long growth = samples[1] - samples[0];
+        assertTrue(String.format("El heap crecio %d KB durante la lectura %s", growth / 1024, mode),
+                   growth < MAX_GROWTH_BYTES);
+    }
+
+    /**
+     * Obtiene el heap ocupado después de solicitar una recolección de basura.
+     * 
+     * @param memory bean de memoria de la JVM
+     * @return bytes de heap ocupados
+     */
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,156 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del tokenizador CSV sobre bytes.
+ * 
+ * Compara el resultado con el parser original basado en caracteres, que se
+ * conserva aquí como referencia, en casos fijos y en líneas aleatorias.
+ * 
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public class CsvTokenizerTest {
+
+    @Test
+    public void quotesFollowTheOriginalParser() {
+        assertFields("a,b,c", "a", "b", "c");
+        assertFields("", "");
+        assertFields(",", "", "");
+        assertFields("\"a,b\",c", "a,b", "c");
+        assertFields("'a,b',c", "a,b", "c");
+        assertFields("\"di \"\"hola\"\"\",x", "di \"hola\"", "x");
+        assertFields("'O''Brien',x", "O'Brien", "x");
+        assertFields("\"O'Brien\",x", "O'Brien", "x");
+        assertFields("'dice \"si\"',x", "dice \"si\"", "x");
+        assertFields(" \"a\" ,b", " a ", "b");
+        assertFields("\"sin cerrar,b", "sin cerrar,b");
+        assertFields("Cien años, de soledad", "Cien años", " de soledad");
+    }
+
+    @Test
+    public void matchesOriginalParserOnRandomLines() {
+        Random random = new Random(8);
+        String alphabet = "ab ,\"'ñ€\t";
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        for (int n = 0; n < 100_000; n++) {
+            StringBuilder line = new StringBuilder();
+            int length = random.nextInt(16);
+            for (int i = 0; i < length; i++) {
+                line.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String text = line.toString();
+            String[] expected = referenceParse(text);
+            
+            tokenizer.tokenize(heapBuffer(text), 2, 2 + utf8Length(text));
+            assertArrayEquals("Linea: [" + text + "]", expected, tokenizer.fields());
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i].trim(), tokenizer.trimmedField(i));
+                assertEquals(expected[i].trim().isEmpty(), tokenizer.isBlank(i));
+            }
+        }
+    }
+
+    @Test
+    public void directBuffersGiveTheSameFields() {
+        String text = "978-0-306-40615-7,\"Título, con \"\"comillas\"\"\",Autor ñ";
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes);
+        
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        assertEquals(3, tokenizer.tokenize(direct, 0, bytes.length));
+        assertArrayEquals(referenceParse(text), tokenizer.fields());
+    }
+
+    @Test
+    public void manyFieldsGrowTheInternalArrays() {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            line.append(i == 0 ? "" : ",").append("'c").append(i).append('\'');
+        }
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        assertEquals(50, tokenizer.tokenize(heapBuffer(line.toString()), 2, 2 + line.length()));
+        assertEquals("c49", tokenizer.field(49));
+    }
+
+    // ================================
+    // MÉTODOS AUXILIARES
+    // ================================
+
+    private static void assertFields(String text, String... expected) {
+        assertArrayEquals("Referencia: [" + text + "]", expected, referenceParse(text));
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        tokenizer.tokenize(heapBuffer(text), 2, 2 + utf8Length(text));
+        assertArrayEquals("Tokenizador: [" + text + "]", expected, tokenizer.fields());
+    }
+
+    /**
+     * Envuelve el texto en un buffer con bytes de relleno antes y después,
+     * para verificar que el tokenizador respeta los límites del rango.
+     */
+    private static ByteBuffer heapBuffer(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        byte[] padded = new byte[bytes.length + 4];
+        padded[0] = ',';
+        padded[1] = '"';
+        System.arraycopy(bytes, 0, padded, 2, bytes.length);
+        padded[padded.length - 2] = '\'';
+        padded[padded.length - 1] = ',';
+        return ByteBuffer.wrap(padded);
+    }
+
+    private static int utf8Length(String text) {
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Parser CSV original basado en caracteres, usado como referencia.
+     */
+    private static String[] referenceParse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder currentField = new StringBuilder();
+        boolean inQuotes = false;
+        char quoteChar = '"';
+        
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            
+            if (c == '"' || c == '\'') {
+                if (!inQuotes) {
+                    inQuotes = true;
+                    quoteChar = c;
+                } else if (c == quoteChar) {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == quoteChar) {
+                        currentField.append(c);
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    currentField.append(c);
+                }
+            } else if (c == ',' && !inQuotes) {
+                fields.add(currentField.toString());
+                currentField.setLength(0);
+            } else {
+                currentField.append(c);
+            }
+        }
+        fields.add(currentField.toString());
+        return fields.toArray(new String[0]);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.duoc.library.util;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32C;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del reemplazo atómico y de las sumas de verificación de {@link FileWriter}.
+ *
+ * @author Sistema de Gestión de Biblioteca
+ * @version 1.0
+ * @since 1.0
+ */
+public class FileWriterTest {
+
+    private static final String[] HEADERS = {"Codigo", "Nombre"};
+
+    private Path file;
+    private Path checksum;
+
+    @Before
+    public void setUp() throws IOException {
+        // Los nombres de archivo CSV no admiten rutas: el archivo queda en el directorio de trabajo
+        file = Files.createTempFile(Paths.get(""), "prueba-escritura", ".csv");
+        checksum = AtomicFiles.checksumFile(file);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(checksum);
+    }
+
+    @Test
+    public void checksumIsWrittenOnlyWhenRequested() throws IOException {
+        FileWriter.writeGenericCSV(rows("a"), HEADERS, file.toString(), true);
+        CRC32C crc = new CRC32C();
+        crc.update(Files.readAllBytes(file));
+        assertEquals(String.format("%08x  %s%n", crc.getValue(), file.getFileName()),
+                     Files.readString(checksum));
+
+        // Una suma de una escritura anterior ya no corresponde al contenido nuevo
+        FileWriter.writeGenericCSV(rows("b"), HEADERS, file.toString());
+        assertFalse(Files.exists(checksum));
+    }
+
+    @Test
+    public void appendDropsChecksumAndKeepsContent() throws IOException {
+        FileWriter.writeGenericCSV(rows("a"), HEADERS, file.toString(), true);
+        FileWriter.appendToCSV(rows("b", "c"), file.toString());
+
+        assertFalse(Files.exists(checksum));
+        assertEquals(Arrays.asList("Codigo,Nombre", "a,Nombre a", "b,Nombre b", "c,Nombre c"),
+                     Files.readAllLines(file));
+    }
+
+    @Test
+    public void replacementKeepsTargetPermissions() throws IOException {
+        Assume.assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+        Files.setPosixFilePermissions(file, permissions);
+
+        FileWriter.writeGenericCSV(rows("a"), HEADERS, file.toString());
+
+        assertEquals(permissions, Files.getPosixFilePermissions(file));
+    }
+
+    // ================================
+    // MÉTODOS AUXILIARES
+    // ================================
+
+    private static List<String[]> rows(String... codes) {
+        return Arrays.stream(codes)
+                     .map(code -> new String[] {code, "Nombre " + code})
+                     .collect(Collectors.toList());
+    }
+}